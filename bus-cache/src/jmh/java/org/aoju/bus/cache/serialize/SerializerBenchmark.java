@@ -0,0 +1,185 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.serialize;
+
+import org.aoju.bus.cache.support.PreventObjects;
+import org.aoju.bus.cache.support.RefreshObjects;
+import org.aoju.bus.logger.GlobalFactory;
+import org.aoju.bus.logger.dialect.console.ConsoleLog;
+import org.aoju.bus.logger.dialect.console.ConsoleLogFactory;
+import org.aoju.bus.logger.level.Level;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 远程缓存序列化基准, 对比各序列化方式一次写入加读取的开销
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=SerializerBenchmark
+ * 初始化时校验各序列化方式及缓存包装对象的往返结果, 不一致时直接失败
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    /**
+     * 列表中的对象个数
+     */
+    @Param({"1", "100"})
+    private int size;
+
+    private BaseSerializer binary;
+
+    private BaseSerializer compressed;
+
+    private BaseSerializer jdk;
+
+    private BaseSerializer hessian;
+
+    private Object value;
+
+    private Object refreshed;
+
+    @Setup
+    public void setup() {
+        // 只输出告警日志, 避免日志开销计入结果
+        ConsoleLog.setLevel(Level.WARN);
+        GlobalFactory.set(new ConsoleLogFactory());
+
+        binary = new BinarySerializer(User.class);
+        compressed = new CompressSerializer(new BinarySerializer(User.class));
+        jdk = new JdkSerializer();
+        hessian = new Hessian2Serializer();
+
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            users.add(User.of(i));
+        }
+        value = users;
+        refreshed = RefreshObjects.wrap(value, 60_000);
+
+        for (BaseSerializer serializer : List.of(binary, compressed, jdk, hessian)) {
+            check(serializer, value.equals(roundTrip(serializer, value)), "value");
+        }
+        for (BaseSerializer serializer : List.of(binary, compressed)) {
+            Object refreshedCopy = roundTrip(serializer, refreshed);
+            check(serializer, value.equals(RefreshObjects.unwrap(refreshedCopy)) && !RefreshObjects.isStale(refreshedCopy), "refresh object");
+            check(serializer, PreventObjects.isPrevent(roundTrip(serializer, PreventObjects.getPreventObject())), "prevent object");
+        }
+    }
+
+    @Benchmark
+    public Object binary() {
+        return roundTrip(binary, value);
+    }
+
+    @Benchmark
+    public Object binaryRefreshed() {
+        return roundTrip(binary, refreshed);
+    }
+
+    @Benchmark
+    public Object compressed() {
+        return roundTrip(compressed, value);
+    }
+
+    @Benchmark
+    public Object jdk() {
+        return roundTrip(jdk, value);
+    }
+
+    @Benchmark
+    public Object hessian() {
+        return roundTrip(hessian, value);
+    }
+
+    private static Object roundTrip(BaseSerializer serializer, Object object) {
+        return serializer.deserialize(serializer.serialize(object));
+    }
+
+    private static void check(BaseSerializer serializer, boolean passed, String what) {
+        if (!passed) {
+            throw new IllegalStateException(serializer.getClass().getSimpleName() + " failed to round-trip " + what);
+        }
+    }
+
+    public static class User implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long id;
+
+        private String name;
+
+        private int age;
+
+        private Date birthday;
+
+        private List<String> tags;
+
+        private Map<String, Integer> scores;
+
+        public static User of(int i) {
+            User user = new User();
+            user.id = 10_000L + i;
+            user.name = "user-" + i;
+            user.age = 20 + i % 50;
+            user.birthday = new Date(631152000000L + i * 86_400_000L);
+            user.tags = new ArrayList<>(List.of("vip", "level-" + i % 5));
+            user.scores = new HashMap<>(Map.of("math", 90 + i % 10, "art", 80 + i % 20));
+            return user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof User)) {
+                return false;
+            }
+            User user = (User) o;
+            return id == user.id && age == user.age && Objects.equals(name, user.name)
+                    && Objects.equals(birthday, user.birthday) && Objects.equals(tags, user.tags)
+                    && Objects.equals(scores, user.scores);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import org.aoju.bus.cache.annotation.CacheKey;
+import org.aoju.bus.cache.annotation.Cached;
+import org.aoju.bus.cache.magic.AnnoHolder;
+import org.aoju.bus.logger.GlobalFactory;
+import org.aoju.bus.logger.dialect.console.ConsoleLog;
+import org.aoju.bus.logger.dialect.console.ConsoleLogFactory;
+import org.aoju.bus.logger.level.Level;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存key生成基准, 对比预解析的key片段与每次解析spel的开销
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=KeyGeneratorBenchmark
+ * 表达式按未开启`-parameters`时的参数名(arg0、arg1...)编写
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyGeneratorBenchmark {
+
+    private AnnoHolder simple;
+
+    private AnnoHolder mixed;
+
+    private AnnoHolder multi;
+
+    private Object[] args;
+
+    private Object[] multiArgs;
+
+    private String[] argNames;
+
+    private String[] spels;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        // 只输出告警日志, 避免日志开销计入结果
+        ConsoleLog.setLevel(Level.WARN);
+        GlobalFactory.set(new ConsoleLogFactory());
+
+        simple = CacheInfoContainer.getCacheInfo(Service.class.getMethod("simple", Long.class, User.class, String.class)).getLeft();
+        mixed = CacheInfoContainer.getCacheInfo(Service.class.getMethod("mixed", Long.class, User.class, String.class)).getLeft();
+        multi = CacheInfoContainer.getCacheInfo(Service.class.getMethod("multi", List.class, String.class)).getLeft();
+
+        args = new Object[]{42L, new User("kimi"), "vip"};
+        multiArgs = new Object[]{Arrays.asList(new User("a"), new User("b"), new User("c"), new User("d")), "vip"};
+        argNames = ArgNameGenerator.getArgNames(mixed.getMethod());
+        spels = mixed.getCacheKeyMap().values().stream().map(CacheKey::value).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public String simpleKey() {
+        return KeyGenerator.generateSingleKey(simple, args);
+    }
+
+    @Benchmark
+    public String mixedKey() {
+        return KeyGenerator.generateSingleKey(mixed, args);
+    }
+
+    @Benchmark
+    public Map[] multiKey() {
+        return KeyGenerator.generateMultiKey(multi, multiArgs);
+    }
+
+    /**
+     * 每次新建环境并解析表达式, 即预解析之前的做法
+     */
+    @Benchmark
+    public String mixedKeyParsePerCall() {
+        EvaluationContext context = new StandardEvaluationContext();
+        for (int i = 0; i < args.length; ++i) {
+            context.setVariable(argNames[i], args[i]);
+        }
+        StringBuilder sb = new StringBuilder(mixed.getPrefix());
+        for (String spel : spels) {
+            sb.append(new SpelExpressionParser().parseExpression(spel).getValue(context));
+        }
+        return sb.toString();
+    }
+
+    public static class Service {
+
+        @Cached(prefix = "user:")
+        public User simple(@CacheKey("#arg0") Long id, @CacheKey("#arg1.name") User user, @CacheKey("#arg2") String tag) {
+            return user;
+        }
+
+        @Cached(prefix = "user:")
+        public User mixed(@CacheKey("#arg0") Long id, @CacheKey("#arg1.name") User user, @CacheKey("'-' + #arg2.toUpperCase()") String tag) {
+            return user;
+        }
+
+        @Cached(prefix = "user:")
+        public List<User> multi(@CacheKey(value = "#arg0[#i].name", field = "name") List<User> users, @CacheKey("#arg1") String tag) {
+            return users;
+        }
+
+    }
+
+    public static class User {
+
+        private final String name;
+
+        public User(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+    }
+
+}
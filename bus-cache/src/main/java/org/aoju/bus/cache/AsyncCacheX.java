@@ -0,0 +1,73 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步缓存接口
+ * 远程缓存的批量读写在独立线程中执行, 调用方可在等待期间继续其他工作
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public interface AsyncCacheX extends CacheX {
+
+    /**
+     * 异步获得对象
+     *
+     * @param key 键
+     * @return 键对应的对象
+     */
+    CompletableFuture<Object> readAsync(String key);
+
+    /**
+     * 异步获得一组对象信息
+     *
+     * @param keys 多个键
+     * @return 值对象
+     */
+    CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys);
+
+    /**
+     * 异步将对象加入到缓存,使用指定失效时长
+     *
+     * @param map    缓存的对象
+     * @param expire 失效时长,单位毫秒
+     * @return 写入结果
+     */
+    CompletableFuture<Void> writeAsync(Map<String, Object> map, long expire);
+
+    /**
+     * 单次批量命令包含的最大key数量
+     *
+     * @return 批量大小
+     */
+    int getBatchSize();
+
+}
@@ -56,6 +56,9 @@ public class Complex {
     @Inject
     private Manage cacheManager;
 
+    @Inject
+    private SingleFlight singleFlight;
+
     @Inject
     @Named("singleCacheReader")
     private AbstractReader singleCacheReader;
@@ -125,12 +128,15 @@ public class Complex {
             if (annoHolder.isMulti()) {
                 Map[] pair = KeyGenerator.generateMultiKey(annoHolder, args);
                 Set<String> keys = ((Map<String, Object>) pair[1]).keySet();
-                cacheManager.remove(invalid.value(), keys.toArray(new String[keys.size()]));
+                String[] removeKeys = keys.toArray(new String[keys.size()]);
+                cacheManager.remove(invalid.value(), removeKeys);
+                singleFlight.invalidate(invalid.value(), removeKeys);
 
                 Logger.info("multi cache clear, keys: {}", keys);
             } else {
                 String key = KeyGenerator.generateSingleKey(annoHolder, args);
                 cacheManager.remove(invalid.value(), key);
+                singleFlight.invalidate(invalid.value(), key);
 
                 Logger.info("single cache clear, key: {}", key);
             }
@@ -49,12 +49,21 @@ public class Context {
      * 是否开启缓存防击穿
      */
     private Switch prevent;
+    /**
+     * 是否在其他调用回源期间返回旧值
+     */
+    private Switch stale;
+    /**
+     * 等待其他调用回源的最长时间(毫秒),超时后自行回源,不大于0时使用默认值
+     */
+    private long flightTimeout;
 
     public static Context newConfig(Map<String, CacheX> caches) {
         Context config = new Context();
         config.caches = caches;
         config.cache = Switch.ON;
         config.prevent = Switch.OFF;
+        config.stale = Switch.OFF;
         config.hitting = null;
         return config;
     }
@@ -63,6 +72,10 @@ public class Context {
         return null != prevent && prevent == Switch.ON;
     }
 
+    public boolean isStaleOn() {
+        return null != stale && stale == Switch.ON;
+    }
+
     public Map<String, CacheX> getCaches() {
         return caches;
     }
@@ -95,6 +108,22 @@ public class Context {
         this.prevent = prevent;
     }
 
+    public Switch getStale() {
+        return stale;
+    }
+
+    public void setStale(Switch stale) {
+        this.stale = stale;
+    }
+
+    public long getFlightTimeout() {
+        return flightTimeout;
+    }
+
+    public void setFlightTimeout(long flightTimeout) {
+        this.flightTimeout = flightTimeout;
+    }
+
     /**
      * 开关
      */
@@ -41,6 +41,15 @@ public interface Hitting {
 
     void hitIncr(String pattern, int count);
 
+    /**
+     * 记录一次缓存读取耗时
+     *
+     * @param pattern 分组模板
+     * @param nanos   耗时(纳秒)
+     */
+    default void costRecord(String pattern, long nanos) {
+    }
+
     Map<String, HittingDO> getHitting();
 
     void reset(String pattern);
@@ -34,6 +34,7 @@ import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.logger.Logger;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -106,26 +107,53 @@ public class Manage {
                         cacheImpl.getLeft(),
                         (System.currentTimeMillis() - start));
 
-                // collect not nit keys, keep order when full shooting
-                Map<String, Object> hitValueMap = new LinkedHashMap<>();
-                Set<String> notHitKeys = new LinkedHashSet<>();
-                for (String key : keys) {
-                    Object value = cacheMap.get(key);
-                    if (null == value) {
-                        notHitKeys.add(key);
-                    } else {
-                        hitValueMap.put(key, value);
-                    }
-                }
-                cacheKeys = new CacheKeys(hitValueMap, notHitKeys);
+                cacheKeys = toCacheKeys(keys, cacheMap);
             } catch (Throwable e) {
                 Logger.error("read multi cache failed, keys: {}", keys, e);
-                cacheKeys = new CacheKeys();
+                cacheKeys = toCacheKeys(keys, Collections.emptyMap());
             }
         }
         return cacheKeys;
     }
 
+    /**
+     * 异步批量读取, 缓存不支持异步时同步读取
+     *
+     * @param cache 缓存名称
+     * @param keys  多个键
+     * @return 命中及未命中的key
+     */
+    public CompletableFuture<CacheKeys> readBatchAsync(String cache, Collection<String> keys) {
+        CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
+        if (keys.isEmpty() || !(cacheImpl.getRight() instanceof AsyncCacheX)) {
+            return CompletableFuture.completedFuture(readBatch(cache, keys));
+        }
+
+        long start = System.currentTimeMillis();
+        return ((AsyncCacheX) cacheImpl.getRight()).readAsync(keys).handle((cacheMap, e) -> {
+            if (null != e) {
+                Logger.error("read multi cache failed, keys: {}", keys, e);
+                return toCacheKeys(keys, Collections.emptyMap());
+            }
+
+            Logger.info("cache [{}] read batch async cost: [{}] ms",
+                    cacheImpl.getLeft(),
+                    (System.currentTimeMillis() - start));
+            return toCacheKeys(keys, cacheMap);
+        });
+    }
+
+    /**
+     * 单次批量读取的key数量上限, 缓存不支持异步时不分批
+     *
+     * @param cache 缓存名称
+     * @return 批量大小
+     */
+    public int getBatchSize(String cache) {
+        CacheX cacheX = getCacheImpl(cache).getRight();
+        return cacheX instanceof AsyncCacheX ? ((AsyncCacheX) cacheX).getBatchSize() : Integer.MAX_VALUE;
+    }
+
     public void writeBatch(String cache, Map<String, Object> keyValueMap, int expire) {
         try {
             CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
@@ -158,6 +186,21 @@ public class Manage {
         }
     }
 
+    // collect not nit keys, keep order when full shooting
+    private static CacheKeys toCacheKeys(Collection<String> keys, Map<String, Object> cacheMap) {
+        Map<String, Object> hitValueMap = new LinkedHashMap<>();
+        Set<String> notHitKeys = new LinkedHashSet<>();
+        for (String key : keys) {
+            Object value = cacheMap.get(key);
+            if (null == value) {
+                notHitKeys.add(key);
+            } else {
+                hitValueMap.put(key, value);
+            }
+        }
+        return new CacheKeys(hitValueMap, notHitKeys);
+    }
+
     private CachePair<String, CacheX> getCacheImpl(String cacheName) {
         if (StringKit.isEmpty(cacheName)) {
             return defaultCache;
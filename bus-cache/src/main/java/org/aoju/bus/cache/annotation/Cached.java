@@ -63,4 +63,11 @@ public @interface Cached {
      */
     int expire() default CacheExpire.FOREVER;
 
+    /**
+     * @return soft expire time, time unit: <b>milliseconds</b>,
+     * once elapsed the cached value is still returned and reloaded asynchronously,
+     * {@code expire} remains the hard upper bound, values {@code <= 0} disable refresh-ahead
+     */
+    int refresh() default CacheExpire.FOREVER;
+
 }
@@ -53,4 +53,9 @@ public abstract class AbstractReader {
         T get() throws Throwable;
     }
 
+    @FunctionalInterface
+    protected interface ThrowableFunction<T, R> {
+        R apply(T t) throws Throwable;
+    }
+
 }
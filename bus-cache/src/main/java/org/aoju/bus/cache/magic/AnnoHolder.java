@@ -42,6 +42,7 @@ public class AnnoHolder {
     private String cache;
     private String prefix;
     private int expire;
+    private int refresh;
 
     // @CacheKey
     private Map<Integer, CacheKey> cacheKeyMap;
@@ -51,12 +52,13 @@ public class AnnoHolder {
     private String id;
 
     private AnnoHolder(Method method,
-                       String cache, String prefix, int expire,
+                       String cache, String prefix, int expire, int refresh,
                        Map<Integer, CacheKey> cacheKeyMap, int multiIndex, String id) {
         this.method = method;
         this.cache = cache;
         this.prefix = prefix;
         this.expire = expire;
+        this.refresh = refresh;
         this.cacheKeyMap = cacheKeyMap;
         this.multiIndex = multiIndex;
         this.id = id;
@@ -78,6 +80,14 @@ public class AnnoHolder {
         return expire;
     }
 
+    public int getRefresh() {
+        return refresh;
+    }
+
+    public boolean isRefresh() {
+        return refresh > 0;
+    }
+
     public Map<Integer, CacheKey> getCacheKeyMap() {
         return cacheKeyMap;
     }
@@ -104,6 +114,8 @@ public class AnnoHolder {
 
         private int expire;
 
+        private int refresh;
+
         private Map<Integer, CacheKey> cacheKeyMap;
 
         private int multiIndex = -1;
@@ -133,6 +145,11 @@ public class AnnoHolder {
             return this;
         }
 
+        public Builder setRefresh(int refresh) {
+            this.refresh = refresh;
+            return this;
+        }
+
         public Builder setMultiIndex(int multiIndex) {
             this.multiIndex = multiIndex;
             return this;
@@ -149,7 +166,7 @@ public class AnnoHolder {
         }
 
         public AnnoHolder build() {
-            return new AnnoHolder(method, cache, prefix, expire, cacheKeyMap, multiIndex, id);
+            return new AnnoHolder(method, cache, prefix, expire, refresh, cacheKeyMap, multiIndex, id);
         }
     }
 
@@ -35,6 +35,7 @@ import org.aoju.bus.logger.Logger;
 import org.aoju.bus.proxy.invoker.ProxyChain;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -50,6 +51,12 @@ public class MultiCacheReader extends AbstractReader {
     @Inject
     private Context config;
 
+    @Inject
+    private SingleFlight singleFlight;
+
+    @Inject
+    private Refresher refresher;
+
     @Inject(optional = true)
     private Hitting baseHitting;
 
@@ -119,14 +126,19 @@ public class MultiCacheReader extends AbstractReader {
 
     @Override
     public Object read(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker, boolean needWrite) throws Throwable {
-        // compose keys
-        Map[] pair = KeyGenerator.generateMultiKey(annoHolder, baseInvoker.getArguments());
+        // compose keys & request cache: 异步缓存边生成key边分批读取
+        String cache = annoHolder.getCache();
+        List<CompletableFuture<CacheKeys>> reads = new ArrayList<>();
+        long start = System.nanoTime();
+        Map[] pair = KeyGenerator.generateMultiKey(annoHolder, baseInvoker.getArguments(),
+                cacheManager.getBatchSize(cache), keys -> reads.add(cacheManager.readBatchAsync(cache, keys)));
         Map<String, Object> key2MultiEntry = pair[1];
 
-        // request cache
-        Set<String> keys = key2MultiEntry.keySet();
-        CacheKeys cacheKeys = cacheManager.readBatch(annoHolder.getCache(), keys);
-        doRecord(cacheKeys, annoHolder);
+        CacheKeys cacheKeys = join(reads);
+        doRecord(cacheKeys, annoHolder, System.nanoTime() - start);
+        if (annoHolder.isRefresh()) {
+            cacheKeys = refreshAhead(baseInvoker, cacheKeys, annoHolder, pair, needWrite);
+        }
 
         Object result;
         // have miss keys : part hit || all not hit
@@ -149,39 +161,76 @@ public class MultiCacheReader extends AbstractReader {
         Map<Object, String> multiEntry2Key = pair[0];
         Map<String, Object> key2MultiEntry = pair[1];
 
-        Set<String> missKeys = cacheKeys.getMissKeySet();
-        Map<String, Object> hitKeyValueMap = cacheKeys.getHitKeyMap();
+        // 已在其他调用中回源的key不再重复回源, 只回源当前调用抢占到的key
+        SingleFlight.Flights flights = singleFlight.acquire(annoHolder.getCache(), cacheKeys.getMissKeySet());
+        Map<String, Object> hitKeyValueMap = new LinkedHashMap<>(cacheKeys.getHitKeyMap());
+
+        // 抢到回源权时其他调用可能刚写入缓存, 重新读取一次
+        Set<String> ownedKeys = flights.getOwnedKeys();
+        if (!ownedKeys.isEmpty()) {
+            Map<String, Object> rehitKeyValueMap = new LinkedHashMap<>();
+            cacheManager.readBatch(annoHolder.getCache(), ownedKeys).getHitKeyMap()
+                    .forEach((key, value) -> rehitKeyValueMap.put(key, RefreshObjects.unwrap(value)));
+            singleFlight.resolve(flights, rehitKeyValueMap);
+            hitKeyValueMap.putAll(rehitKeyValueMap);
+        }
+        Set<String> missKeys = flights.getOwnedKeys();
+
+        // 等待超时的key自行回源
+        ThrowableFunction<Set<String>, Map<String, Object>> timeoutLoader = keys -> {
+            Object[] timeoutArgs = toMissArgs(keys, key2MultiEntry, baseInvoker.getArguments(), annoHolder.getMultiIndex());
+            Object timeoutProceed = doLogInvoke(() -> baseInvoker.proceed(timeoutArgs));
+            if (null == timeoutProceed) {
+                return Collections.emptyMap();
+            }
+            Map<String, Object> timeoutKeyValueMap = toKeyValue(timeoutProceed, annoHolder, keys, multiEntry2Key);
+            if (needWrite) {
+                doWrite(annoHolder, timeoutKeyValueMap);
+            }
+            return timeoutKeyValueMap;
+        };
 
-        // 用未命中的keys调用方法
-        Object[] missArgs = toMissArgs(missKeys, key2MultiEntry, baseInvoker.getArguments(), annoHolder.getMultiIndex());
-        Object proceed = doLogInvoke(() -> baseInvoker.proceed(missArgs));
+        if (missKeys.isEmpty()) {
+            hitKeyValueMap.putAll(singleFlight.await(flights, timeoutLoader));
+            return handleFullHit(baseInvoker, hitKeyValueMap, methodHolder, key2MultiEntry);
+        }
 
-        Object result;
-        if (null != proceed) {
-            Class<?> returnType = proceed.getClass();
-            methodHolder.setReturnType(returnType);
-            if (Map.class.isAssignableFrom(returnType)) {
-                Map proceedEntryValueMap = (Map) proceed;
+        Object proceed;
+        Map<String, Object> keyValueMap;
+        try {
+            // 用未命中的keys调用方法
+            Object[] missArgs = toMissArgs(missKeys, key2MultiEntry, baseInvoker.getArguments(), annoHolder.getMultiIndex());
+            proceed = doLogInvoke(() -> baseInvoker.proceed(missArgs));
+            keyValueMap = Collections.emptyMap();
+            if (null != proceed) {
+                Class<?> returnType = proceed.getClass();
+                methodHolder.setReturnType(returnType);
+                keyValueMap = toKeyValue(proceed, annoHolder, missKeys, multiEntry2Key);
 
                 // 为了兼容@CachedGet注解, 客户端缓存
                 if (needWrite) {
-                    // 将方法调用返回的map转换成key_value_map写入Cache
-                    Map<String, Object> keyValueMap = KeyValue.mapToKeyValue(proceedEntryValueMap, missKeys, multiEntry2Key, config.getPrevent());
-                    cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
+                    doWrite(annoHolder, keyValueMap);
                 }
+            }
+        } catch (Throwable e) {
+            singleFlight.fail(flights, e);
+            throw e;
+        }
+        singleFlight.complete(flights, keyValueMap);
+
+        if (flights.isWaiting()) {
+            hitKeyValueMap.putAll(singleFlight.await(flights, timeoutLoader));
+        }
+
+        Object result;
+        if (null != proceed) {
+            Class<?> returnType = proceed.getClass();
+            if (Map.class.isAssignableFrom(returnType)) {
                 // 将方法调用返回的map与从Cache中读取的key_value_map合并返回
-                result = mergeMap(returnType, proceedEntryValueMap, key2MultiEntry, hitKeyValueMap);
+                result = mergeMap(returnType, (Map) proceed, key2MultiEntry, hitKeyValueMap);
             } else {
-                Collection proceedCollection = asCollection(proceed, returnType);
-
-                // 为了兼容@CachedGet注解, 客户端缓存
-                if (needWrite) {
-                    // 将方法调用返回的collection转换成key_value_map写入Cache
-                    Map<String, Object> keyValueMap = KeyValue.collectionToKeyValue(proceedCollection, annoHolder.getId(), missKeys, multiEntry2Key, config.getPrevent());
-                    cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
-                }
                 // 将方法调用返回的collection与从Cache中读取的key_value_map合并返回
-                Collection resultCollection = mergeCollection(returnType, proceedCollection, hitKeyValueMap);
+                Collection resultCollection = mergeCollection(returnType, asCollection(proceed, returnType), hitKeyValueMap);
                 result = asType(resultCollection, returnType);
             }
         } else {
@@ -192,6 +241,51 @@ public class MultiCacheReader extends AbstractReader {
         return result;
     }
 
+    /**
+     * 超过软过期时间的key返回旧值, 并在后台用这些key重新调用方法刷新缓存; 不写缓存的方法只解包旧值
+     */
+    private CacheKeys refreshAhead(ProxyChain baseInvoker, CacheKeys cacheKeys, AnnoHolder annoHolder, Map[] pair, boolean needWrite) {
+        Map<Object, String> multiEntry2Key = pair[0];
+        Map<String, Object> key2MultiEntry = pair[1];
+
+        Set<String> staleKeys = new LinkedHashSet<>();
+        Map<String, Object> hitKeyValueMap = new LinkedHashMap<>(cacheKeys.getHitKeyMap().size());
+        cacheKeys.getHitKeyMap().forEach((key, value) -> {
+            if (needWrite && RefreshObjects.isStale(value)) {
+                staleKeys.add(key);
+            }
+            hitKeyValueMap.put(key, RefreshObjects.unwrap(value));
+        });
+
+        if (!staleKeys.isEmpty()) {
+            Object[] args = baseInvoker.getArguments().clone();
+            refresher.refresh(annoHolder.getCache(), staleKeys, refreshKeys -> {
+                Object[] refreshArgs = toMissArgs(refreshKeys, key2MultiEntry, args, annoHolder.getMultiIndex());
+                Object proceed = baseInvoker.proceed(refreshArgs);
+                if (null != proceed) {
+                    doWrite(annoHolder, toKeyValue(proceed, annoHolder, refreshKeys, multiEntry2Key));
+                }
+            });
+        }
+        return new CacheKeys(hitKeyValueMap, cacheKeys.getMissKeySet());
+    }
+
+    private Map<String, Object> toKeyValue(Object proceed, AnnoHolder annoHolder,
+                                           Set<String> keys, Map<Object, String> multiEntry2Key) {
+        Class<?> returnType = proceed.getClass();
+        if (Map.class.isAssignableFrom(returnType)) {
+            // 将方法调用返回的map转换成key_value_map
+            return KeyValue.mapToKeyValue((Map) proceed, new LinkedHashSet<>(keys), multiEntry2Key, config.getPrevent());
+        }
+        // 将方法调用返回的collection转换成key_value_map
+        return KeyValue.collectionToKeyValue(asCollection(proceed, returnType), annoHolder.getId(), new LinkedHashSet<>(keys), multiEntry2Key, config.getPrevent());
+    }
+
+    private void doWrite(AnnoHolder annoHolder, Map<String, Object> keyValueMap) {
+        Map<String, Object> cacheValueMap = annoHolder.isRefresh() ? RefreshObjects.wrap(keyValueMap, annoHolder.getRefresh()) : keyValueMap;
+        cacheManager.writeBatch(annoHolder.getCache(), cacheValueMap, annoHolder.getExpire());
+    }
+
     private Object asType(Collection collection, Class<?> returnType) {
         if (Collection.class.isAssignableFrom(returnType)) {
             return collection;
@@ -249,7 +343,25 @@ public class MultiCacheReader extends AbstractReader {
         return args;
     }
 
-    private void doRecord(CacheKeys cacheKeys, AnnoHolder annoHolder) {
+    private static CacheKeys join(List<CompletableFuture<CacheKeys>> reads) {
+        if (reads.isEmpty()) {
+            return new CacheKeys();
+        }
+        if (reads.size() == 1) {
+            return reads.get(0).join();
+        }
+
+        Map<String, Object> hitKeyMap = new LinkedHashMap<>();
+        Set<String> missKeySet = new LinkedHashSet<>();
+        for (CompletableFuture<CacheKeys> read : reads) {
+            CacheKeys cacheKeys = read.join();
+            hitKeyMap.putAll(cacheKeys.getHitKeyMap());
+            missKeySet.addAll(cacheKeys.getMissKeySet());
+        }
+        return new CacheKeys(hitKeyMap, missKeySet);
+    }
+
+    private void doRecord(CacheKeys cacheKeys, AnnoHolder annoHolder, long nanos) {
         Set<String> missKeys = cacheKeys.getMissKeySet();
 
         // 计数
@@ -264,6 +376,7 @@ public class MultiCacheReader extends AbstractReader {
 
             this.baseHitting.hitIncr(pattern, hitCount);
             this.baseHitting.reqIncr(pattern, totalCount);
+            this.baseHitting.costRecord(pattern, nanos);
         }
     }
 
@@ -0,0 +1,113 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.magic;
+
+import org.aoju.bus.core.annotation.Singleton;
+import org.aoju.bus.logger.Logger;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存提前刷新,在有界线程池中异步回源,同一缓存中的同一key同时只会有一个刷新任务,
+ * 线程池满时直接放弃本次刷新,等待下一次读取再触发
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@Singleton
+public class Refresher {
+
+    private static final int QUEUE_SIZE = 1024;
+
+    /**
+     * 缓存名称 -> 刷新中的key
+     */
+    private final ConcurrentMap<String, Set<String>> refreshing = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+
+    public Refresher() {
+        AtomicInteger number = new AtomicInteger(1);
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+            Thread thread = new Thread(r, "cache:refresher-" + number.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 提交刷新任务
+     *
+     * @param cache 缓存名称
+     * @param keys  需要刷新的key
+     * @param task  刷新逻辑,参数为当前任务负责的key
+     */
+    public void refresh(String cache, Collection<String> keys, RefreshTask task) {
+        Set<String> scope = scope(cache);
+        Set<String> owned = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (scope.add(key)) {
+                owned.add(key);
+            }
+        }
+        if (owned.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run(owned);
+                } catch (Throwable e) {
+                    Logger.error("refresh cache failed, keys: {}", owned, e);
+                } finally {
+                    scope.removeAll(owned);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scope.removeAll(owned);
+            Logger.warn("refresh cache rejected, keys: {}", owned);
+        }
+    }
+
+    private Set<String> scope(String cache) {
+        Set<String> scope = refreshing.get(cache);
+        return null != scope ? scope : refreshing.computeIfAbsent(cache, name -> ConcurrentHashMap.newKeySet());
+    }
+
+    @FunctionalInterface
+    public interface RefreshTask {
+        void run(Set<String> keys) throws Throwable;
+    }
+
+}
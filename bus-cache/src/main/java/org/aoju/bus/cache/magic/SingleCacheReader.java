@@ -31,11 +31,14 @@ import org.aoju.bus.cache.Manage;
 import org.aoju.bus.cache.support.KeyGenerator;
 import org.aoju.bus.cache.support.PatternGenerator;
 import org.aoju.bus.cache.support.PreventObjects;
+import org.aoju.bus.cache.support.RefreshObjects;
 import org.aoju.bus.core.annotation.Inject;
 import org.aoju.bus.core.annotation.Singleton;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.proxy.invoker.ProxyChain;
 
+import java.util.Collections;
+
 /**
  * @author Kimi Liu
  * @since Java 17+
@@ -49,17 +52,36 @@ public class SingleCacheReader extends AbstractReader {
     @Inject
     private Context config;
 
+    @Inject
+    private SingleFlight singleFlight;
+
+    @Inject
+    private Refresher refresher;
+
     @Inject(optional = true)
     private Hitting baseHitting;
 
     @Override
     public Object read(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker, boolean needWrite) throws Throwable {
         String key = KeyGenerator.generateSingleKey(annoHolder, baseInvoker.getArguments());
+        long start = System.nanoTime();
         Object readResult = cacheManager.readSingle(annoHolder.getCache(), key);
 
-        doRecord(readResult, key, annoHolder);
+        doRecord(readResult, key, annoHolder, System.nanoTime() - start);
         // 命中
         if (null != readResult) {
+            // 超过软过期时间, 返回旧值并异步刷新; 不写缓存的方法不触发刷新
+            if (needWrite && RefreshObjects.isStale(readResult)) {
+                Object[] args = baseInvoker.getArguments().clone();
+                refresher.refresh(annoHolder.getCache(), Collections.singleton(key), keys -> {
+                    Object refreshResult = baseInvoker.proceed(args);
+                    if (null != refreshResult) {
+                        doWrite(annoHolder, key, refreshResult);
+                    }
+                });
+            }
+            readResult = RefreshObjects.unwrap(readResult);
+
             // 是放击穿对象
             if (PreventObjects.isPrevent(readResult)) {
                 return null;
@@ -68,28 +90,43 @@ public class SingleCacheReader extends AbstractReader {
             return readResult;
         }
 
-        Object invokeResult = doLogInvoke(baseInvoker::proceed);
-        if (null != invokeResult && null == methodHolder.getInnerReturnType()) {
-            methodHolder.setInnerReturnType(invokeResult.getClass());
-        }
+        // 同一key并发未命中时只回源一次
+        return singleFlight.execute(annoHolder.getCache(), key, () -> {
+            // 抢到回源权时前一次回源可能刚写入缓存
+            Object cacheResult = cacheManager.readSingle(annoHolder.getCache(), key);
+            if (null != cacheResult) {
+                cacheResult = RefreshObjects.unwrap(cacheResult);
+                return PreventObjects.isPrevent(cacheResult) ? null : cacheResult;
+            }
 
-        if (!needWrite) {
-            return invokeResult;
-        }
+            Object invokeResult = doLogInvoke(baseInvoker::proceed);
+            if (null != invokeResult && null == methodHolder.getInnerReturnType()) {
+                methodHolder.setInnerReturnType(invokeResult.getClass());
+            }
 
-        if (null != invokeResult) {
-            cacheManager.writeSingle(annoHolder.getCache(), key, invokeResult, annoHolder.getExpire());
-            return invokeResult;
-        }
+            if (!needWrite) {
+                return invokeResult;
+            }
 
-        if (config.isPreventOn()) {
-            cacheManager.writeSingle(annoHolder.getCache(), key, PreventObjects.getPreventObject(), annoHolder.getExpire());
-        }
+            if (null != invokeResult) {
+                doWrite(annoHolder, key, invokeResult);
+                return invokeResult;
+            }
+
+            if (config.isPreventOn()) {
+                cacheManager.writeSingle(annoHolder.getCache(), key, PreventObjects.getPreventObject(), annoHolder.getExpire());
+            }
+
+            return null;
+        });
+    }
 
-        return null;
+    private void doWrite(AnnoHolder annoHolder, String key, Object value) {
+        Object cacheValue = annoHolder.isRefresh() ? RefreshObjects.wrap(value, annoHolder.getRefresh()) : value;
+        cacheManager.writeSingle(annoHolder.getCache(), key, cacheValue, annoHolder.getExpire());
     }
 
-    private void doRecord(Object result, String key, AnnoHolder annoHolder) {
+    private void doRecord(Object result, String key, AnnoHolder annoHolder, long nanos) {
         Logger.info("single cache hit rate: {}/1, key: {}", null == result ? 0 : 1, key);
         if (null != this.baseHitting) {
             String pattern = PatternGenerator.generatePattern(annoHolder);
@@ -97,6 +134,7 @@ public class SingleCacheReader extends AbstractReader {
                 this.baseHitting.hitIncr(pattern, 1);
             }
             this.baseHitting.reqIncr(pattern, 1);
+            this.baseHitting.costRecord(pattern, nanos);
         }
     }
 
@@ -0,0 +1,305 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.magic;
+
+import org.aoju.bus.cache.Context;
+import org.aoju.bus.cache.metric.TinyLfuCache;
+import org.aoju.bus.cache.support.PreventObjects;
+import org.aoju.bus.core.annotation.Inject;
+import org.aoju.bus.core.annotation.Singleton;
+import org.aoju.bus.logger.Logger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 请求合并,同一缓存中的同一个key同一时刻只允许一个调用回源,其余调用共享其结果
+ * 等待超过{@link Context#getFlightTimeout()}时不再等待,由等待者自行回源
+ * 开启{@link Context#isStaleOn()}时,等待者优先返回上一次加载的旧值,旧值最多保留{@link #STALE_EXPIRE}毫秒
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@Singleton
+public class SingleFlight {
+
+    /**
+     * 旧值缓存的最大条目数
+     */
+    private static final long STALE_SIZE = 10_000;
+
+    /**
+     * 旧值的最长保留时间(毫秒)
+     */
+    private static final long STALE_EXPIRE = 60_000;
+
+    /**
+     * 默认的最长等待时间(毫秒)
+     */
+    private static final long FLIGHT_TIMEOUT = 3_000;
+
+    /**
+     * 缓存名称 -> 缓存key -> 回源中的结果
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, CompletableFuture<Object>>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存名称 -> 旧值
+     */
+    private final ConcurrentMap<String, TinyLfuCache> stales = new ConcurrentHashMap<>();
+
+    @Inject
+    private Context config;
+
+    /**
+     * 单个key回源,由第一个到达的调用执行loader,其余调用等待其结果
+     *
+     * @param cache  缓存名称
+     * @param key    缓存key
+     * @param loader 回源逻辑(包含缓存写入)
+     * @return 回源结果
+     * @throws Throwable 回源异常
+     */
+    public Object execute(String cache, String key, AbstractReader.ThrowableSupplier<Object> loader) throws Throwable {
+        ConcurrentMap<String, CompletableFuture<Object>> scope = scope(cache);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = scope.putIfAbsent(key, flight);
+        if (null != inFlight) {
+            Object stale = readStale(cache, key);
+            if (null != stale) {
+                return stale;
+            }
+            try {
+                return await(inFlight, System.nanoTime() + timeout());
+            } catch (TimeoutException e) {
+                Logger.warn("single flight wait timeout, load by self, key: {}", key);
+                return loader.get();
+            }
+        }
+
+        try {
+            Object result = loader.get();
+            writeStale(cache, key, result);
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            scope.remove(key, flight);
+        }
+    }
+
+    /**
+     * 清除key的旧值,缓存失效时调用,避免等待者再读到失效前的值
+     *
+     * @param cache 缓存名称
+     * @param keys  缓存key
+     */
+    public void invalidate(String cache, String... keys) {
+        TinyLfuCache scope = stales.get(cache);
+        if (null != scope) {
+            scope.remove(keys);
+        }
+    }
+
+    /**
+     * 批量抢占key,未在加载中的key由当前调用负责回源,其余key等待其他调用的结果
+     *
+     * @param cache 缓存名称
+     * @param keys  未命中的key
+     * @return 抢占结果
+     */
+    public Flights acquire(String cache, Collection<String> keys) {
+        ConcurrentMap<String, CompletableFuture<Object>> scope = scope(cache);
+        Map<String, CompletableFuture<Object>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Object>> waiting = new LinkedHashMap<>();
+        for (String key : keys) {
+            CompletableFuture<Object> flight = new CompletableFuture<>();
+            CompletableFuture<Object> inFlight = scope.putIfAbsent(key, flight);
+            if (null == inFlight) {
+                owned.put(key, flight);
+            } else {
+                waiting.put(key, inFlight);
+            }
+        }
+        return new Flights(cache, scope, owned, waiting);
+    }
+
+    /**
+     * 完成当前调用负责的key,并唤醒等待者
+     *
+     * @param flights     抢占结果
+     * @param keyValueMap 回源得到的key-value
+     */
+    public void complete(Flights flights, Map<String, Object> keyValueMap) {
+        flights.owned.forEach((key, flight) -> {
+            Object value = keyValueMap.get(key);
+            writeStale(flights.cache, key, value);
+            flight.complete(value);
+            flights.scope.remove(key, flight);
+        });
+    }
+
+    /**
+     * 当前调用负责的key在抢占后已由其他调用写入缓存,直接完成而不再回源
+     *
+     * @param flights     抢占结果
+     * @param keyValueMap 重新读取缓存命中的key-value
+     */
+    public void resolve(Flights flights, Map<String, Object> keyValueMap) {
+        keyValueMap.forEach((key, value) -> {
+            CompletableFuture<Object> flight = flights.owned.remove(key);
+            if (null != flight) {
+                flight.complete(value);
+                flights.scope.remove(key, flight);
+            }
+        });
+    }
+
+    /**
+     * 回源失败,将异常传递给等待者
+     *
+     * @param flights 抢占结果
+     * @param e       异常信息
+     */
+    public void fail(Flights flights, Throwable e) {
+        flights.owned.forEach((key, flight) -> {
+            flight.completeExceptionally(e);
+            flights.scope.remove(key, flight);
+        });
+    }
+
+    /**
+     * 等待其他调用负责的key加载完成,超时未完成的key交由loader自行回源
+     *
+     * @param flights 抢占结果
+     * @param loader  超时key的回源逻辑(包含缓存写入)
+     * @return 已加载到的key-value, 不包含空值
+     * @throws Throwable 回源异常
+     */
+    public Map<String, Object> await(Flights flights,
+                                     AbstractReader.ThrowableFunction<Set<String>, Map<String, Object>> loader) throws Throwable {
+        Map<String, Object> result = new LinkedHashMap<>(flights.waiting.size());
+        Set<String> timeoutKeys = new LinkedHashSet<>();
+        long deadline = System.nanoTime() + timeout();
+        for (Map.Entry<String, CompletableFuture<Object>> entry : flights.waiting.entrySet()) {
+            Object value = readStale(flights.cache, entry.getKey());
+            if (null == value) {
+                try {
+                    value = await(entry.getValue(), deadline);
+                } catch (TimeoutException e) {
+                    timeoutKeys.add(entry.getKey());
+                    continue;
+                }
+            }
+            if (null != value) {
+                result.put(entry.getKey(), value);
+            }
+        }
+
+        if (!timeoutKeys.isEmpty()) {
+            Logger.warn("single flight wait timeout, load by self, keys: {}", timeoutKeys);
+            loader.apply(timeoutKeys).forEach((key, value) -> {
+                if (null != value) {
+                    result.put(key, value);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> flight, long deadline) throws Throwable {
+        try {
+            return flight.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ConcurrentMap<String, CompletableFuture<Object>> scope(String cache) {
+        ConcurrentMap<String, CompletableFuture<Object>> scope = flights.get(cache);
+        return null != scope ? scope : flights.computeIfAbsent(cache, name -> new ConcurrentHashMap<>());
+    }
+
+    private long timeout() {
+        long timeout = config.getFlightTimeout();
+        return TimeUnit.MILLISECONDS.toNanos(timeout > 0 ? timeout : FLIGHT_TIMEOUT);
+    }
+
+    private Object readStale(String cache, String key) {
+        if (!config.isStaleOn()) {
+            return null;
+        }
+        TinyLfuCache scope = stales.get(cache);
+        return null != scope ? scope.read(key) : null;
+    }
+
+    private void writeStale(String cache, String key, Object value) {
+        if (config.isStaleOn() && null != value && !PreventObjects.isPrevent(value)) {
+            stales.computeIfAbsent(cache, name -> new TinyLfuCache(STALE_SIZE)).write(key, value, STALE_EXPIRE);
+        }
+    }
+
+    /**
+     * 批量抢占结果
+     */
+    public static class Flights {
+
+        private final String cache;
+
+        private final ConcurrentMap<String, CompletableFuture<Object>> scope;
+
+        private final Map<String, CompletableFuture<Object>> owned;
+
+        private final Map<String, CompletableFuture<Object>> waiting;
+
+        private Flights(String cache,
+                        ConcurrentMap<String, CompletableFuture<Object>> scope,
+                        Map<String, CompletableFuture<Object>> owned,
+                        Map<String, CompletableFuture<Object>> waiting) {
+            this.cache = cache;
+            this.scope = scope;
+            this.owned = owned;
+            this.waiting = waiting;
+        }
+
+        public Set<String> getOwnedKeys() {
+            return new LinkedHashSet<>(owned.keySet());
+        }
+
+        public boolean isWaiting() {
+            return !waiting.isEmpty();
+        }
+
+    }
+
+}
@@ -0,0 +1,60 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效通知通道,用于在多个节点间广播本地缓存的失效信息
+ * 通道实例代表一个节点,不会收到自己发布的消息
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public interface CacheChannel {
+
+    /**
+     * 广播失效的key,不传key时表示清空全部
+     *
+     * @param keys 失效的key
+     */
+    void publish(String... keys);
+
+    /**
+     * 订阅其他节点发布的失效key,收到空数组时表示清空全部
+     *
+     * @param listener 失效处理
+     */
+    void subscribe(Consumer<String[]> listener);
+
+    /**
+     * 关闭通道
+     */
+    default void close() {
+
+    }
+
+}
@@ -0,0 +1,77 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内失效通知通道,同一主题下的实例互相通知,
+ * 可在单进程内模拟多个节点,替代Redis发布订阅用于测试或单机部署
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class LocalChannel implements CacheChannel {
+
+    private static final Map<String, List<LocalChannel>> TOPICS = new ConcurrentHashMap<>();
+
+    private final String topic;
+
+    private volatile Consumer<String[]> listener;
+
+    public LocalChannel(String topic) {
+        this.topic = topic;
+        TOPICS.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(this);
+    }
+
+    @Override
+    public void publish(String... keys) {
+        for (LocalChannel channel : TOPICS.getOrDefault(topic, List.of())) {
+            Consumer<String[]> consumer = channel.listener;
+            if (channel != this && null != consumer) {
+                consumer.accept(keys);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String[]> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void close() {
+        List<LocalChannel> channels = TOPICS.get(topic);
+        if (null != channels) {
+            channels.remove(this);
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import jakarta.annotation.PreDestroy;
+import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.Hitting;
+import org.aoju.bus.core.toolkit.MapKit;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 二级缓存支持
+ * <p>
+ * 一级为进程内有界缓存{@link TinyLfuCache},二级为任意远程缓存(Redis、Memcached等),
+ * 读取时优先命中一级缓存,写入时同时写入两级缓存,
+ * 写入、删除和清空都会通过{@link CacheChannel}通知其他节点清除各自的一级缓存
+ * <p>
+ * 每次失效都会递增key所在分段的版本号,二级缓存读取期间版本号发生变化时不回填一级缓存,
+ * 避免失效通知先于读取结果到达时一级缓存被旧值重新填充
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class NearCache implements CacheX {
+
+    /**
+     * 一级缓存默认过期时间：1分钟,作为丢失失效通知时的兜底
+     */
+    private static final long DEFAULT_LOCAL_EXPIRE = 60 * 1000;
+
+    /**
+     * 版本号分段数,必须为2的幂
+     */
+    private static final int VERSION_STRIPES = 1024;
+
+    private final TinyLfuCache local;
+
+    private final CacheX remote;
+
+    private final CacheChannel channel;
+
+    private final long localExpire;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final LongAdder localHit = new LongAdder();
+
+    private final LongAdder remoteHit = new LongAdder();
+
+    private final LongAdder required = new LongAdder();
+
+    public NearCache(CacheX remote, long localSize) {
+        this(remote, localSize, DEFAULT_LOCAL_EXPIRE, null);
+    }
+
+    public NearCache(CacheX remote, long localSize, CacheChannel channel) {
+        this(remote, localSize, DEFAULT_LOCAL_EXPIRE, channel);
+    }
+
+    /**
+     * @param remote      二级缓存
+     * @param localSize   一级缓存最大条目数
+     * @param localExpire 一级缓存最长过期时间(毫秒)
+     * @param channel     失效通知通道,为空时不通知其他节点
+     */
+    public NearCache(CacheX remote, long localSize, long localExpire, CacheChannel channel) {
+        this.remote = remote;
+        this.local = new TinyLfuCache(localSize);
+        this.localExpire = localExpire;
+        this.channel = channel;
+        if (null != channel) {
+            channel.subscribe(keys -> {
+                if (keys.length == 0) {
+                    invalidateAll();
+                } else {
+                    invalidate(keys);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Object read(String key) {
+        required.increment();
+        Object value = local.read(key);
+        if (null != value) {
+            localHit.increment();
+            return value;
+        }
+
+        int stripe = stripe(key);
+        long version = versions.get(stripe);
+        value = remote.read(key);
+        if (null != value) {
+            remoteHit.increment();
+            fill(key, value, stripe, version);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> read(Collection<String> keys) {
+        required.add(keys.size());
+        Map<String, Object> result = new HashMap<>(keys.size());
+        List<String> missKeys = new ArrayList<>();
+        for (String key : keys) {
+            Object value = local.read(key);
+            if (null == value) {
+                missKeys.add(key);
+            } else {
+                result.put(key, value);
+            }
+        }
+        localHit.add(result.size());
+
+        if (!missKeys.isEmpty()) {
+            Map<String, long[]> stamps = new HashMap<>(missKeys.size());
+            for (String key : missKeys) {
+                int stripe = stripe(key);
+                stamps.put(key, new long[]{stripe, versions.get(stripe)});
+            }
+            Map<String, Object> remoteValues = remote.read(missKeys);
+            remoteValues.forEach((key, value) -> {
+                long[] stamp = stamps.get(key);
+                if (null != value && null != stamp) {
+                    remoteHit.increment();
+                    fill(key, value, (int) stamp[0], stamp[1]);
+                    result.put(key, value);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public void write(String key, Object value, long expire) {
+        remote.write(key, value, expire);
+        versions.incrementAndGet(stripe(key));
+        local.write(key, value, localExpire(expire));
+        publish(key);
+    }
+
+    @Override
+    public void write(Map<String, Object> keyValueMap, long expire) {
+        if (MapKit.isNotEmpty(keyValueMap)) {
+            remote.write(keyValueMap, expire);
+            keyValueMap.keySet().forEach(key -> versions.incrementAndGet(stripe(key)));
+            local.write(keyValueMap, localExpire(expire));
+            publish(keyValueMap.keySet().toArray(new String[0]));
+        }
+    }
+
+    @Override
+    public void remove(String... keys) {
+        remote.remove(keys);
+        invalidate(keys);
+        publish(keys);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateAll();
+        if (null != channel) {
+            channel.publish();
+        }
+    }
+
+    /**
+     * 各级缓存命中率
+     *
+     * @return L1/L2命中率,L2的请求数为L1未命中数
+     */
+    public Map<String, Hitting.HittingDO> getHitting() {
+        long total = required.sum();
+        long l1 = localHit.sum();
+        Map<String, Hitting.HittingDO> result = new LinkedHashMap<>();
+        result.put("L1", Hitting.HittingDO.newInstance(l1, total));
+        result.put("L2", Hitting.HittingDO.newInstance(remoteHit.sum(), total - l1));
+        return result;
+    }
+
+    /**
+     * 重置命中率统计
+     */
+    public void resetHitting() {
+        localHit.reset();
+        remoteHit.reset();
+        required.reset();
+    }
+
+    @PreDestroy
+    public void tearDown() {
+        if (null != channel) {
+            channel.close();
+        }
+    }
+
+    private void invalidate(String... keys) {
+        if (null == keys) {
+            return;
+        }
+        for (String key : keys) {
+            versions.incrementAndGet(stripe(key));
+        }
+        local.remove(keys);
+    }
+
+    private void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; ++i) {
+            versions.incrementAndGet(i);
+        }
+        local.clear();
+    }
+
+    /**
+     * 读取期间key所在分段未失效时才回填一级缓存,回填后再次检查以覆盖检查与写入之间的失效
+     */
+    private void fill(String key, Object value, int stripe, long version) {
+        if (versions.get(stripe) == version) {
+            local.write(key, value, localExpire);
+            if (versions.get(stripe) != version) {
+                local.remove(key);
+            }
+        }
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private long localExpire(long expire) {
+        return expire > 0 ? Math.min(expire, localExpire) : localExpire;
+    }
+
+    private void publish(String... keys) {
+        if (null != channel && null != keys && keys.length > 0) {
+            channel.publish(keys);
+        }
+    }
+
+}
@@ -26,18 +26,18 @@
 package org.aoju.bus.cache.metric;
 
 import jakarta.annotation.PreDestroy;
-import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.AsyncCacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Redis 单机缓存支持
@@ -45,19 +45,76 @@ import java.util.Map;
  * @author Kimi Liu
  * @since Java 17+
  */
-public class RedisCache implements CacheX {
+public class RedisCache implements AsyncCacheX {
+
+    /**
+     * 默认单次批量命令包含的最大key数量
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * 异步读写的默认执行线程池, 队列满时由调用线程执行
+     */
+    static final ExecutorService EXECUTOR = newExecutor();
 
     private BaseSerializer serializer;
 
     private JedisPool jedisPool;
 
+    private int batchSize;
+
+    private Executor executor;
+
     public RedisCache(JedisPool jedisPool) {
         this(jedisPool, new Hessian2Serializer());
     }
 
     public RedisCache(JedisPool jedisPool, BaseSerializer serializer) {
+        this(jedisPool, serializer, DEFAULT_BATCH_SIZE);
+    }
+
+    public RedisCache(JedisPool jedisPool, BaseSerializer serializer, int batchSize) {
+        this(jedisPool, serializer, batchSize, EXECUTOR);
+    }
+
+    public RedisCache(JedisPool jedisPool, BaseSerializer serializer, int batchSize, Executor executor) {
         this.jedisPool = jedisPool;
         this.serializer = serializer;
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = executor;
+    }
+
+    static ExecutorService newExecutor() {
+        AtomicInteger index = new AtomicInteger();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(4096),
+                r -> {
+                    Thread thread = new Thread(r);
+                    thread.setName("cache:redis-async-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 按批量大小切分
+     */
+    static <T> List<List<T>> partition(Collection<T> items, int size) {
+        List<List<T>> result = new ArrayList<>(items.size() / size + 1);
+        List<T> part = new ArrayList<>(Math.min(size, items.size()));
+        for (T item : items) {
+            part.add(item);
+            if (part.size() == size) {
+                result.add(part);
+                part = new ArrayList<>(size);
+            }
+        }
+        if (!part.isEmpty()) {
+            result.add(part);
+        }
+        return result;
     }
 
     static byte[][] toByteArray(Map<String, Object> keyValueMap, BaseSerializer serializer) {
@@ -111,28 +168,80 @@ public class RedisCache implements CacheX {
 
     @Override
     public Map<String, Object> read(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
         try (Jedis client = jedisPool.getResource()) {
-            List<byte[]> bytesValues = client.mget(toByteArray(keys));
-            return toObjectMap(keys, bytesValues, this.serializer);
+            if (keys.size() <= batchSize) {
+                return toObjectMap(keys, client.mget(toByteArray(keys)), this.serializer);
+            }
+
+            // 超过批量大小时拆分为多个MGET, 在一次往返中发出
+            List<List<String>> parts = partition(keys, batchSize);
+            List<Response<List<byte[]>>> responses = new ArrayList<>(parts.size());
+            Pipeline pipeline = client.pipelined();
+            for (List<String> part : parts) {
+                responses.add(pipeline.mget(toByteArray(part)));
+            }
+            pipeline.sync();
+
+            Map<String, Object> result = new HashMap<>(keys.size());
+            for (int i = 0; i < parts.size(); ++i) {
+                result.putAll(toObjectMap(parts.get(i), responses.get(i).get(), this.serializer));
+            }
+            return result;
         }
     }
 
     @Override
     public void write(Map<String, Object> keyValueMap, long expire) {
+        if (keyValueMap.isEmpty()) {
+            return;
+        }
+
         try (Jedis client = jedisPool.getResource()) {
             byte[][] kvs = toByteArray(keyValueMap, serializer);
-            if (expire == CacheExpire.FOREVER) {
+            if (expire == CacheExpire.FOREVER && kvs.length <= batchSize * 2) {
                 client.mset(kvs);
-            } else {
-                Pipeline pipeline = client.pipelined();
-                for (int i = 0; i < kvs.length; i += 2) {
-                    pipeline.psetex(kvs[i], expire, kvs[i + 1]);
+                return;
+            }
+
+            Pipeline pipeline = client.pipelined();
+            for (int i = 0; i < kvs.length; i += batchSize * 2) {
+                int end = Math.min(kvs.length, i + batchSize * 2);
+                if (expire == CacheExpire.FOREVER) {
+                    pipeline.mset(Arrays.copyOfRange(kvs, i, end));
+                } else {
+                    for (int j = i; j < end; j += 2) {
+                        pipeline.psetex(kvs[j], expire, kvs[j + 1]);
+                    }
                 }
-                pipeline.sync();
             }
+            pipeline.sync();
         }
     }
 
+    @Override
+    public CompletableFuture<Object> readAsync(String key) {
+        return CompletableFuture.supplyAsync(() -> read(key), executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        return CompletableFuture.supplyAsync(() -> read(keys), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(Map<String, Object> keyValueMap, long expire) {
+        return CompletableFuture.runAsync(() -> write(keyValueMap, expire), executor);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     @Override
     public void remove(String... keys) {
         try (Jedis client = jedisPool.getResource()) {
@@ -0,0 +1,172 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import jakarta.annotation.PreDestroy;
+import org.aoju.bus.core.key.ID;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.logger.Logger;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 基于Redis发布订阅的失效通知通道
+ * 消息格式为: 节点ID + 换行 + 依次排列的(key长度 + 冒号 + key),只有节点ID时表示清空全部
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class RedisChannel implements CacheChannel {
+
+    private static final String DEFAULT_TOPIC = "bus:cache:invalid";
+
+    private final String id = ID.objectId();
+
+    private final JedisPool jedisPool;
+
+    private final String topic;
+
+    private volatile boolean running;
+
+    private volatile JedisPubSub pubSub;
+
+    private volatile Thread subscriber;
+
+    public RedisChannel(JedisPool jedisPool) {
+        this(jedisPool, DEFAULT_TOPIC);
+    }
+
+    public RedisChannel(JedisPool jedisPool, String topic) {
+        this.jedisPool = jedisPool;
+        this.topic = topic;
+    }
+
+    @Override
+    public void publish(String... keys) {
+        if (null == keys) {
+            return;
+        }
+        try (Jedis client = jedisPool.getResource()) {
+            client.publish(topic, encode(id, keys));
+        } catch (Exception e) {
+            Logger.error("publish cache invalid message failed, keys: {}", Arrays.toString(keys), e);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String[]> listener) {
+        if (running) {
+            return;
+        }
+        running = true;
+        this.pubSub = new JedisPubSub() {
+            @Override
+            public void onSubscribe(String channel, int subscribedChannels) {
+                // 订阅完成前已关闭时close()无法退订,在此退订以释放连接
+                if (!running) {
+                    unsubscribe();
+                }
+            }
+
+            @Override
+            public void onMessage(String channel, String message) {
+                int index = message.indexOf(Symbol.C_LF);
+                if (index > 0 && !id.equals(message.substring(0, index))) {
+                    try {
+                        listener.accept(decode(message, index + 1));
+                    } catch (RuntimeException e) {
+                        Logger.warn("malformed cache invalid message on [{}]", topic, e);
+                    }
+                }
+            }
+        };
+        Thread thread = new Thread(() -> {
+            while (running) {
+                try (Jedis client = jedisPool.getResource()) {
+                    client.subscribe(pubSub, topic);
+                } catch (Exception e) {
+                    Logger.warn("cache invalid channel [{}] disconnected, retry later", topic, e);
+                    try {
+                        TimeUnit.SECONDS.sleep(1);
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }, "cache:invalid-subscriber");
+        thread.setDaemon(true);
+        this.subscriber = thread;
+        thread.start();
+    }
+
+    /**
+     * key以长度为前缀依次排列,key中可以包含任意字符
+     */
+    private static String encode(String id, String... keys) {
+        StringBuilder builder = new StringBuilder(id).append(Symbol.C_LF);
+        for (String key : keys) {
+            builder.append(key.length()).append(Symbol.C_COLON).append(key);
+        }
+        return builder.toString();
+    }
+
+    private static String[] decode(String message, int offset) {
+        List<String> keys = new ArrayList<>();
+        while (offset < message.length()) {
+            int colon = message.indexOf(Symbol.C_COLON, offset);
+            if (colon < 0) {
+                throw new IllegalArgumentException("Missing key length at " + offset);
+            }
+            int end = colon + 1 + Integer.parseInt(message, offset, colon, 10);
+            keys.add(message.substring(colon + 1, end));
+            offset = end;
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (null != pubSub && pubSub.isSubscribed()) {
+            pubSub.unsubscribe();
+        }
+        // 唤醒重连等待中的订阅线程
+        if (null != subscriber) {
+            subscriber.interrupt();
+            subscriber = null;
+        }
+    }
+
+}
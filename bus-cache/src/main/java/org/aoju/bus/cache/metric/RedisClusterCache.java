@@ -26,33 +26,71 @@
 package org.aoju.bus.cache.metric;
 
 import jakarta.annotation.PreDestroy;
-import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.AsyncCacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
+import org.aoju.bus.logger.Logger;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Redis 集群缓存支持
+ * 批量读写按key所在节点分组, 每个节点一个连接、一次往返发出该节点上的全部命令;
+ * slot与节点的对应关系由CLUSTER SLOTS加载, 收到重定向或连接异常时重新加载,
+ * 失败的分组退回到{@link JedisCluster}逐组执行, 由其处理重定向
  *
  * @author Kimi Liu
  * @since Java 17+
  */
-public class RedisClusterCache implements CacheX {
+public class RedisClusterCache implements AsyncCacheX {
 
     private BaseSerializer serializer;
 
     private JedisCluster jedisCluster;
 
+    private int batchSize;
+
+    private Executor executor;
+
+    /**
+     * slot -> 主节点, 为空时在下次批量操作前加载
+     */
+    private volatile HostAndPort[] slots;
+
     public RedisClusterCache(JedisCluster jedisCluster) {
         this(jedisCluster, new Hessian2Serializer());
     }
 
     public RedisClusterCache(JedisCluster jedisCluster, BaseSerializer serializer) {
+        this(jedisCluster, serializer, RedisCache.DEFAULT_BATCH_SIZE);
+    }
+
+    public RedisClusterCache(JedisCluster jedisCluster, BaseSerializer serializer, int batchSize) {
+        this(jedisCluster, serializer, batchSize, RedisCache.EXECUTOR);
+    }
+
+    public RedisClusterCache(JedisCluster jedisCluster, BaseSerializer serializer, int batchSize, Executor executor) {
         this.jedisCluster = jedisCluster;
         this.serializer = serializer;
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = executor;
     }
 
     static byte[][] toByteArray(Map<String, Object> keyValueMap, BaseSerializer serializer) {
@@ -95,7 +133,7 @@ public class RedisClusterCache implements CacheX {
         if (expire == CacheExpire.FOREVER) {
             jedisCluster.set(key.getBytes(), bytes);
         } else {
-            jedisCluster.setex(key.getBytes(), (int) (expire / 1000), bytes);
+            jedisCluster.psetex(key.getBytes(), expire, bytes);
         }
     }
 
@@ -105,8 +143,32 @@ public class RedisClusterCache implements CacheX {
             return Collections.emptyMap();
         }
 
-        List<byte[]> bytesValues = jedisCluster.mget(toByteArray(keys));
-        return toObjectMap(keys, bytesValues, this.serializer);
+        Map<String, Object> result = new HashMap<>(keys.size());
+        List<List<String>> failed = new ArrayList<>();
+        Map<String, ConnectionPool> pools = jedisCluster.getClusterNodes();
+        groupByNode(keys).forEach((node, groups) -> {
+            // 同一节点上每个slot一条MGET, 一次往返发出
+            List<Response<List<byte[]>>> responses = new ArrayList<>(groups.size());
+            if (!pipelined(pools, node, groups, failed, pipeline -> {
+                for (List<String> group : groups) {
+                    responses.add(pipeline.mget(toByteArray(group)));
+                }
+            })) {
+                return;
+            }
+            for (int i = 0; i < groups.size(); ++i) {
+                try {
+                    result.putAll(toObjectMap(groups.get(i), responses.get(i).get(), this.serializer));
+                } catch (JedisDataException e) {
+                    onFailed(groups.get(i), failed, e);
+                }
+            }
+        });
+
+        for (List<String> group : failed) {
+            result.putAll(toObjectMap(group, jedisCluster.mget(toByteArray(group)), this.serializer));
+        }
+        return result;
     }
 
     @Override
@@ -115,13 +177,172 @@ public class RedisClusterCache implements CacheX {
             return;
         }
 
+        List<List<String>> failed = new ArrayList<>();
+        Map<String, ConnectionPool> pools = jedisCluster.getClusterNodes();
+        groupByNode(keyValueMap.keySet()).forEach((node, groups) -> {
+            List<List<Response<String>>> responses = new ArrayList<>(groups.size());
+            if (!pipelined(pools, node, groups, failed, pipeline -> {
+                for (List<String> group : groups) {
+                    responses.add(write(pipeline, group, keyValueMap, expire));
+                }
+            })) {
+                return;
+            }
+            for (int i = 0; i < groups.size(); ++i) {
+                try {
+                    for (Response<String> response : responses.get(i)) {
+                        response.get();
+                    }
+                } catch (JedisDataException e) {
+                    onFailed(groups.get(i), failed, e);
+                }
+            }
+        });
+
+        for (List<String> group : failed) {
+            if (expire == CacheExpire.FOREVER) {
+                jedisCluster.mset(toByteArray(toMap(group, keyValueMap), serializer));
+            } else {
+                for (String key : group) {
+                    jedisCluster.psetex(key.getBytes(), expire, serializer.serialize(keyValueMap.get(key)));
+                }
+            }
+        }
+    }
+
+    /**
+     * 异步读写整体在线程池中执行, 不会在池内线程上等待池内的其他任务
+     */
+    @Override
+    public CompletableFuture<Object> readAsync(String key) {
+        return CompletableFuture.supplyAsync(() -> read(key), executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return CompletableFuture.supplyAsync(() -> read(keys), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(Map<String, Object> keyValueMap, long expire) {
+        if (keyValueMap.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> write(keyValueMap, expire), executor);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private List<Response<String>> write(Pipeline pipeline, List<String> group, Map<String, Object> keyValueMap, long expire) {
         if (expire == CacheExpire.FOREVER) {
-            jedisCluster.mset(toByteArray(keyValueMap, this.serializer));
-        } else {
-            for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
-                write(entry.getKey(), entry.getValue(), expire);
+            return List.of(pipeline.mset(toByteArray(toMap(group, keyValueMap), serializer)));
+        }
+
+        List<Response<String>> responses = new ArrayList<>(group.size());
+        for (String key : group) {
+            responses.add(pipeline.psetex(key.getBytes(), expire, serializer.serialize(keyValueMap.get(key))));
+        }
+        return responses;
+    }
+
+    /**
+     * 在节点的一个连接上以管道发出命令, 节点未知或连接失败时整组记为失败
+     *
+     * @return 命令是否已全部发出并收到回复
+     */
+    private boolean pipelined(Map<String, ConnectionPool> pools, HostAndPort node,
+                              List<List<String>> groups, List<List<String>> failed, Consumer<Pipeline> commands) {
+        ConnectionPool pool = null == node ? null : pools.get(node.toString());
+        if (null == pool) {
+            slots = null;
+            failed.addAll(groups);
+            return false;
+        }
+
+        try (Connection connection = pool.getResource()) {
+            Pipeline pipeline = new Pipeline(connection);
+            commands.accept(pipeline);
+            pipeline.sync();
+            return true;
+        } catch (JedisException e) {
+            Logger.warn("redis cluster pipeline to [{}] failed, fall back to cluster commands: {}", node, e.getMessage());
+            slots = null;
+            failed.addAll(groups);
+            return false;
+        }
+    }
+
+    private void onFailed(List<String> group, List<List<String>> failed, JedisDataException e) {
+        if (e instanceof JedisRedirectionException) {
+            // 拓扑已变化, 下次批量操作前重新加载
+            slots = null;
+        }
+        failed.add(group);
+    }
+
+    /**
+     * 按节点分组, 节点内按slot分组且每组不超过批量大小
+     */
+    private Map<HostAndPort, List<List<String>>> groupByNode(Collection<String> keys) {
+        Map<Integer, List<String>> bySlot = new LinkedHashMap<>();
+        for (String key : keys) {
+            bySlot.computeIfAbsent(JedisClusterCRC16.getSlot(key), slot -> new ArrayList<>()).add(key);
+        }
+
+        HostAndPort[] table = slots();
+        Map<HostAndPort, List<List<String>>> byNode = new LinkedHashMap<>();
+        bySlot.forEach((slot, slotKeys) -> byNode.computeIfAbsent(table[slot], node -> new ArrayList<>())
+                .addAll(RedisCache.partition(slotKeys, batchSize)));
+        return byNode;
+    }
+
+    private HostAndPort[] slots() {
+        HostAndPort[] table = this.slots;
+        if (null == table) {
+            synchronized (this) {
+                table = this.slots;
+                if (null == table) {
+                    table = loadSlots();
+                    this.slots = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 从任一可用节点读取CLUSTER SLOTS, 全部失败时所有slot的节点为空, 批量操作退回逐组执行
+     */
+    private HostAndPort[] loadSlots() {
+        HostAndPort[] table = new HostAndPort[Protocol.CLUSTER_HASHSLOTS];
+        for (ConnectionPool pool : jedisCluster.getClusterNodes().values()) {
+            try (Connection connection = pool.getResource()) {
+                for (Object range : new Jedis(connection).clusterSlots()) {
+                    List<Object> info = (List<Object>) range;
+                    List<Object> master = (List<Object>) info.get(2);
+                    HostAndPort node = new HostAndPort(SafeEncoder.encode((byte[]) master.get(0)), ((Long) master.get(1)).intValue());
+                    Arrays.fill(table, ((Long) info.get(0)).intValue(), ((Long) info.get(1)).intValue() + 1, node);
+                }
+                return table;
+            } catch (JedisException e) {
+                Logger.warn("load redis cluster slots failed: {}", e.getMessage());
             }
         }
+        return table;
+    }
+
+    private static Map<String, Object> toMap(List<String> keys, Map<String, Object> keyValueMap) {
+        Map<String, Object> result = new LinkedHashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            result.put(key, keyValueMap.get(key));
+        }
+        return result;
     }
 
     @Override
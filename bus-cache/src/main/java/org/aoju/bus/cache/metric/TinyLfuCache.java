@@ -0,0 +1,769 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.toolkit.MapKit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * 有界内存缓存支持(W-TinyLFU)
+ * <p>
+ * 数据存放于{@link ConcurrentHashMap}中,读操作无锁,仅将访问记录写入分段的有损环形缓冲区;
+ * 淘汰策略由窗口LRU、SLRU主区以及TinyLFU频率草图组成,新数据需要比被淘汰者访问更频繁才会被接纳;
+ * 过期时间由分层时间轮维护,只处理到期的桶,不再全量扫描
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class TinyLfuCache implements CacheX {
+
+    /**
+     * 主区中保护区所占比例
+     */
+    private static final double PERCENT_MAIN_PROTECTED = 0.80d;
+    /**
+     * 窗口区所占比例
+     */
+    private static final double PERCENT_WINDOW = 0.01d;
+
+    private final ConcurrentHashMap<String, Node> data;
+    private final ToIntBiFunction<String, Object> weigher;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer readBuffer = new ReadBuffer();
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final long origin = System.nanoTime();
+
+    /**
+     * 以下字段仅在持有evictionLock时访问
+     */
+    private final FrequencySketch sketch;
+    private final TimerWheel timerWheel;
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protect = new AccessOrder();
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long weightedSize;
+    private long windowWeightedSize;
+    private long protectedWeightedSize;
+
+    /**
+     * 按条目数量限制缓存大小
+     *
+     * @param maximumSize 最大条目数
+     */
+    public TinyLfuCache(long maximumSize) {
+        this(maximumSize, (key, value) -> 1);
+    }
+
+    /**
+     * 按权重限制缓存大小
+     *
+     * @param maximumWeight 最大权重
+     * @param weigher       权重计算器
+     */
+    public TinyLfuCache(long maximumWeight, ToIntBiFunction<String, Object> weigher) {
+        Assert.isTrue(maximumWeight > 0, "maximum weight must be positive.");
+        Assert.notNull(weigher, "weigher can not be null.");
+        this.weigher = weigher;
+        this.maximum = maximumWeight;
+        long main = maximumWeight - (long) (maximumWeight * PERCENT_WINDOW);
+        this.windowMaximum = Math.max(1, maximumWeight - main);
+        this.protectedMaximum = (long) (main * PERCENT_MAIN_PROTECTED);
+        this.data = new ConcurrentHashMap<>((int) Math.min(maximumWeight, 1 << 16));
+        this.sketch = new FrequencySketch(maximumWeight);
+        this.timerWheel = new TimerWheel(nanos());
+    }
+
+    @Override
+    public Object read(String key) {
+        Node node = data.get(key);
+        if (null == node) {
+            return null;
+        }
+        if (node.expireAt - nanos() <= 0) {
+            return null;
+        }
+        Object value = node.value;
+        if (readBuffer.offer(node) == ReadBuffer.FULL) {
+            tryToDrain();
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> read(Collection<String> keys) {
+        Map<String, Object> result = new HashMap<>(keys.size());
+        for (String key : keys) {
+            Object value = read(key);
+            if (null != value) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 设置缓存
+     *
+     * @param key    缓存KEY
+     * @param value  缓存内容
+     * @param expire 指定缓存过期时间(毫秒),小于等于0时永不过期
+     */
+    @Override
+    public void write(String key, Object value, long expire) {
+        if (null == value) {
+            remove(key);
+            return;
+        }
+        doWrite(key, value, expire);
+        tryToDrain();
+    }
+
+    @Override
+    public void write(Map<String, Object> keyValueMap, long expire) {
+        if (MapKit.isNotEmpty(keyValueMap)) {
+            keyValueMap.forEach((key, value) -> {
+                if (null != value) {
+                    doWrite(key, value, expire);
+                }
+            });
+            tryToDrain();
+        }
+    }
+
+    @Override
+    public void remove(String... keys) {
+        for (String key : keys) {
+            Node node = data.remove(key);
+            if (null != node) {
+                node.retire();
+                writeBuffer.add(() -> onRemove(node));
+            }
+        }
+        tryToDrain();
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            for (Node node : data.values()) {
+                evict(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 当前缓存条目数(估算值)
+     *
+     * @return 条目数
+     */
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    /**
+     * 当前缓存的总权重
+     *
+     * @return 权重
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void doWrite(String key, Object value, long expire) {
+        long expireAt = expire > 0 ? nanos() + TimeUnit.MILLISECONDS.toNanos(expire) : Long.MAX_VALUE;
+        Node node = new Node(key, value, Math.max(0, weigher.applyAsInt(key, value)), expireAt);
+        Node prior = data.put(key, node);
+        if (null != prior) {
+            prior.retire();
+            writeBuffer.add(() -> onRemove(prior));
+        }
+        writeBuffer.add(() -> onAdd(node));
+    }
+
+    private long nanos() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * 尝试获取锁执行维护任务,获取失败说明其他线程正在维护
+     * 释放锁后再次检查写缓冲区,避免任务遗留
+     */
+    private void tryToDrain() {
+        do {
+            if (!evictionLock.tryLock()) {
+                return;
+            }
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    private void maintenance() {
+        readBuffer.drainTo(this::onAccess);
+        Runnable task;
+        while (null != (task = writeBuffer.poll())) {
+            task.run();
+        }
+        timerWheel.advance(nanos(), this::evict);
+        evictEntries();
+    }
+
+    private void onAdd(Node node) {
+        if (!node.isAlive()) {
+            return;
+        }
+        sketch.increment(node.key);
+        node.queueType = Node.WINDOW;
+        window.linkLast(node);
+        weightedSize += node.weight;
+        windowWeightedSize += node.weight;
+        if (node.expireAt != Long.MAX_VALUE) {
+            timerWheel.schedule(node);
+        }
+    }
+
+    private void onRemove(Node node) {
+        unlink(node);
+        timerWheel.deschedule(node);
+        node.die();
+    }
+
+    private void onAccess(Node node) {
+        sketch.increment(node.key);
+        switch (node.queueType) {
+            case Node.WINDOW:
+                window.moveToBack(node);
+                break;
+            case Node.PROBATION:
+                probation.unlink(node);
+                node.queueType = Node.PROTECTED;
+                protect.linkLast(node);
+                protectedWeightedSize += node.weight;
+                demoteFromProtected();
+                break;
+            case Node.PROTECTED:
+                protect.moveToBack(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeightedSize > protectedMaximum) {
+            Node demoted = protect.head;
+            if (null == demoted) {
+                break;
+            }
+            protect.unlink(demoted);
+            protectedWeightedSize -= demoted.weight;
+            demoted.queueType = Node.PROBATION;
+            probation.linkLast(demoted);
+        }
+    }
+
+    private void unlink(Node node) {
+        switch (node.queueType) {
+            case Node.WINDOW:
+                window.unlink(node);
+                windowWeightedSize -= node.weight;
+                break;
+            case Node.PROBATION:
+                probation.unlink(node);
+                break;
+            case Node.PROTECTED:
+                protect.unlink(node);
+                protectedWeightedSize -= node.weight;
+                break;
+            default:
+                return;
+        }
+        weightedSize -= node.weight;
+        node.queueType = Node.NONE;
+    }
+
+    private boolean evict(Node node) {
+        data.remove(node.key, node);
+        node.retire();
+        onRemove(node);
+        return true;
+    }
+
+    private void evictEntries() {
+        Node candidate = evictFromWindow();
+        evictFromMain(candidate);
+    }
+
+    /**
+     * 将超出窗口区容量的数据移入观察区,作为候选者
+     *
+     * @return 第一个候选者
+     */
+    private Node evictFromWindow() {
+        Node first = null;
+        Node node = window.head;
+        while (windowWeightedSize > windowMaximum && null != node) {
+            Node next = node.next;
+            window.unlink(node);
+            windowWeightedSize -= node.weight;
+            node.queueType = Node.PROBATION;
+            probation.linkLast(node);
+            if (null == first) {
+                first = node;
+            }
+            node = next;
+        }
+        return first;
+    }
+
+    /**
+     * 观察区头部为受害者,与候选者比较访问频率,淘汰频率较低的一方
+     *
+     * @param candidate 候选者
+     */
+    private void evictFromMain(Node candidate) {
+        while (weightedSize > maximum) {
+            Node victim = null != probation.head ? probation.head
+                    : null != protect.head ? protect.head : window.head;
+            if (null == victim) {
+                break;
+            }
+            if (null == candidate || victim == candidate) {
+                if (victim == candidate) {
+                    candidate = candidate.next;
+                }
+                evict(victim);
+            } else if (admit(candidate.key, victim.key)) {
+                evict(victim);
+            } else {
+                Node evicted = candidate;
+                candidate = candidate.next;
+                evict(evicted);
+            }
+        }
+    }
+
+    private boolean admit(String candidateKey, String victimKey) {
+        int victimFreq = sketch.frequency(victimKey);
+        int candidateFreq = sketch.frequency(candidateKey);
+        if (candidateFreq > victimFreq) {
+            return true;
+        } else if (candidateFreq <= 5) {
+            return false;
+        }
+        // 防止通过构造高频数据使热点数据无法进入缓存
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    /**
+     * 缓存节点
+     */
+    static class Node {
+
+        static final int NONE = 0;
+        static final int WINDOW = 1;
+        static final int PROBATION = 2;
+        static final int PROTECTED = 3;
+
+        static final int ALIVE = 0;
+        static final int RETIRED = 1;
+        static final int DEAD = 2;
+
+        final String key;
+        final Object value;
+        final int weight;
+        final long expireAt;
+
+        volatile int state;
+
+        int queueType;
+        Node prev;
+        Node next;
+        Node prevInTimer;
+        Node nextInTimer;
+
+        Node(String key, Object value, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        boolean isAlive() {
+            return state == ALIVE;
+        }
+
+        void retire() {
+            if (state == ALIVE) {
+                state = RETIRED;
+            }
+        }
+
+        void die() {
+            state = DEAD;
+        }
+    }
+
+    /**
+     * 访问顺序双向链表,头部最久未访问
+     */
+    static class AccessOrder {
+
+        Node head;
+        Node tail;
+
+        void linkLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (null == tail) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void unlink(Node node) {
+            Node prev = node.prev;
+            Node next = node.next;
+            if (null == prev) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (null == next) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node node) {
+            if (node != tail) {
+                unlink(node);
+                linkLast(node);
+            }
+        }
+    }
+
+    /**
+     * 4位计数的Count-Min Sketch,用于估算访问频率,计数总和达到采样上限后全部减半以实现老化
+     */
+    static class FrequencySketch {
+
+        static final long[] SEED = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long ONE_MASK = 0x1111111111111111L;
+
+        final long[] table;
+        final int tableMask;
+        final int sampleSize;
+        int size;
+
+        FrequencySketch(long maximum) {
+            int capacity = (int) Math.min(maximum, Integer.MAX_VALUE >>> 1);
+            this.table = new long[Math.max(1, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1)];
+            this.tableMask = table.length - 1;
+            this.sampleSize = 10 * Math.max(1, capacity);
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+
+        int frequency(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(indexOf(hash, i), start + i);
+            }
+            if (added && (++size == sampleSize)) {
+                reset();
+            }
+        }
+
+        boolean incrementAt(int i, int j) {
+            int offset = j << 2;
+            long mask = (0xfL << offset);
+            if ((table[i] & mask) != mask) {
+                table[i] += (1L << offset);
+                return true;
+            }
+            return false;
+        }
+
+        void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; i++) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (count >>> 2);
+        }
+
+        int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += (hash >>> 32);
+            return ((int) hash) & tableMask;
+        }
+    }
+
+    /**
+     * 分段有损环形缓冲区,缓冲区满时丢弃访问记录而不阻塞读线程
+     */
+    static class ReadBuffer {
+
+        static final int SUCCESS = 0;
+        static final int FULL = 1;
+        static final int FAILED = 2;
+
+        static final int BUFFER_SIZE = 16;
+        static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+        final int mask;
+        final AtomicReferenceArray<Node>[] buffers;
+        final AtomicLong[] writeCounters;
+        final AtomicLongArray readCounters;
+
+        ReadBuffer() {
+            int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+            this.mask = stripes - 1;
+            @SuppressWarnings("unchecked")
+            AtomicReferenceArray<Node>[] buffers = (AtomicReferenceArray<Node>[]) new AtomicReferenceArray<?>[stripes];
+            this.buffers = buffers;
+            this.writeCounters = new AtomicLong[stripes];
+            this.readCounters = new AtomicLongArray(stripes);
+            for (int i = 0; i < stripes; i++) {
+                buffers[i] = new AtomicReferenceArray<>(BUFFER_SIZE);
+                writeCounters[i] = new AtomicLong();
+            }
+        }
+
+        int offer(Node node) {
+            int index = FrequencySketch.spread(System.identityHashCode(Thread.currentThread())) & mask;
+            AtomicLong writeCounter = writeCounters[index];
+            long tail = writeCounter.get();
+            AtomicReferenceArray<Node> buffer = buffers[index];
+            if (tail - readCounters.get(index) >= BUFFER_SIZE) {
+                return FULL;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & BUFFER_MASK), node);
+                return SUCCESS;
+            }
+            return FAILED;
+        }
+
+        void drainTo(Consumer<Node> consumer) {
+            for (int i = 0; i < buffers.length; i++) {
+                AtomicReferenceArray<Node> buffer = buffers[i];
+                long head = readCounters.get(i);
+                long tail = writeCounters[i].get();
+                while (head < tail) {
+                    int slot = (int) (head & BUFFER_MASK);
+                    Node node = buffer.get(slot);
+                    if (null == node) {
+                        break;
+                    }
+                    buffer.lazySet(slot, null);
+                    consumer.accept(node);
+                    head++;
+                }
+                readCounters.lazySet(i, head);
+            }
+        }
+    }
+
+    /**
+     * 分层时间轮,各层跨度分别约为1秒、1分钟、1小时、1天以及溢出层
+     */
+    static class TimerWheel {
+
+        static final int[] BUCKETS = {64, 64, 32, 4, 1};
+        static final long[] SPANS = {
+                ceilingPowerOfTwo(TimeUnit.SECONDS.toNanos(1)),
+                ceilingPowerOfTwo(TimeUnit.MINUTES.toNanos(1)),
+                ceilingPowerOfTwo(TimeUnit.HOURS.toNanos(1)),
+                ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+                BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+                BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1))
+        };
+        static final long[] SHIFT = {
+                Long.numberOfTrailingZeros(SPANS[0]),
+                Long.numberOfTrailingZeros(SPANS[1]),
+                Long.numberOfTrailingZeros(SPANS[2]),
+                Long.numberOfTrailingZeros(SPANS[3]),
+                Long.numberOfTrailingZeros(SPANS[4])
+        };
+
+        final Node[][] wheel;
+        long nanos;
+
+        TimerWheel(long nanos) {
+            this.nanos = nanos;
+            this.wheel = new Node[BUCKETS.length][];
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Node[BUCKETS[i]];
+                for (int j = 0; j < wheel[i].length; j++) {
+                    Node sentinel = new Node(null, null, 0, Long.MAX_VALUE);
+                    sentinel.prevInTimer = sentinel;
+                    sentinel.nextInTimer = sentinel;
+                    wheel[i][j] = sentinel;
+                }
+            }
+        }
+
+        static long ceilingPowerOfTwo(long x) {
+            return 1L << -Long.numberOfLeadingZeros(x - 1);
+        }
+
+        /**
+         * 推进时间轮,处理所有经过的桶
+         *
+         * @param currentTimeNanos 当前时间
+         * @param evictor          到期处理
+         */
+        void advance(long currentTimeNanos, Predicate<Node> evictor) {
+            long previousTimeNanos = nanos;
+            nanos = currentTimeNanos;
+            for (int i = 0; i < SHIFT.length; i++) {
+                long previousTicks = (previousTimeNanos >>> SHIFT[i]);
+                long currentTicks = (currentTimeNanos >>> SHIFT[i]);
+                long delta = (currentTicks - previousTicks);
+                if (delta <= 0L) {
+                    break;
+                }
+                expire(i, previousTicks, delta, evictor);
+            }
+        }
+
+        void expire(int index, long previousTicks, long delta, Predicate<Node> evictor) {
+            Node[] timerWheel = wheel[index];
+            int mask = timerWheel.length - 1;
+            int steps = (int) Math.min(1 + delta, timerWheel.length);
+            int start = (int) (previousTicks & mask);
+            int end = start + steps;
+            for (int i = start; i < end; i++) {
+                Node sentinel = timerWheel[i & mask];
+                Node node = sentinel.nextInTimer;
+                sentinel.prevInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+                while (node != sentinel) {
+                    Node next = node.nextInTimer;
+                    node.prevInTimer = null;
+                    node.nextInTimer = null;
+                    if ((node.expireAt - nanos) > 0 || !evictor.test(node)) {
+                        schedule(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+
+        void schedule(Node node) {
+            Node sentinel = findBucket(node.expireAt);
+            Node last = sentinel.prevInTimer;
+            node.prevInTimer = last;
+            node.nextInTimer = sentinel;
+            last.nextInTimer = node;
+            sentinel.prevInTimer = node;
+        }
+
+        void deschedule(Node node) {
+            if (null != node.nextInTimer) {
+                node.nextInTimer.prevInTimer = node.prevInTimer;
+                node.prevInTimer.nextInTimer = node.nextInTimer;
+                node.prevInTimer = null;
+                node.nextInTimer = null;
+            }
+        }
+
+        Node findBucket(long time) {
+            long duration = time - nanos;
+            int length = wheel.length - 1;
+            for (int i = 0; i < length; i++) {
+                if (duration < SPANS[i + 1]) {
+                    long ticks = (time >>> SHIFT[i]);
+                    int index = (int) (ticks & (wheel[i].length - 1));
+                    return wheel[i][index];
+                }
+            }
+            return wheel[length][0];
+        }
+    }
+
+}
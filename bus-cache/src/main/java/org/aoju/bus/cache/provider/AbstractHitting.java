@@ -27,15 +27,23 @@ package org.aoju.bus.cache.provider;
 
 import jakarta.annotation.PreDestroy;
 import org.aoju.bus.cache.Hitting;
-import org.aoju.bus.cache.magic.CachePair;
 import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.logger.Logger;
 import org.aoju.bus.setting.Builder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcOperations;
 
 import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
@@ -43,12 +51,20 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
+ * 数据库命中率统计
+ * 计数先累加到每个pattern的{@link LongAdder}中, 由后台线程按固定间隔批量写入数据库
+ *
  * @author Kimi Liu
  * @since Java 17+
  */
 public abstract class AbstractHitting implements Hitting {
 
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    /**
+     * 默认刷写间隔(毫秒)
+     */
+    public static final long DEFAULT_INTERVAL = 1000L;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread thread = new Thread(r);
         thread.setName("cache:db-writer");
         thread.setDaemon(true);
@@ -57,27 +73,28 @@ public abstract class AbstractHitting implements Hitting {
 
     private static final Lock lock = new ReentrantLock();
 
-    private volatile boolean isShutdown = false;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Set<String> persisted = ConcurrentHashMap.newKeySet();
 
-    private BlockingQueue<CachePair<String, Integer>> hitQueue = new LinkedTransferQueue<>();
+    private final Lock flushLock = new ReentrantLock();
 
-    private BlockingQueue<CachePair<String, Integer>> requireQueue = new LinkedTransferQueue<>();
+    private final ScheduledFuture<?> future;
 
     private JdbcOperations jdbcOperations;
 
     private Properties sqls;
 
     protected AbstractHitting(Map<String, Object> context) {
+        this(context, DEFAULT_INTERVAL);
+    }
+
+    protected AbstractHitting(Map<String, Object> context, long interval) {
         InputStream resource = this.getClass().getClassLoader().getResourceAsStream(Normal.META_DATA_INF + "/caches/bus-cache.yaml");
         this.sqls = Builder.load(resource, Properties.class);
 
         this.jdbcOperations = jdbcOperationsSupplier(context).get();
-        executor.submit(() -> {
-            while (!isShutdown) {
-                dumpToDB(hitQueue, "hit_count");
-                dumpToDB(requireQueue, "require_count");
-            }
-        });
+        this.future = executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     public AbstractHitting(String url, String username, String password) {
@@ -117,37 +134,22 @@ public abstract class AbstractHitting implements Hitting {
      */
     protected abstract Stream<DataDO> transferResults(List<Map<String, Object>> map);
 
-    private void dumpToDB(BlockingQueue<CachePair<String, Integer>> queue, String column) {
-        long times = 0;
-        CachePair<String, Integer> head;
-
-        // gather queue's all or before 100 data to a Map
-        Map<String, AtomicLong> holdMap = new HashMap<>();
-        while (null != (head = queue.poll()) && times <= 100) {
-            holdMap
-                    .computeIfAbsent(head.getLeft(), (key) -> new AtomicLong(0L))
-                    .addAndGet(head.getRight());
-            ++times;
-        }
-
-        // batch write to DB
-        holdMap.forEach((pattern, count) -> countAddCas(column, pattern, count.get()));
-    }
-
     @Override
     public void hitIncr(String pattern, int count) {
         if (count != 0)
-            hitQueue.add(CachePair.of(pattern, count));
+            counter(pattern).hit.add(count);
     }
 
     @Override
     public void reqIncr(String pattern, int count) {
         if (count != 0)
-            requireQueue.add(CachePair.of(pattern, count));
+            counter(pattern).require.add(count);
     }
 
     @Override
     public Map<String, Hitting.HittingDO> getHitting() {
+        flush();
+
         List<DataDO> dataDOS = queryAll();
         AtomicLong statisticsHit = new AtomicLong(0);
         AtomicLong statisticsRequired = new AtomicLong(0);
@@ -172,81 +174,186 @@ public abstract class AbstractHitting implements Hitting {
 
     @Override
     public void reset(String pattern) {
+        counters.remove(pattern);
+        persisted.remove(pattern);
         jdbcOperations.update(sqls.getProperty("delete"), pattern);
     }
 
     @Override
     public void resetAll() {
+        counters.clear();
+        persisted.clear();
         jdbcOperations.update(sqls.getProperty("truncate"));
     }
 
-    private void countAddCas(String column, String pattern, long count) {
-        Optional<DataDO> dataOptional = queryObject(pattern);
+    /**
+     * 将内存中累计的计数批量写入数据库
+     * 写入失败时计数回填, 等待下一次刷写
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>();
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                Counter counter = entry.getValue();
+                long hit = counter.hit.sumThenReset();
+                long require = counter.require.sumThenReset();
+                if (hit != 0 || require != 0) {
+                    batch.add(new Object[]{hit, require, entry.getKey()});
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    upsert(batch);
+                } catch (Exception e) {
+                    // 批量累加已整体回滚, 逐条写入的失败在upsert中各自回填
+                    Logger.error(e, "dump hitting to db error: {}", e.getMessage());
+                    batch.forEach(this::restore);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Counter counter(String pattern) {
+        Counter counter = counters.get(pattern);
+        if (null == counter) {
+            counter = counters.computeIfAbsent(pattern, key -> new Counter());
+        }
+        return counter;
+    }
+
+    private void upsert(List<Object[]> batch) {
+        // 已落库的pattern直接批量累加, 新pattern逐条插入
+        List<Object[]> known = new ArrayList<>(batch.size());
+        List<Object[]> unknown = new ArrayList<>();
+        for (Object[] args : batch) {
+            (persisted.contains(args[2]) ? known : unknown).add(args);
+        }
 
-        // if has pattern record, update it.
-        if (dataOptional.isPresent()) {
-            DataDO dataDO = dataOptional.get();
-            while (update(column, pattern, getObjectCount(dataDO, column, count), dataDO.version) <= 0) {
-                dataDO = queryObject(pattern).get();
+        if (!known.isEmpty()) {
+            int[] rows = incrBatch(known);
+            for (int i = 0; i < rows.length; ++i) {
+                // 记录已被删除
+                if (rows[i] == 0) {
+                    persisted.remove(known.get(i)[2]);
+                    unknown.add(known.get(i));
+                }
             }
-        } else {
+        }
+
+        for (Object[] args : unknown) {
             lock.lock();
             try {
-                // double check
-                dataOptional = queryObject(pattern);
-                if (dataOptional.isPresent()) {
-                    update(column, pattern, count, dataOptional.get().version);
-                } else {
-                    insert(column, pattern, count);
+                if (jdbcOperations.update(sqls.getProperty("incr"), args) <= 0) {
+                    insertOrIncr(args);
                 }
+                persisted.add((String) args[2]);
+            } catch (Exception e) {
+                Logger.error(e, "dump hitting of pattern: {} to db error: {}", args[2], e.getMessage());
+                restore(args);
             } finally {
                 lock.unlock();
             }
         }
     }
 
-    private Optional<DataDO> queryObject(String pattern) {
-        String selectSql = sqls.getProperty("select");
-        List<Map<String, Object>> mapResults = jdbcOperations.queryForList(selectSql, pattern);
-
-        return transferResults(mapResults).findFirst();
+    /**
+     * 在一个事务内批量累加, 失败时整体回滚, 调用方可以安全地回填全部计数
+     * 驱动返回{@link Statement#SUCCESS_NO_INFO}时(如MySQL开启rewriteBatchedStatements)无法得知记录是否存在,
+     * 在同一事务内查询后将不存在的记录视为未更新
+     *
+     * @param batch 累加参数
+     * @return 每条记录的更新行数
+     */
+    private int[] incrBatch(List<Object[]> batch) {
+        return jdbcOperations.execute((ConnectionCallback<int[]>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int[] rows;
+                try (PreparedStatement statement = connection.prepareStatement(sqls.getProperty("incr"))) {
+                    for (Object[] args : batch) {
+                        statement.setLong(1, (long) args[0]);
+                        statement.setLong(2, (long) args[1]);
+                        statement.setString(3, (String) args[2]);
+                        statement.addBatch();
+                    }
+                    rows = statement.executeBatch();
+                }
+                resolveNoInfo(connection, batch, rows);
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                try {
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    Logger.warn("restore auto commit error: {}", e.getMessage());
+                }
+            }
+        });
     }
 
-    private List<DataDO> queryAll() {
-        String selectAllQuery = sqls.getProperty("select_all");
-        List<Map<String, Object>> mapResults = jdbcOperations.queryForList(selectAllQuery);
+    private void resolveNoInfo(Connection connection, List<Object[]> batch, int[] rows) throws SQLException {
+        if (Arrays.stream(rows).noneMatch(row -> row == Statement.SUCCESS_NO_INFO)) {
+            return;
+        }
 
-        return transferResults(mapResults).collect(Collectors.toList());
+        Set<String> patterns = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sqls.getProperty("select_all"))) {
+            while (resultSet.next()) {
+                patterns.add(resultSet.getString("pattern"));
+            }
+        }
+        for (int i = 0; i < rows.length; ++i) {
+            if (rows[i] == Statement.SUCCESS_NO_INFO) {
+                rows[i] = patterns.contains(batch.get(i)[2]) ? 1 : 0;
+            }
+        }
     }
 
-    private int insert(String column, String pattern, long count) {
-        String insertSql = String.format(sqls.getProperty("insert"), column);
-
-        return jdbcOperations.update(insertSql, pattern, count);
+    private void insertOrIncr(Object[] args) {
+        try {
+            jdbcOperations.update(sqls.getProperty("insert"), args[2], args[0], args[1]);
+        } catch (DataAccessException e) {
+            // 其他节点已插入
+            if (jdbcOperations.update(sqls.getProperty("incr"), args) <= 0) {
+                throw e;
+            }
+        }
     }
 
-    private int update(String column, String pattern, long count, long version) {
-        String updateSql = String.format(sqls.getProperty("update"), column);
-
-        return jdbcOperations.update(updateSql, count, pattern, version);
+    private void restore(Object[] args) {
+        Counter counter = counter((String) args[2]);
+        counter.hit.add((long) args[0]);
+        counter.require.add((long) args[1]);
     }
 
-    private long getObjectCount(DataDO data, String column, long countOffset) {
-        long lastCount = column.equals("hit_count") ? data.hitCount : data.requireCount;
+    private List<DataDO> queryAll() {
+        String selectAllQuery = sqls.getProperty("select_all");
+        List<Map<String, Object>> mapResults = jdbcOperations.queryForList(selectAllQuery);
 
-        return lastCount + countOffset;
+        return transferResults(mapResults).collect(Collectors.toList());
     }
 
     @PreDestroy
     public void tearDown() {
-        while (hitQueue.size() > 0 || requireQueue.size() > 0) {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-            } catch (InterruptedException ignored) {
-            }
-        }
+        future.cancel(false);
+        flush();
+    }
+
+    private static final class Counter {
+
+        private final LongAdder hit = new LongAdder();
+
+        private final LongAdder require = new LongAdder();
 
-        isShutdown = true;
     }
 
     protected static final class DataDO {
@@ -46,6 +46,10 @@ public class H2Hitting extends AbstractHitting {
         super(context);
     }
 
+    public H2Hitting(Map<String, Object> context, long interval) {
+        super(context, interval);
+    }
+
     public H2Hitting(String url, String username, String password) {
         super(url, username, password);
     }
@@ -0,0 +1,261 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.provider;
+
+import org.aoju.bus.cache.Hitting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 纯内存命中率统计
+ * 除命中/请求数外, 按2的幂次分桶记录每个pattern的读取耗时, 不依赖任何存储
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class HistogramHitting implements Hitting {
+
+    /**
+     * 耗时分桶数, 第i个桶记录[2^(i-1), 2^i)纳秒, 最后一个桶收纳更大的值
+     */
+    private static final int BUCKETS = 48;
+
+    private final ConcurrentMap<String, Metrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void reqIncr(String pattern, int count) {
+        if (count != 0)
+            metrics(pattern).require.add(count);
+    }
+
+    @Override
+    public void hitIncr(String pattern, int count) {
+        if (count != 0)
+            metrics(pattern).hit.add(count);
+    }
+
+    @Override
+    public void costRecord(String pattern, long nanos) {
+        metrics(pattern).record(nanos);
+    }
+
+    @Override
+    public Map<String, Hitting.HittingDO> getHitting() {
+        Map<String, Hitting.HittingDO> result = new LinkedHashMap<>();
+
+        long statisticsHit = 0;
+        long statisticsRequired = 0;
+        for (Map.Entry<String, Metrics> entry : metrics.entrySet()) {
+            long hit = entry.getValue().hit.sum();
+            long require = entry.getValue().require.sum();
+
+            statisticsHit += hit;
+            statisticsRequired += require;
+
+            result.put(entry.getKey(), Hitting.HittingDO.newInstance(hit, require));
+        }
+
+        result.put(summaryName(), Hitting.HittingDO.newInstance(statisticsHit, statisticsRequired));
+
+        return result;
+    }
+
+    /**
+     * 获取各pattern的命中及耗时分布
+     *
+     * @return pattern -> 统计快照
+     */
+    public Map<String, HistogramDO> getHistogram() {
+        Map<String, HistogramDO> result = new LinkedHashMap<>();
+        metrics.forEach((pattern, value) -> result.put(pattern, value.snapshot()));
+        return result;
+    }
+
+    @Override
+    public void reset(String pattern) {
+        metrics.remove(pattern);
+    }
+
+    @Override
+    public void resetAll() {
+        metrics.clear();
+    }
+
+    private Metrics metrics(String pattern) {
+        Metrics value = metrics.get(pattern);
+        if (null == value) {
+            value = metrics.computeIfAbsent(pattern, key -> new Metrics());
+        }
+        return value;
+    }
+
+    private static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+    }
+
+    private static final class Metrics {
+
+        private final LongAdder hit = new LongAdder();
+
+        private final LongAdder require = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            buckets.incrementAndGet(bucket(nanos));
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        HistogramDO snapshot() {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+
+            long hitCount = hit.sum();
+            long requireCount = require.sum();
+            long max = maxNanos.get();
+            return new HistogramDO(hitCount, requireCount - hitCount, count,
+                    0 == count ? 0 : totalNanos.sum() / count, max,
+                    percentile(counts, count, 0.5, max),
+                    percentile(counts, count, 0.9, max),
+                    percentile(counts, count, 0.99, max),
+                    counts);
+        }
+
+        /**
+         * 取分位点所在桶的上界, 不超过实际最大值
+         */
+        private static long percentile(long[] counts, long count, double quantile, long max) {
+            if (0 == count) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == counts.length - 1 ? max : Math.min(max, (1L << i) - 1);
+                }
+            }
+            return max;
+        }
+    }
+
+    public static class HistogramDO {
+
+        private final long hit;
+
+        private final long miss;
+
+        private final long count;
+
+        private final long mean;
+
+        private final long max;
+
+        private final long p50;
+
+        private final long p90;
+
+        private final long p99;
+
+        private final long[] buckets;
+
+        private HistogramDO(long hit, long miss, long count, long mean, long max,
+                            long p50, long p90, long p99, long[] buckets) {
+            this.hit = hit;
+            this.miss = miss;
+            this.count = count;
+            this.mean = mean;
+            this.max = max;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.buckets = buckets;
+        }
+
+        public long getHit() {
+            return hit;
+        }
+
+        public long getMiss() {
+            return miss;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return 平均耗时(纳秒)
+         */
+        public long getMean() {
+            return mean;
+        }
+
+        /**
+         * @return 最大耗时(纳秒)
+         */
+        public long getMax() {
+            return max;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        /**
+         * @return 耗时分桶计数, 第i个桶记录[2^(i-1), 2^i)纳秒
+         */
+        public long[] getBuckets() {
+            return buckets.clone();
+        }
+    }
+
+}
@@ -47,6 +47,10 @@ public class MySQLHitting extends AbstractHitting {
         super(context);
     }
 
+    public MySQLHitting(Map<String, Object> context, long interval) {
+        super(context, interval);
+    }
+
     public MySQLHitting(String url, String username, String password) {
         super(url, username, password);
     }
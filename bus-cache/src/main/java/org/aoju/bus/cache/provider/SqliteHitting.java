@@ -44,6 +44,10 @@ public class SqliteHitting extends AbstractHitting {
         super(context);
     }
 
+    public SqliteHitting(Map<String, Object> context, long interval) {
+        super(context, interval);
+    }
+
     public SqliteHitting(String url, String username, String password) {
         super(url, username, password);
     }
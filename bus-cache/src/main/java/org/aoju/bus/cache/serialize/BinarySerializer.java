@@ -0,0 +1,812 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.serialize;
+
+import org.aoju.bus.cache.support.PreventObjects;
+import org.aoju.bus.cache.support.RefreshObjects;
+import org.aoju.bus.core.exception.InternalException;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 无模式的紧凑二进制序列化
+ * 类描述按注册顺序编号写入, 未注册的类在流中首次出现时写入类名, 之后以序号引用;
+ * 对象按字段声明顺序直接写出字段值, 因此读写两端的类结构及注册顺序必须一致
+ * 无无参构造的{@link Serializable}对象、无无参构造或带比较器的集合退化为JDK序列化,
+ * 退化部分始终按注册类及JDK常用类型过滤, 默认同样只允许已注册的类
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class BinarySerializer extends AbstractSerializer {
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte STRING = 10;
+    private static final byte BYTES = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte BIG_DECIMAL = 13;
+    private static final byte DATE = 14;
+    private static final byte ENUM = 15;
+    private static final byte ARRAY = 16;
+    private static final byte COLLECTION = 17;
+    private static final byte MAP = 18;
+    private static final byte OBJECT = 19;
+    private static final byte JAVA = 20;
+    private static final byte REF = 21;
+
+    /**
+     * 无需注册即可出现在流中的JDK包
+     */
+    private static final Set<String> PORTABLE = Set.of(
+            "java.lang", "java.math", "java.time", "java.util", "java.util.concurrent"
+    );
+
+    /**
+     * 内置注册类, 始终占用最前面的编号, 包含缓存自身写入的包装类型
+     */
+    private static final Class<?>[] BUILTIN = {
+            Object.class, boolean.class, byte.class, short.class, char.class, int.class, long.class,
+            float.class, double.class, Boolean.class, Byte.class, Short.class, Character.class,
+            Integer.class, Long.class, Float.class, Double.class, String.class, BigInteger.class,
+            BigDecimal.class, Date.class, ArrayList.class, LinkedList.class, HashSet.class,
+            LinkedHashSet.class, TreeSet.class, HashMap.class, LinkedHashMap.class, TreeMap.class,
+            ConcurrentHashMap.class, RefreshObjects.getRefreshClass(), PreventObjects.getPreventClass()
+    };
+
+    private final Class<?>[] classes;
+
+    private final Map<Class<?>, Integer> registered;
+
+    private final boolean required;
+
+    private final ConcurrentMap<Class<?>, Schema> schemas = new ConcurrentHashMap<>();
+
+    public BinarySerializer(Class<?>... classes) {
+        this(true, classes);
+    }
+
+    /**
+     * @param required 是否只允许内置及已注册的类
+     * @param classes  注册类, 读写两端须按相同顺序注册
+     */
+    public BinarySerializer(boolean required, Class<?>... classes) {
+        this.required = required;
+        this.classes = new Class<?>[BUILTIN.length + classes.length];
+        System.arraycopy(BUILTIN, 0, this.classes, 0, BUILTIN.length);
+        System.arraycopy(classes, 0, this.classes, BUILTIN.length, classes.length);
+
+        Map<Class<?>, Integer> map = new HashMap<>(this.classes.length * 2);
+        for (int i = 0; i < this.classes.length; ++i) {
+            map.putIfAbsent(this.classes[i], i);
+        }
+        this.registered = map;
+    }
+
+    @Override
+    protected byte[] doSerialize(Object object) throws Throwable {
+        Output out = new Output();
+        write(out, object);
+        return out.toByteArray();
+    }
+
+    @Override
+    protected Object doDeserialize(byte[] bytes) throws Throwable {
+        return read(new Input(bytes));
+    }
+
+    private void write(Output out, Object object) throws IOException {
+        if (null == object) {
+            out.writeByte(NULL);
+            return;
+        }
+
+        Class<?> clazz = object.getClass();
+        if (clazz == String.class) {
+            out.writeByte(STRING);
+            out.writeString((String) object);
+        } else if (clazz == Integer.class) {
+            out.writeByte(INT);
+            out.writeVarLong(zigZag((Integer) object));
+        } else if (clazz == Long.class) {
+            out.writeByte(LONG);
+            out.writeVarLong(zigZag((Long) object));
+        } else if (clazz == Boolean.class) {
+            out.writeByte((Boolean) object ? TRUE : FALSE);
+        } else if (clazz == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits((Double) object));
+        } else if (clazz == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeInt(Float.floatToRawIntBits((Float) object));
+        } else if (clazz == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) object);
+        } else if (clazz == Short.class) {
+            out.writeByte(SHORT);
+            out.writeVarLong(zigZag((Short) object));
+        } else if (clazz == Character.class) {
+            out.writeByte(CHAR);
+            out.writeVarLong((Character) object);
+        } else if (clazz == byte[].class) {
+            out.writeByte(BYTES);
+            out.writeBytes((byte[]) object);
+        } else if (clazz == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            out.writeBytes(((BigInteger) object).toByteArray());
+        } else if (clazz == BigDecimal.class) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeBytes(((BigDecimal) object).unscaledValue().toByteArray());
+            out.writeVarLong(zigZag(((BigDecimal) object).scale()));
+        } else if (clazz == Date.class) {
+            out.writeByte(DATE);
+            out.writeVarLong(zigZag(((Date) object).getTime()));
+        } else if (object instanceof Enum) {
+            out.writeByte(ENUM);
+            writeClass(out, ((Enum<?>) object).getDeclaringClass());
+            out.writeVarLong(((Enum<?>) object).ordinal());
+        } else {
+            Integer ref = out.refs.get(object);
+            if (null != ref) {
+                out.writeByte(REF);
+                out.writeVarLong(ref);
+                return;
+            }
+            writeReference(out, object, clazz);
+        }
+    }
+
+    private void writeReference(Output out, Object object, Class<?> clazz) throws IOException {
+        if (clazz.isArray()) {
+            out.refs.put(object, out.refs.size());
+            out.writeByte(ARRAY);
+            writeClass(out, clazz.getComponentType());
+            int length = Array.getLength(object);
+            out.writeVarLong(length);
+            writeArray(out, object, clazz.getComponentType(), length);
+        } else if (!isRebuildable(object)) {
+            writeJava(out, object, clazz);
+        } else {
+            Schema schema = schema(clazz);
+            if (null == schema) {
+                writeJava(out, object, clazz);
+            } else if (schema.container && object instanceof Collection) {
+                out.refs.put(object, out.refs.size());
+                out.writeByte(COLLECTION);
+                writeClass(out, clazz);
+                writeFields(out, object, schema);
+                Collection<?> collection = (Collection<?>) object;
+                out.writeVarLong(collection.size());
+                for (Object element : collection) {
+                    write(out, element);
+                }
+            } else if (schema.container) {
+                out.refs.put(object, out.refs.size());
+                out.writeByte(MAP);
+                writeClass(out, clazz);
+                writeFields(out, object, schema);
+                Map<?, ?> map = (Map<?, ?>) object;
+                out.writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(out, entry.getKey());
+                    write(out, entry.getValue());
+                }
+            } else {
+                out.refs.put(object, out.refs.size());
+                out.writeByte(OBJECT);
+                writeClass(out, clazz);
+                writeFields(out, object, schema);
+            }
+        }
+    }
+
+    /**
+     * 集合及Map能否按原类型重建: 带比较器时退化为JDK序列化以保留比较器
+     */
+    private boolean isRebuildable(Object object) {
+        if (!(object instanceof Collection) && !(object instanceof Map)) {
+            return true;
+        }
+        if (object instanceof SortedSet && null != ((SortedSet<?>) object).comparator()) {
+            return false;
+        }
+        if (object instanceof SortedMap && null != ((SortedMap<?, ?>) object).comparator()) {
+            return false;
+        }
+        return true;
+    }
+
+    private void writeJava(Output out, Object object, Class<?> clazz) throws IOException {
+        if (!(object instanceof Serializable)) {
+            throw new InternalException("class " + clazz.getName() + " has no no-arg constructor and is not Serializable");
+        }
+        if (!isAllowed(clazz)) {
+            throw new InternalException("class " + clazz.getName() + " is not registered");
+        }
+        out.refs.put(object, out.refs.size());
+        out.writeByte(JAVA);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(object);
+        }
+        out.writeBytes(bos.toByteArray());
+    }
+
+    private void writeArray(Output out, Object array, Class<?> component, int length) throws IOException {
+        if (component == int.class) {
+            for (int value : (int[]) array) {
+                out.writeVarLong(zigZag(value));
+            }
+        } else if (component == long.class) {
+            for (long value : (long[]) array) {
+                out.writeVarLong(zigZag(value));
+            }
+        } else if (component == double.class) {
+            for (double value : (double[]) array) {
+                out.writeLong(Double.doubleToRawLongBits(value));
+            }
+        } else if (component.isPrimitive()) {
+            for (int i = 0; i < length; ++i) {
+                writePrimitive(out, component, Array.get(array, i));
+            }
+        } else {
+            for (Object element : (Object[]) array) {
+                write(out, element);
+            }
+        }
+    }
+
+    private void writeFields(Output out, Object object, Schema schema) throws IOException {
+        try {
+            for (Field field : schema.fields) {
+                Class<?> type = field.getType();
+                if (type.isPrimitive()) {
+                    writePrimitive(out, type, field.get(object));
+                } else {
+                    write(out, field.get(object));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new InternalException(e);
+        }
+    }
+
+    private void writePrimitive(Output out, Class<?> type, Object value) {
+        if (type == int.class) {
+            out.writeVarLong(zigZag((Integer) value));
+        } else if (type == long.class) {
+            out.writeVarLong(zigZag((Long) value));
+        } else if (type == boolean.class) {
+            out.writeByte((Boolean) value ? 1 : 0);
+        } else if (type == double.class) {
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (type == float.class) {
+            out.writeInt(Float.floatToRawIntBits((Float) value));
+        } else if (type == byte.class) {
+            out.writeByte((Byte) value);
+        } else if (type == short.class) {
+            out.writeVarLong(zigZag((Short) value));
+        } else {
+            out.writeVarLong((Character) value);
+        }
+    }
+
+    /**
+     * 已注册: id*2+1; 流内已出现: (序号+1)*2; 首次出现: 0 + 类名
+     */
+    private void writeClass(Output out, Class<?> clazz) {
+        Integer id = registered.get(clazz);
+        if (null != id) {
+            out.writeVarLong(id * 2L + 1);
+            return;
+        }
+
+        checkRegistered(clazz);
+        Integer index = out.classes.get(clazz);
+        if (null != index) {
+            out.writeVarLong((index + 1) * 2L);
+            return;
+        }
+        out.classes.put(clazz, out.classes.size());
+        out.writeVarLong(0);
+        out.writeString(clazz.getName());
+    }
+
+    private Object read(Input in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return (short) unZigZag(in.readVarLong());
+            case CHAR:
+                return (char) in.readVarLong();
+            case INT:
+                return (int) unZigZag(in.readVarLong());
+            case LONG:
+                return unZigZag(in.readVarLong());
+            case FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case STRING:
+                return in.readString();
+            case BYTES:
+                return in.readBytes();
+            case BIG_INTEGER:
+                return new BigInteger(in.readBytes());
+            case BIG_DECIMAL:
+                return new BigDecimal(new BigInteger(in.readBytes()), (int) unZigZag(in.readVarLong()));
+            case DATE:
+                return new Date(unZigZag(in.readVarLong()));
+            case ENUM:
+                return readClass(in).getEnumConstants()[(int) in.readVarLong()];
+            case REF:
+                return in.refs.get((int) in.readVarLong());
+            case ARRAY:
+                return readArray(in);
+            case COLLECTION:
+                return readCollection(in);
+            case MAP:
+                return readMap(in);
+            case OBJECT:
+                return readObject(in);
+            case JAVA:
+                int ref = in.refs.size();
+                in.refs.add(null);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(in.readBytes()))) {
+                    ois.setObjectInputFilter(this::filter);
+                    Object object = ois.readObject();
+                    in.refs.set(ref, object);
+                    return object;
+                }
+            default:
+                throw new InternalException("unknown binary tag: " + tag);
+        }
+    }
+
+    private Object readArray(Input in) throws IOException, ClassNotFoundException {
+        Class<?> component = readClass(in);
+        int length = (int) in.readVarLong();
+        Object array = Array.newInstance(component, length);
+        in.refs.add(array);
+
+        if (component == int.class) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < length; ++i) {
+                values[i] = (int) unZigZag(in.readVarLong());
+            }
+        } else if (component == long.class) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < length; ++i) {
+                values[i] = unZigZag(in.readVarLong());
+            }
+        } else if (component == double.class) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < length; ++i) {
+                values[i] = Double.longBitsToDouble(in.readLong());
+            }
+        } else if (component.isPrimitive()) {
+            for (int i = 0; i < length; ++i) {
+                Array.set(array, i, readPrimitive(in, component));
+            }
+        } else {
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < length; ++i) {
+                values[i] = read(in);
+            }
+        }
+        return array;
+    }
+
+    private Object readCollection(Input in) throws IOException, ClassNotFoundException {
+        Class<?> clazz = readClass(in);
+        @SuppressWarnings("unchecked")
+        Collection<Object> collection = (Collection<Object>) newInstance(clazz);
+        in.refs.add(collection);
+        readFields(in, collection, schema(clazz));
+
+        int size = (int) in.readVarLong();
+        for (int i = 0; i < size; ++i) {
+            collection.add(read(in));
+        }
+        return collection;
+    }
+
+    private Object readMap(Input in) throws IOException, ClassNotFoundException {
+        Class<?> clazz = readClass(in);
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> map = (Map<Object, Object>) newInstance(clazz);
+        in.refs.add(map);
+        readFields(in, map, schema(clazz));
+
+        int size = (int) in.readVarLong();
+        for (int i = 0; i < size; ++i) {
+            map.put(read(in), read(in));
+        }
+        return map;
+    }
+
+    private Object readObject(Input in) throws IOException, ClassNotFoundException {
+        Class<?> clazz = readClass(in);
+        Schema schema = schema(clazz);
+        if (null == schema) {
+            throw new InternalException("class " + clazz.getName() + " has no no-arg constructor");
+        }
+
+        try {
+            Object object = schema.constructor.newInstance();
+            in.refs.add(object);
+            readFields(in, object, schema);
+            return object;
+        } catch (ReflectiveOperationException e) {
+            throw new InternalException(e);
+        }
+    }
+
+    private void readFields(Input in, Object object, Schema schema) throws IOException, ClassNotFoundException {
+        try {
+            for (Field field : schema.fields) {
+                Class<?> type = field.getType();
+                field.set(object, type.isPrimitive() ? readPrimitive(in, type) : read(in));
+            }
+        } catch (IllegalAccessException e) {
+            throw new InternalException(e);
+        }
+    }
+
+    private Object readPrimitive(Input in, Class<?> type) {
+        if (type == int.class) {
+            return (int) unZigZag(in.readVarLong());
+        } else if (type == long.class) {
+            return unZigZag(in.readVarLong());
+        } else if (type == boolean.class) {
+            return in.readByte() != 0;
+        } else if (type == double.class) {
+            return Double.longBitsToDouble(in.readLong());
+        } else if (type == float.class) {
+            return Float.intBitsToFloat(in.readInt());
+        } else if (type == byte.class) {
+            return in.readByte();
+        } else if (type == short.class) {
+            return (short) unZigZag(in.readVarLong());
+        } else {
+            return (char) in.readVarLong();
+        }
+    }
+
+    private Class<?> readClass(Input in) throws ClassNotFoundException {
+        long code = in.readVarLong();
+        if ((code & 1) == 1) {
+            return classes[(int) (code >>> 1)];
+        }
+        if (code != 0) {
+            return in.classes.get((int) (code >>> 1) - 1);
+        }
+
+        String name = in.readString();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Class<?> clazz = Class.forName(name, false, null == loader ? BinarySerializer.class.getClassLoader() : loader);
+        checkRegistered(clazz);
+        in.classes.add(clazz);
+        return clazz;
+    }
+
+    private void checkRegistered(Class<?> clazz) {
+        if (required && !isAllowed(clazz)) {
+            throw new InternalException("class " + clazz.getName() + " is not registered");
+        }
+    }
+
+    /**
+     * 已注册类、其父类型及JDK常用类型
+     */
+    private boolean isAllowed(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive() || registered.containsKey(clazz) || isPortable(clazz)) {
+            return true;
+        }
+        // JDK序列化会逐级读取父类描述
+        for (Class<?> type : classes) {
+            if (clazz.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * JDK序列化的过滤器, 无论是否{@code required}都只允许已注册类及JDK常用类型
+     */
+    private ObjectInputFilter.Status filter(ObjectInputFilter.FilterInfo info) {
+        Class<?> clazz = info.serialClass();
+        if (null == clazz || isAllowed(clazz)) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    private Object newInstance(Class<?> clazz) {
+        Schema schema = schema(clazz);
+        if (null == schema) {
+            throw new InternalException("class " + clazz.getName() + " has no no-arg constructor");
+        }
+        try {
+            return schema.constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new InternalException(e);
+        }
+    }
+
+    /**
+     * 获取类的字段描述, 无可用无参构造时返回null
+     */
+    private Schema schema(Class<?> clazz) {
+        Schema schema = schemas.get(clazz);
+        if (null == schema) {
+            schema = schemas.computeIfAbsent(clazz, Schema::of);
+        }
+        return schema == Schema.NONE ? null : schema;
+    }
+
+    /**
+     * JDK常用类型无需注册
+     */
+    private static boolean isPortable(Class<?> clazz) {
+        return PORTABLE.contains(clazz.getPackageName());
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Schema {
+
+        private static final Schema NONE = new Schema(null, null, false);
+
+        private final Constructor<?> constructor;
+
+        private final Field[] fields;
+
+        /**
+         * 元素由JDK集合类型保存, 按元素重建
+         */
+        private final boolean container;
+
+        private Schema(Constructor<?> constructor, Field[] fields, boolean container) {
+            this.constructor = constructor;
+            this.fields = fields;
+            this.container = container;
+        }
+
+        private static Schema of(Class<?> clazz) {
+            if (clazz.isInterface() || clazz.isRecord() || Modifier.isAbstract(clazz.getModifiers())) {
+                return NONE;
+            }
+            try {
+                Constructor<?> constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+
+                // 元素由具体的JDK集合类型保存时按元素重建, 只写出其子类声明的字段
+                boolean container = false;
+                Deque<Class<?>> hierarchy = new ArrayDeque<>();
+                for (Class<?> type = clazz; null != type && type != Object.class; type = type.getSuperclass()) {
+                    if (type.getName().startsWith("java.") && !Modifier.isAbstract(type.getModifiers())
+                            && (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))) {
+                        container = true;
+                        break;
+                    }
+                    hierarchy.push(type);
+                }
+                if (!container && clazz.getName().startsWith("java.")) {
+                    return NONE;
+                }
+
+                List<Field> fields = new ArrayList<>();
+                for (Class<?> type : hierarchy) {
+                    Field[] declared = type.getDeclaredFields();
+                    Arrays.sort(declared, Comparator.comparing(Field::getName));
+                    for (Field field : declared) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+                return new Schema(constructor, fields.toArray(new Field[0]), container);
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return NONE;
+            }
+        }
+    }
+
+    private static final class Output {
+
+        private final Map<Object, Integer> refs = new IdentityHashMap<>();
+
+        private final Map<Class<?>, Integer> classes = new HashMap<>();
+
+        private byte[] buffer = new byte[256];
+
+        private int position;
+
+        private void ensure(int required) {
+            if (position + required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + required));
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeString(String value) {
+            int length = value.length();
+            // 纯ASCII时直接写出, 避免编码分配
+            ensure(length + 10);
+            int start = position;
+            writeVarLong(length);
+            int offset = position;
+            for (int i = 0; i < length; ++i) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    position = start;
+                    writeVarLong(0xFFFFFFFFL);
+                    writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                buffer[offset + i] = (byte) c;
+            }
+            position = offset + length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Input {
+
+        private final List<Object> refs = new ArrayList<>();
+
+        private final List<Class<?>> classes = new ArrayList<>();
+
+        private final byte[] buffer;
+
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            return buffer[position++];
+        }
+
+        int readInt() {
+            return (buffer[position++] & 0xFF) << 24
+                    | (buffer[position++] & 0xFF) << 16
+                    | (buffer[position++] & 0xFF) << 8
+                    | (buffer[position++] & 0xFF);
+        }
+
+        long readLong() {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new InternalException("malformed varint");
+        }
+
+        byte[] readBytes() {
+            int length = (int) readVarLong();
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0xFFFFFFFFL) {
+                return new String(readBytes(), StandardCharsets.UTF_8);
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.ISO_8859_1);
+            position += (int) length;
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.serialize;
+
+import org.aoju.bus.extra.effect.EffectProvider;
+import org.aoju.bus.extra.effect.provider.Lz4Provider;
+
+import java.util.Arrays;
+
+/**
+ * 压缩序列化
+ * 委托其他序列化器完成序列化, 超过阈值且压缩后更小时才压缩,
+ * 首字节标记是否压缩, 压缩算法由{@link EffectProvider}指定
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class CompressSerializer extends AbstractSerializer {
+
+    /**
+     * 默认压缩阈值(字节)
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private static final byte RAW = 0;
+
+    private static final byte COMPRESSED = 1;
+
+    private final BaseSerializer serializer;
+
+    private final EffectProvider provider;
+
+    private final int threshold;
+
+    public CompressSerializer(BaseSerializer serializer) {
+        this(serializer, new Lz4Provider(), DEFAULT_THRESHOLD);
+    }
+
+    public CompressSerializer(BaseSerializer serializer, EffectProvider provider, int threshold) {
+        this.serializer = serializer;
+        this.provider = provider;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected byte[] doSerialize(Object object) throws Throwable {
+        byte[] bytes = serializer.serialize(object);
+        if (null == bytes) {
+            return null;
+        }
+
+        if (bytes.length >= threshold) {
+            byte[] compressed = provider.compress(bytes);
+            if (compressed.length < bytes.length) {
+                return mark(COMPRESSED, compressed);
+            }
+        }
+        return mark(RAW, bytes);
+    }
+
+    @Override
+    protected Object doDeserialize(byte[] bytes) throws Throwable {
+        byte[] payload = Arrays.copyOfRange(bytes, 1, bytes.length);
+        if (bytes[0] == COMPRESSED) {
+            payload = provider.uncompress(payload);
+        }
+        return serializer.deserialize(payload);
+    }
+
+    private static byte[] mark(byte flag, byte[] bytes) {
+        byte[] result = new byte[bytes.length + 1];
+        result[0] = flag;
+        System.arraycopy(bytes, 0, result, 1, bytes.length);
+        return result;
+    }
+
+}
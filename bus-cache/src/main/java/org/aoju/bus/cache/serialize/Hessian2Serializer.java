@@ -42,7 +42,7 @@ public class Hessian2Serializer extends AbstractSerializer {
         try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
             Hessian2Output out = new Hessian2Output(os);
             out.writeObject(object);
-            os.close();
+            out.flush();
             return os.toByteArray();
         }
     }
@@ -27,82 +27,114 @@ package org.aoju.bus.cache.support;
 
 import org.aoju.bus.cache.annotation.CacheKey;
 import org.aoju.bus.cache.magic.AnnoHolder;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
+ * 缓存key生成
+ * 每个方法的{@link CacheKey}只解析一次: 形如{@code #arg}、{@code #arg.field}、{@code #arg[#i]}、{@code #arg[#i].field}
+ * 的简单引用直接读取参数, 其余表达式使用预解析的spel计算, spel环境在一次key生成中只创建一次
+ *
  * @author Kimi Liu
  * @since Java 17+
  */
 public class KeyGenerator {
 
+    private static final Pattern SIMPLE_REFERENCE = Pattern.compile("^#(\\w+)(\\[#i])?(?:\\.(\\w+))?$");
+
+    private static final ConcurrentMap<Method, KeyPart[]> keyParts = new ConcurrentHashMap<>();
+
     public static String generateSingleKey(AnnoHolder annoHolder, Object[] argValues) {
-        String[] argNames = ArgNameGenerator.getArgNames(annoHolder.getMethod());
-        Map<Integer, CacheKey> cacheKeyMap = annoHolder.getCacheKeyMap();
-        String prefix = annoHolder.getPrefix();
+        KeyPart[] parts = getKeyParts(annoHolder);
+        LazyContext context = new LazyContext(ArgNameGenerator.getArgNames(annoHolder.getMethod()), argValues);
 
-        return doGenerateKey(cacheKeyMap, prefix, argNames, argValues);
+        return doGenerateKey(parts, annoHolder.getPrefix(), argValues, null, context);
     }
 
     public static Map[] generateMultiKey(AnnoHolder annoHolder, Object[] argValues) {
+        return generateMultiKey(annoHolder, argValues, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * 生成批量key, 每生成batchSize个新key回调一次, 便于调用方边生成边读取缓存
+     *
+     * @param annoHolder 注解信息
+     * @param argValues  参数值
+     * @param batchSize  回调批量大小
+     * @param consumer   新key回调, 可为空
+     * @return [multiEntry2Key, key2MultiEntry]
+     */
+    public static Map[] generateMultiKey(AnnoHolder annoHolder, Object[] argValues,
+                                         int batchSize, Consumer<List<String>> consumer) {
         /*由于要将Collection内的元素作为Map的Key, 因此就要求元素必须实现的hashcode & equals方法*/
         Map<Object, String> multiEntry2Key = new LinkedHashMap<>();
         Map<String, Object> key2MultiEntry = new LinkedHashMap<>();
 
         // 准备要拼装key所需的原材料
         // 标记为multi的参数
-        Collection multiArgEntries = getMultiArgEntries(argValues[annoHolder.getMultiIndex()]);
-        // 参数索引 -> CacheKey
-        Map<Integer, CacheKey> argIndex2CacheKey = annoHolder.getCacheKeyMap();
+        Object multiArg = argValues[annoHolder.getMultiIndex()];
+        Collection multiArgEntries = getMultiArgEntries(multiArg);
+        // 参数索引 -> 预解析的key片段
+        KeyPart[] parts = getKeyParts(annoHolder);
         // 全局prefix
         String prefix = annoHolder.getPrefix();
 
-        // 根据方法获取原始的参数名
-        String[] argNames = ArgNameGenerator.getArgNames(annoHolder.getMethod());
-        // 给参数名添加一个`#i`遍历指令
-        String[] appendArgNames = (String[]) appendArray(argNames, "i");
+        // 根据方法获取原始的参数名, `#i`遍历指令在需要spel时再放入环境
+        LazyContext context = new LazyContext(ArgNameGenerator.getArgNames(annoHolder.getMethod()), argValues);
+        // Map作为multi参数时`#arg[#i]`并不等价于遍历元素, 交由spel处理
+        boolean elementAccessible = !(multiArg instanceof Map);
 
+        List<String> batch = new ArrayList<>();
         int i = 0;
         for (Object multiElement : multiArgEntries) {
+            context.setIndex(i);
+            String key = doGenerateKey(parts, prefix, argValues, elementAccessible ? new Object[]{multiElement} : null, context);
 
-            // 给参数值数组的`#i`指令赋值
-            Object[] appendArgValues = appendArray(argValues, i);
-
-            String key = doGenerateKey(argIndex2CacheKey, prefix, appendArgNames, appendArgValues);
-
+            if (null != consumer && !key2MultiEntry.containsKey(key)) {
+                batch.add(key);
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>();
+                }
+            }
             key2MultiEntry.put(key, multiElement);
             multiEntry2Key.put(multiElement, key);
             ++i;
         }
+        if (null != consumer && !batch.isEmpty()) {
+            consumer.accept(batch);
+        }
 
         return new Map[]{multiEntry2Key, key2MultiEntry};
     }
 
-    private static String doGenerateKey(Map<Integer, CacheKey> parameterIndex2CacheKey,
-                                        String prefix, String[] argNames, Object[] argValues) {
-
+    private static String doGenerateKey(KeyPart[] parts, String prefix, Object[] argValues,
+                                        Object[] multiElement, LazyContext context) {
         StringBuilder sb = new StringBuilder(prefix);
-        for (Map.Entry<Integer, CacheKey> entry : parameterIndex2CacheKey.entrySet()) {
-            int argIndex = entry.getKey();
-            String argSpel = entry.getValue().value();
-
-            Object defaultValue = getDefaultValue(argValues, argIndex);
-            Object keyPart = SpelCalculator.calcSpelValueWithContext(argSpel, argNames, argValues, defaultValue);
-
-            sb.append(keyPart);
-
+        for (KeyPart part : parts) {
+            sb.append(part.value(argValues, multiElement, context));
         }
 
         return sb.toString();
     }
 
-    /**
-     * 获取当spel表达式为空(null or '')时, 默认的拼装keyPart
-     * 注意: 当multi的spel表达式为空时, 这时会将整个`Collection`实例作为keyPart(当然, 这种情况不会发生)...
-     */
-    private static Object getDefaultValue(Object[] argValues, int argIndex) {
-        return argValues[argIndex];
+    private static KeyPart[] getKeyParts(AnnoHolder annoHolder) {
+        return keyParts.computeIfAbsent(annoHolder.getMethod(), method -> {
+            String[] argNames = ArgNameGenerator.getArgNames(method);
+            return annoHolder.getCacheKeyMap().entrySet().stream()
+                    .map(entry -> KeyPart.of(entry.getKey(), entry.getValue().value(), argNames, annoHolder.getMultiIndex()))
+                    .toArray(KeyPart[]::new);
+        });
     }
 
     /**
@@ -122,14 +154,189 @@ public class KeyGenerator {
             return ((Map) multiArg).keySet();
         } else {
             // 此处应该在multi参数校验的时候确保只能为Collection、Map、Object[]三种类型
-            return Arrays.stream((Object[]) multiArg).collect(Collectors.toList());
+            return Arrays.asList((Object[]) multiArg);
+        }
+    }
+
+    /**
+     * 按需创建的spel环境
+     */
+    private static class LazyContext {
+
+        private final String[] argNames;
+
+        private final Object[] argValues;
+
+        private EvaluationContext context;
+
+        private int index = -1;
+
+        LazyContext(String[] argNames, Object[] argValues) {
+            this.argNames = argNames;
+            this.argValues = argValues;
+        }
+
+        void setIndex(int index) {
+            this.index = index;
+            if (null != context) {
+                context.setVariable("i", index);
+            }
+        }
+
+        EvaluationContext get() {
+            if (null == context) {
+                context = SpelCalculator.newContext(argNames, argValues);
+                if (index != -1) {
+                    context.setVariable("i", index);
+                }
+            }
+            return context;
         }
     }
 
-    private static Object[] appendArray(Object[] origin, Object append) {
-        Object[] dest = Arrays.copyOf(origin, origin.length + 1);
-        dest[origin.length] = append;
+    /**
+     * 预解析的key片段
+     */
+    private static class KeyPart {
+
+        /**
+         * spel为空时, 默认将整个参数作为keyPart
+         * 注意: 当multi的spel表达式为空时, 这时会将整个`Collection`实例作为keyPart(当然, 这种情况不会发生)...
+         */
+        private static final int DEFAULT = 0;
+        private static final int ARG = 1;
+        private static final int ELEMENT = 2;
+        private static final int SPEL = 3;
+
+        private final int type;
+
+        private final int index;
+
+        private final String property;
+
+        private final Expression expression;
+
+        private volatile Getter getter;
 
-        return dest;
+        private KeyPart(int type, int index, String property, Expression expression) {
+            this.type = type;
+            this.index = index;
+            this.property = property;
+            this.expression = expression;
+        }
+
+        static KeyPart of(int argIndex, String spel, String[] argNames, int multiIndex) {
+            if (StringKit.isEmpty(spel)) {
+                return new KeyPart(DEFAULT, argIndex, null, null);
+            }
+
+            Expression expression = SpelCalculator.parseExpression(spel);
+            Matcher matcher = SIMPLE_REFERENCE.matcher(spel.trim());
+            if (matcher.matches()) {
+                int refIndex = indexOf(matcher.group(1), argNames);
+                boolean element = null != matcher.group(2);
+                if (refIndex != -1 && (!element || refIndex == multiIndex)) {
+                    return new KeyPart(element ? ELEMENT : ARG, refIndex, matcher.group(3), expression);
+                }
+            }
+            return new KeyPart(SPEL, argIndex, null, expression);
+        }
+
+        /**
+         * 与spel环境中变量的覆盖顺序保持一致: argsN优先于参数名
+         */
+        private static int indexOf(String name, String[] argNames) {
+            String[] xArgNames = ArgNameGenerator.getXArgNames(argNames.length);
+            for (int i = 0; i < xArgNames.length; i++) {
+                if (xArgNames[i].equals(name)) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < argNames.length; i++) {
+                if (argNames[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Object value(Object[] argValues, Object[] multiElement, LazyContext context) {
+            switch (type) {
+                case DEFAULT:
+                    return argValues[index];
+                case ARG:
+                    return read(argValues[index], context);
+                case ELEMENT:
+                    if (null != multiElement) {
+                        return read(multiElement[0], context);
+                    }
+                    return expression.getValue(context.get());
+                default:
+                    return expression.getValue(context.get());
+            }
+        }
+
+        private Object read(Object target, LazyContext context) {
+            if (null == property) {
+                return target;
+            }
+            // null、Map等与spel语义存在差异的场景交由spel处理
+            if (null != target && !(target instanceof Map)) {
+                Getter cached = this.getter;
+                if (null == cached || cached.type != target.getClass()) {
+                    cached = Getter.of(target.getClass(), property);
+                    this.getter = cached;
+                }
+                if (null != cached.method) {
+                    try {
+                        return cached.method.invoke(target);
+                    } catch (ReflectiveOperationException ignored) {
+                        // 退回spel
+                    }
+                }
+            }
+            return expression.getValue(context.get());
+        }
     }
+
+    /**
+     * 属性读取方法, 找不到公共的getter时method为空
+     */
+    private static class Getter {
+
+        private final Class<?> type;
+
+        private final Method method;
+
+        private Getter(Class<?> type, Method method) {
+            this.type = type;
+            this.method = method;
+        }
+
+        static Getter of(Class<?> type, String property) {
+            String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            try {
+                Method method = type.getMethod("get" + suffix);
+                if (isAccessible(method) && method.getReturnType() != void.class) {
+                    return new Getter(type, method);
+                }
+            } catch (NoSuchMethodException ignored) {
+                // try isXxx
+            }
+            try {
+                Method method = type.getMethod("is" + suffix);
+                if (isAccessible(method) && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                    return new Getter(type, method);
+                }
+            } catch (NoSuchMethodException ignored) {
+                // not found
+            }
+            return new Getter(type, null);
+        }
+
+        private static boolean isAccessible(Method method) {
+            return Modifier.isPublic(method.getDeclaringClass().getModifiers()) && !Modifier.isStatic(method.getModifiers());
+        }
+    }
+
 }
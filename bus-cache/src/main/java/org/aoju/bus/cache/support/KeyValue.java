@@ -69,7 +69,7 @@ public class KeyValue {
             Object id = SpelCalculator.calcSpelWithNoContext(idSpel, value);
             String key = id2Key.get(id);
 
-            if (StringKit.isEmpty(key)) {
+            if (StringKit.isNotEmpty(key)) {
                 missKeys.remove(key);
                 keyValueMap.put(key, value);
             }
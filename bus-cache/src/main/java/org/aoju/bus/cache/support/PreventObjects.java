@@ -41,6 +41,15 @@ public class PreventObjects {
         return object == PreventObject.INSTANCE || object instanceof PreventObject;
     }
 
+    /**
+     * 防击穿对象类型, 供序列化预先注册
+     *
+     * @return 防击穿对象类型
+     */
+    public static Class<?> getPreventClass() {
+        return PreventObject.class;
+    }
+
     private static final class PreventObject implements Serializable {
 
         private static final long serialVersionUID = 1L;
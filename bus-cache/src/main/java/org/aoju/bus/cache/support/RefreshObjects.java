@@ -0,0 +1,94 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 开启提前刷新时,缓存值会连同软过期时间一起写入缓存
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class RefreshObjects {
+
+    public static Object wrap(Object value, int refresh) {
+        if (null == value || PreventObjects.isPrevent(value)) {
+            return value;
+        }
+        return new RefreshObject(value, System.currentTimeMillis() + refresh);
+    }
+
+    public static Map<String, Object> wrap(Map<String, Object> keyValueMap, int refresh) {
+        Map<String, Object> result = new LinkedHashMap<>(keyValueMap.size());
+        keyValueMap.forEach((key, value) -> result.put(key, wrap(value, refresh)));
+        return result;
+    }
+
+    public static Object unwrap(Object object) {
+        return object instanceof RefreshObject ? ((RefreshObject) object).value : object;
+    }
+
+    /**
+     * 是否已超过软过期时间
+     *
+     * @param object 缓存值
+     * @return true: 需要刷新
+     */
+    public static boolean isStale(Object object) {
+        return object instanceof RefreshObject && System.currentTimeMillis() >= ((RefreshObject) object).refreshAt;
+    }
+
+    /**
+     * 包装类型, 供序列化预先注册
+     *
+     * @return 包装类型
+     */
+    public static Class<?> getRefreshClass() {
+        return RefreshObject.class;
+    }
+
+    private static final class RefreshObject implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Object value;
+
+        private long refreshAt;
+
+        private RefreshObject() {
+
+        }
+
+        private RefreshObject(Object value, long refreshAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+        }
+    }
+
+}
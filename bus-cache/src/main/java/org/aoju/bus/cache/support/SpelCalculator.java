@@ -28,10 +28,16 @@ package org.aoju.bus.cache.support;
 import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.toolkit.StringKit;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Spel表达式的计算功能(@Cached内的condition、@CacheKey内的spel只是作为一个增值服务, 并不作为核心功能, 只是作为key拼装的一个亮点, 并不是必须功能)
  *
@@ -40,14 +46,48 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  */
 public class SpelCalculator {
 
-    private static final ExpressionParser parser = new SpelExpressionParser();
+    /**
+     * MIXED模式下表达式多次执行后会被编译为字节码, 编译失败时自动退回解释执行
+     */
+    private static final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelCalculator.class.getClassLoader()));
+
+    private static final ConcurrentMap<String, Expression> expressions = new ConcurrentHashMap<>();
 
     public static Object calcSpelValueWithContext(String spel, String[] argNames, Object[] argValues, Object defaultValue) {
         if (StringKit.isEmpty(spel)) {
             return defaultValue;
         }
 
-        // 将[参数名->参数值]导入spel环境
+        return parseExpression(spel).getValue(newContext(argNames, argValues));
+    }
+
+    public static Object calcSpelWithNoContext(String spel, Object defaultValue) {
+        if (StringKit.isEmpty(spel)) {
+            return defaultValue;
+        }
+
+        return parseExpression(spel).getValue(defaultValue);
+    }
+
+    /**
+     * 解析表达式, 同一表达式只解析一次
+     *
+     * @param spel 表达式
+     * @return 解析后的表达式
+     */
+    public static Expression parseExpression(String spel) {
+        return expressions.computeIfAbsent(spel, parser::parseExpression);
+    }
+
+    /**
+     * 将[参数名->参数值]导入spel环境
+     *
+     * @param argNames  参数名
+     * @param argValues 参数值
+     * @return spel环境
+     */
+    public static EvaluationContext newContext(String[] argNames, Object[] argValues) {
         EvaluationContext context = new StandardEvaluationContext();
 
         Assert.isTrue(argNames.length == argValues.length);
@@ -61,15 +101,7 @@ public class SpelCalculator {
             context.setVariable(xArgNames[i], argValues[i]);
         }
 
-        return parser.parseExpression(spel).getValue(context);
-    }
-
-    public static Object calcSpelWithNoContext(String spel, Object defaultValue) {
-        if (StringKit.isEmpty(spel)) {
-            return defaultValue;
-        }
-
-        return parser.parseExpression(spel).getValue(defaultValue);
+        return context;
     }
 
 }
@@ -0,0 +1,123 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.io;
+
+import org.aoju.bus.core.io.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segment池基准, 对比分桶池与按类加锁的单链表池在多线程下的取还开销
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=LifeCycleBenchmark
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LifeCycleBenchmark {
+
+    @Benchmark
+    public Segment takeRecycle() {
+        Segment segment = LifeCycle.take();
+        LifeCycle.recycle(segment);
+        return segment;
+    }
+
+    @Benchmark
+    public Segment takeRecycleLocked() {
+        Segment segment = LockedPool.take();
+        LockedPool.recycle(segment);
+        return segment;
+    }
+
+    /**
+     * 经由{@link Buffer}写入并读出一段跨Segment的数据
+     */
+    @Benchmark
+    public byte[] bufferWriteRead(Payload payload) {
+        Buffer buffer = new Buffer();
+        buffer.write(payload.data);
+        return buffer.readByteArray();
+    }
+
+    @State(Scope.Thread)
+    public static class Payload {
+
+        @Param({"1024", "32768"})
+        public int size;
+
+        public byte[] data;
+
+        @Setup
+        public void setup() {
+            data = new byte[size];
+        }
+
+    }
+
+    /**
+     * 分桶之前的实现: 单链表, 取还均在类上同步
+     */
+    static final class LockedPool {
+
+        static Segment next;
+
+        static long byteCount;
+
+        static Segment take() {
+            synchronized (LockedPool.class) {
+                if (null != next) {
+                    Segment result = next;
+                    next = result.next;
+                    result.next = null;
+                    byteCount -= Segment.SIZE;
+                    return result;
+                }
+            }
+            return new Segment();
+        }
+
+        static void recycle(Segment segment) {
+            if (segment.shared) return;
+            synchronized (LockedPool.class) {
+                if (byteCount + Segment.SIZE > LifeCycle.MAX_SIZE) return;
+                byteCount += Segment.SIZE;
+                segment.next = next;
+                segment.pos = segment.limit = 0;
+                next = segment;
+            }
+        }
+
+    }
+
+}
@@ -71,6 +71,11 @@ public class BeanToBeanCopier<S, T> extends AbstractCopier<S, T> {
                     "Target class [{}] not assignable to Editable class [{}]", actualEditable.getName(), copyOptions.editable.getName());
             actualEditable = copyOptions.editable;
         }
+        if (copyOptions.compiled && null == copyOptions.fieldEditor) {
+            // 无字段编辑时属性对应关系固定，使用缓存的拷贝计划
+            return CompiledCopier.of(source.getClass(), actualEditable, this.targetType, this.copyOptions)
+                    .copy(this.source, this.target, this.copyOptions);
+        }
         final Map<String, PropertyDesc> targetPropDescMap = BeanKit.getBeanDesc(actualEditable).getPropMap(copyOptions.ignoreCase);
         final Map<String, PropertyDesc> sourcePropDescMap = BeanKit.getBeanDesc(source.getClass()).getPropMap(copyOptions.ignoreCase);
         sourcePropDescMap.forEach((sFieldName, sDesc) -> {
@@ -0,0 +1,279 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.beans.copier;
+
+import org.aoju.bus.core.beans.PropertyDesc;
+import org.aoju.bus.core.convert.Convert;
+import org.aoju.bus.core.exception.InternalException;
+import org.aoju.bus.core.map.WeakMap;
+import org.aoju.bus.core.toolkit.BeanKit;
+import org.aoju.bus.core.toolkit.LambdaKit;
+import org.aoju.bus.core.toolkit.TypeKit;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 预编译的Bean拷贝计划
+ * 按(源类型,目标类型,拷贝选项中影响属性匹配的部分)缓存属性对，
+ * Getter/Setter通过{@link java.lang.invoke.LambdaMetafactory}生成直接调用，
+ * 拷贝时只需遍历属性对，无需再查找属性、判断可读写及解析泛型
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+final class CompiledCopier {
+
+    /**
+     * 缓存，源类型为弱引用键
+     */
+    private static final WeakMap<Class<?>, Map<Shape, CompiledCopier>> CACHE = new WeakMap<>();
+
+    /**
+     * 属性对
+     */
+    private final Pair[] pairs;
+
+    private CompiledCopier(final Pair[] pairs) {
+        this.pairs = pairs;
+    }
+
+    /**
+     * 获取拷贝计划，不存在时创建
+     *
+     * @param sourceClass 源类型
+     * @param editable    目标类型或限制类
+     * @param targetType  目标泛型类型
+     * @param copyOptions 拷贝选项
+     * @return 拷贝计划
+     */
+    static CompiledCopier of(final Class<?> sourceClass, final Class<?> editable,
+                             final Type targetType, final CopyOptions copyOptions) {
+        final Shape shape = new Shape(editable, targetType, copyOptions.ignoreCase, copyOptions.transientSupport);
+        return CACHE.computeIfAbsent(sourceClass, (key) -> new ConcurrentHashMap<>())
+                .computeIfAbsent(shape, (key) -> compile(sourceClass, key));
+    }
+
+    /**
+     * 解析源与目标的属性对
+     *
+     * @param sourceClass 源类型
+     * @param shape       拷贝形态
+     * @return 拷贝计划
+     */
+    private static CompiledCopier compile(final Class<?> sourceClass, final Shape shape) {
+        final Map<String, PropertyDesc> targetPropDescMap = BeanKit.getBeanDesc(shape.editable).getPropMap(shape.ignoreCase);
+        final Map<String, PropertyDesc> sourcePropDescMap = BeanKit.getBeanDesc(sourceClass).getPropMap(shape.ignoreCase);
+        final List<Pair> pairs = new ArrayList<>(sourcePropDescMap.size());
+        sourcePropDescMap.forEach((sFieldName, sDesc) -> {
+            if (null == sFieldName || false == sDesc.isReadable(shape.transientSupport)) {
+                return;
+            }
+            final PropertyDesc tDesc = targetPropDescMap.get(sFieldName);
+            if (null == tDesc || false == tDesc.isWritable(shape.transientSupport)) {
+                return;
+            }
+            pairs.add(new Pair(sDesc, tDesc, TypeKit.getActualType(shape.targetType, tDesc.getFieldType())));
+        });
+        return new CompiledCopier(pairs.toArray(new Pair[0]));
+    }
+
+    /**
+     * 构建Getter，无法生成Lambda时退回属性描述的反射调用
+     *
+     * @param desc 属性描述
+     * @return Getter
+     */
+    private static Function<Object, Object> getter(final PropertyDesc desc) {
+        final Method method = desc.getGetter();
+        if (null != method) {
+            try {
+                return LambdaKit.buildGetter(method);
+            } catch (final Exception e) {
+                // 退回反射
+            }
+        }
+        return desc::getValue;
+    }
+
+    /**
+     * 构建Setter，无法生成Lambda时退回属性描述的反射调用
+     *
+     * @param desc 属性描述
+     * @return Setter
+     */
+    private static BiConsumer<Object, Object> setter(final PropertyDesc desc) {
+        final Method method = desc.getSetter();
+        if (null != method) {
+            try {
+                return LambdaKit.buildSetter(method);
+            } catch (final Exception e) {
+                // 退回反射
+            }
+        }
+        return desc::setValue;
+    }
+
+    /**
+     * 执行拷贝，语义与{@link BeanToBeanCopier}的反射拷贝一致
+     *
+     * @param source      源对象
+     * @param target      目标对象
+     * @param copyOptions 拷贝选项
+     * @param <T>         目标类型
+     * @return 目标对象
+     */
+    <T> T copy(final Object source, final T target, final CopyOptions copyOptions) {
+        for (final Pair pair : this.pairs) {
+            Object value = pair.getter.apply(source);
+            if (false == copyOptions.testPropertyFilter(pair.field, value)) {
+                continue;
+            }
+            value = copyOptions.convertField(pair.fieldType, value);
+            pair.setValue(target, value, copyOptions.ignoreNullValue, copyOptions.ignoreError, copyOptions.override);
+        }
+        return target;
+    }
+
+    /**
+     * 拷贝形态，决定属性对的匹配结果
+     */
+    private static final class Shape {
+
+        private final Class<?> editable;
+        private final Type targetType;
+        private final boolean ignoreCase;
+        private final boolean transientSupport;
+
+        Shape(final Class<?> editable, final Type targetType, final boolean ignoreCase, final boolean transientSupport) {
+            this.editable = editable;
+            this.targetType = targetType;
+            this.ignoreCase = ignoreCase;
+            this.transientSupport = transientSupport;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (false == o instanceof Shape) {
+                return false;
+            }
+            final Shape that = (Shape) o;
+            return this.editable == that.editable
+                    && this.ignoreCase == that.ignoreCase
+                    && this.transientSupport == that.transientSupport
+                    && Objects.equals(this.targetType, that.targetType);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = this.editable.hashCode();
+            result = 31 * result + Objects.hashCode(this.targetType);
+            result = 31 * result + (this.ignoreCase ? 1 : 0);
+            return 31 * result + (this.transientSupport ? 1 : 0);
+        }
+    }
+
+    /**
+     * 源属性与目标属性的对应关系
+     */
+    private static final class Pair {
+
+        /**
+         * 源字段，用于属性过滤
+         */
+        private final Field field;
+        /**
+         * 源Getter
+         */
+        private final Function<Object, Object> getter;
+        /**
+         * 目标属性
+         */
+        private final PropertyDesc desc;
+        /**
+         * 目标Getter，非覆盖模式下使用
+         */
+        private final Function<Object, Object> targetGetter;
+        /**
+         * 目标Setter
+         */
+        private final BiConsumer<Object, Object> setter;
+        /**
+         * 目标字段真实类型
+         */
+        private final Type fieldType;
+        /**
+         * 目标字段类
+         */
+        private final Class<?> fieldClass;
+
+        Pair(final PropertyDesc source, final PropertyDesc target, final Type fieldType) {
+            this.field = source.getField();
+            this.getter = getter(source);
+            this.desc = target;
+            this.targetGetter = getter(target);
+            this.setter = setter(target);
+            this.fieldType = fieldType;
+            this.fieldClass = target.getFieldClass();
+        }
+
+        /**
+         * 设置属性值，同{@link PropertyDesc#setValue(Object, Object, boolean, boolean, boolean)}
+         */
+        void setValue(final Object bean, Object value, final boolean ignoreNull, final boolean ignoreError, final boolean override) {
+            if (null == value && ignoreNull) {
+                return;
+            }
+            if (false == override && null != this.targetGetter.apply(bean)) {
+                return;
+            }
+            if (null != value && false == this.fieldClass.isInstance(value)) {
+                value = Convert.convertWithCheck(this.fieldClass, value, null, ignoreError);
+            }
+            if (null != value || false == ignoreNull) {
+                try {
+                    this.setter.accept(bean, value);
+                } catch (final Exception e) {
+                    if (false == ignoreError) {
+                        throw new InternalException("Set value of [{}] error!", this.desc.getFieldName());
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -83,6 +83,11 @@ public class CopyOptions implements Serializable {
      * 是否覆盖目标值，如果不覆盖，会先读取目标对象的值，为{@code null}则写，否则忽略。如果覆盖，则不判断直接写
      */
     protected boolean override = true;
+    /**
+     * 是否使用预编译的拷贝计划，开启后Bean之间的拷贝按(源类型,目标类型,选项)缓存属性访问器，
+     * 设置了字段编辑器时自动退回反射拷贝
+     */
+    protected boolean compiled = true;
     /**
      * 自定义类型转换器，默认使用全局万能转换器转换
      */
@@ -306,6 +311,17 @@ public class CopyOptions implements Serializable {
         return this;
     }
 
+    /**
+     * 设置是否使用预编译的拷贝计划，关闭后每次拷贝均通过反射逐个解析属性
+     *
+     * @param compiled 是否使用预编译的拷贝计划
+     * @return this
+     */
+    public CopyOptions setCompiled(final boolean compiled) {
+        this.compiled = compiled;
+        return this;
+    }
+
     /**
      * 设置自定义类型转换器，默认使用全局万能转换器转换。
      *
@@ -27,9 +27,14 @@ package org.aoju.bus.core.io;
 
 import org.aoju.bus.core.lang.Normal;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * 这是避免GC搅动和零填充所必需的
  * 这个池是一个线程安全的静态单例
+ * 按线程散列到多个桶以减少竞争, 桶满时放入共享的溢出桶, 桶为空时从溢出桶获取;
+ * 每个桶的链表头以{@link Segment#limit}记录该桶缓存的字节数
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -37,48 +42,138 @@ import org.aoju.bus.core.lang.Normal;
 public final class LifeCycle {
 
     /**
-     * The maximum number of bytes to pool
+     * The maximum number of bytes to pool per bucket
      * 64 KiB
      */
     public static final long MAX_SIZE = Normal._64 * Normal._1024;
 
     /**
-     * Singly-linked list of segments
+     * 每个桶缓存的最大字节数, 可通过系统属性{@code bus.io.pool.size}配置
      */
-    public static Segment next;
+    private static final long POOL_SIZE = Long.getLong("bus.io.pool.size", MAX_SIZE);
 
     /**
-     * Total bytes in this pool
+     * 桶数量, 为2的幂, 不少于CPU核数
      */
-    public static long byteCount;
+    private static final int BUCKET_COUNT = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+    /**
+     * 占位Segment, 表示该桶正被其他线程操作
+     */
+    private static final Segment LOCK = new Segment(new byte[0], 0, 0, false, false);
+
+    private static final AtomicReference<Segment>[] BUCKETS = newBuckets();
+
+    private static final AtomicReference<Segment> OVERFLOW = new AtomicReference<>();
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
 
     public LifeCycle() {
 
     }
 
     public static Segment take() {
-        synchronized (LifeCycle.class) {
-            if (null != next) {
-                Segment result = next;
-                next = result.next;
-                result.next = null;
-                byteCount -= Segment.SIZE;
-                return result;
-            }
+        Segment result = poll(bucket());
+        if (null == result) {
+            result = poll(OVERFLOW);
         }
-        return new Segment(); // Pool is empty. Don't zero-fill while holding a lock.
+        if (null == result) {
+            MISSES.increment();
+            return new Segment(); // Pool is empty. Don't zero-fill while holding a lock.
+        }
+        HITS.increment();
+        return result;
     }
 
     public static void recycle(Segment segment) {
         if (segment.next != null || segment.prev != null) throw new IllegalArgumentException();
         if (segment.shared) return; // This segment cannot be recycled.
-        synchronized (LifeCycle.class) {
-            if (byteCount + Segment.SIZE > MAX_SIZE) return; // Pool is full.
-            byteCount += Segment.SIZE;
-            segment.next = next;
-            segment.pos = segment.limit = 0;
-            next = segment;
+        if (!offer(bucket(), segment)) {
+            offer(OVERFLOW, segment);
+        }
+    }
+
+    /**
+     * @return 池中缓存的字节数
+     */
+    public static long byteCount() {
+        long count = byteCount(OVERFLOW);
+        for (AtomicReference<Segment> bucket : BUCKETS) {
+            count += byteCount(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * @return 从池中取得Segment的次数
+     */
+    public static long hitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return 池中无可用Segment而新建的次数
+     */
+    public static long missCount() {
+        return MISSES.sum();
+    }
+
+    private static Segment poll(AtomicReference<Segment> bucket) {
+        Segment first = bucket.getAndSet(LOCK);
+        if (first == LOCK) {
+            // 其他线程正在操作该桶, 视为空桶
+            return null;
+        }
+        if (null == first) {
+            bucket.set(null);
+            return null;
+        }
+
+        bucket.set(first.next);
+        first.next = null;
+        first.limit = 0;
+        return first;
+    }
+
+    private static boolean offer(AtomicReference<Segment> bucket, Segment segment) {
+        Segment first = bucket.getAndSet(LOCK);
+        if (first == LOCK) {
+            // 其他线程正在操作该桶, 交由溢出桶回收
+            return false;
+        }
+        int firstLimit = null != first ? first.limit : 0;
+        if (firstLimit + Segment.SIZE > POOL_SIZE) {
+            // Pool is full.
+            bucket.set(first);
+            return false;
+        }
+
+        segment.next = first;
+        segment.pos = 0;
+        segment.limit = firstLimit + Segment.SIZE;
+        bucket.set(segment);
+        return true;
+    }
+
+    private static long byteCount(AtomicReference<Segment> bucket) {
+        Segment first = bucket.get();
+        return null == first || first == LOCK ? 0 : first.limit;
+    }
+
+    private static AtomicReference<Segment> bucket() {
+        int index = (int) (Thread.currentThread().getId() & (BUCKET_COUNT - 1));
+        return BUCKETS[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReference<Segment>[] newBuckets() {
+        AtomicReference<Segment>[] buckets = (AtomicReference<Segment>[]) new AtomicReference<?>[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            buckets[i] = new AtomicReference<>();
         }
+        return buckets;
     }
 
 }
@@ -30,6 +30,7 @@ import org.aoju.bus.core.toolkit.StringKit;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 分布式自增Id生成器（基于Twitter的Snowflake算法实现分布式高效有序ID）
@@ -46,6 +47,8 @@ import java.util.Date;
  * SnowFlake的优点是，整体上按照时间自增排序，并且整个分布式系统内不会产生ID碰撞(由数据中心ID和机器ID作区分)，并且效率较高，
  * 经测试，SnowFlake每秒能够产生26万ID左右
  * </pre>
+ * 生成状态(时间差与序列号)打包在一个{@link AtomicLong}中，通过CAS无锁推进；
+ * 开启借用模式后，毫秒内序列耗尽时直接借用下一毫秒，而不是自旋等待时钟前进
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -91,6 +94,10 @@ public class Snowflake implements Serializable {
      * 序列掩码，用于限定序列最大值不能超过4095
      */
     private static final long SEQUENCE_MASK = -1L ^ (-1L << SEQUENCE_BITS);
+    /**
+     * 容忍的时钟回拨及借用未来时间的最大毫秒数
+     */
+    private static final long TOLERANCE = 2000L;
 
     /**
      * 起始时间戳，用于用当前时间戳减去这个时间戳，算出偏移量
@@ -99,8 +106,14 @@ public class Snowflake implements Serializable {
     private final long workerId;
     private final long dataCenterId;
     private final boolean isClock;
-    private long sequence = 0L;
-    private long lastTimestamp = -1L;
+    /**
+     * 是否在序列耗尽时借用未来的毫秒
+     */
+    private final boolean borrow;
+    /**
+     * 生成状态：高位为上次的时间差，低12位为上次使用的序列号
+     */
+    private final AtomicLong state = new AtomicLong(SEQUENCE_MASK);
 
     /**
      * 构造，使用自动生成的工作节点ID和数据中心ID
@@ -146,6 +159,17 @@ public class Snowflake implements Serializable {
      * @param isClock      是否使用{@link NonClock} 获取当前时间戳
      */
     public Snowflake(Date epochDate, long workerId, long dataCenterId, boolean isClock) {
+        this(epochDate, workerId, dataCenterId, isClock, false);
+    }
+
+    /**
+     * @param epochDate    初始化时间起点(null表示默认起始日期),后期修改会导致id重复,如果要修改连workerId dataCenterId，慎用
+     * @param workerId     工作机器节点id
+     * @param dataCenterId 数据中心id
+     * @param isClock      是否使用{@link NonClock} 获取当前时间戳
+     * @param borrow       毫秒内序列耗尽时是否借用未来的毫秒，借用不超过{@value #TOLERANCE}毫秒
+     */
+    public Snowflake(Date epochDate, long workerId, long dataCenterId, boolean isClock, boolean borrow) {
         if (null != epochDate) {
             this.startTime = epochDate.getTime();
         } else {
@@ -160,6 +184,7 @@ public class Snowflake implements Serializable {
         this.workerId = workerId;
         this.dataCenterId = dataCenterId;
         this.isClock = isClock;
+        this.borrow = borrow;
     }
 
     /**
@@ -197,57 +222,92 @@ public class Snowflake implements Serializable {
      *
      * @return ID
      */
-    public synchronized long nextId() {
-        long timestamp = genTime();
+    public long nextId() {
+        final long reserved = reserve(1);
+        return compose(reserved >>> SEQUENCE_BITS, reserved & SEQUENCE_MASK);
+    }
 
-        // 闰秒：如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
-        if (timestamp < lastTimestamp) {
-            if (lastTimestamp - timestamp < 2000) {
-                // 容忍2秒内的回拨，避免NTP校时造成的异常
-                timestamp = lastTimestamp;
-            } else {
-                // 如果服务器时间有问题(时钟后退) 报错。
-                throw new IllegalStateException(StringKit.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
-            }
+    /**
+     * 批量获取ID，每次CAS预留当前毫秒内尽可能多的序列号
+     *
+     * @param n 数量
+     * @return 递增的ID数组
+     */
+    public long[] nextIds(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException(StringKit.format("Count {} must be positive", n));
         }
-
-        // 解决跨毫秒生成ID序列号始终为偶数的缺陷:如果是同一时间生成的，则进行毫秒内序列
-        if (timestamp == lastTimestamp) {
-            // 通过位与运算保证计算的结果范围始终是 0-4095
-            sequence = (sequence + 1) & SEQUENCE_MASK;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+        final long[] ids = new long[n];
+        int index = 0;
+        while (index < n) {
+            final long reserved = reserve(n - index);
+            final long time = reserved >>> SEQUENCE_BITS;
+            final long from = reserved & SEQUENCE_MASK;
+            final long to = Math.min(SEQUENCE_MASK, from + n - index - 1);
+            for (long sequence = from; sequence <= to; sequence++) {
+                ids[index++] = compose(time, sequence);
             }
-        } else {
-            // 时间戳改变，毫秒内序列重置
-            sequence = 0L;
         }
+        return ids;
+    }
 
-        lastTimestamp = timestamp;
+    /**
+     * 预留序列号
+     * 实际预留的数量为 min(n, 4096 - 起始序列号)
+     *
+     * @param n 期望数量
+     * @return 打包的时间差与起始序列号
+     */
+    private long reserve(int n) {
+        while (true) {
+            final long prev = state.get();
+            final long last = prev >>> SEQUENCE_BITS;
+            final long sequence = prev & SEQUENCE_MASK;
+            final long now = genTime() - startTime;
 
-        /*
-         * 1.左移运算是为了将数值移动到对应的段(41、5、5，12那段因为本来就在最右，因此不用左移)
-         * 2.然后对每个左移后的值(la、lb、lc、sequence)做位或运算，是为了把各个短的数据合并起来，合并成一个二进制数
-         * 3.最后转换成10进制，就是最终生成的id
-         */
-        return ((timestamp - startTime) << TIMESTAMP_LEFT_SHIFT) |
-                (dataCenterId << DATA_CENTER_ID_SHIFT) |
-                (workerId << WORKER_ID_SHIFT) |
-                sequence;
+            long time;
+            long from;
+            if (now > last) {
+                // 时间戳改变，毫秒内序列重置
+                time = now;
+                from = 0L;
+            } else if (last - now >= TOLERANCE) {
+                // 如果服务器时间有问题(时钟后退) 报错
+                throw new IllegalStateException(StringKit.format("Clock moved backwards. Refusing to generate id for {}ms", last - now));
+            } else if (sequence < SEQUENCE_MASK) {
+                // 同一毫秒或容忍2秒内的回拨，继续毫秒内序列
+                time = last;
+                from = sequence + 1;
+            } else if (borrow && last + 1 - now < TOLERANCE) {
+                // 序列耗尽，借用下一毫秒
+                time = last + 1;
+                from = 0L;
+            } else {
+                // 序列耗尽，等待下一毫秒
+                Thread.onSpinWait();
+                continue;
+            }
+
+            final long to = Math.min(SEQUENCE_MASK, from + n - 1);
+            if (state.compareAndSet(prev, (time << SEQUENCE_BITS) | to)) {
+                return (time << SEQUENCE_BITS) | from;
+            }
+        }
     }
 
     /**
-     * 保证返回的毫秒数在参数之后(阻塞到下一个毫秒，直到获得新的时间戳)
+     * 组装ID
+     * 左移运算是为了将数值移动到对应的段，然后对每个左移后的值做位或运算，合并成一个二进制数
      *
-     * @param lastTimestamp 上次记录的时间
-     * @return 下一个时间
+     * @param time     与起始时间的差值
+     * @param sequence 序列号
+     * @return ID
      */
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = genTime();
-        while (timestamp <= lastTimestamp) {
-            timestamp = genTime();
-        }
-        return timestamp;
+    private long compose(long time, long sequence) {
+        return (time << TIMESTAMP_LEFT_SHIFT) |
+                (dataCenterId << DATA_CENTER_ID_SHIFT) |
+                (workerId << WORKER_ID_SHIFT) |
+                sequence;
     }
 
     /**
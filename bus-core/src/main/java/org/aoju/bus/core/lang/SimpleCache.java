@@ -26,22 +26,21 @@
 package org.aoju.bus.core.lang;
 
 import org.aoju.bus.core.lang.function.XSupplier;
-import org.aoju.bus.core.lang.mutable.MutableObject;
+import org.aoju.bus.core.map.ReferenceMap;
+import org.aoju.bus.core.map.SafeHashMap;
 import org.aoju.bus.core.map.WeakMap;
 
 import java.io.Serializable;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 
 /**
- * 简单缓存,无超时实现,使用{@link WeakMap}实现缓存自动清理
+ * 简单缓存,无超时实现,默认使用{@link WeakMap}实现缓存自动清理
+ * 读取为无锁操作，未命中时同一个键只有一个线程执行加载，其它线程等待其结果；
+ * 可选设置容量上限，超出后按{@link Policy}批量淘汰
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -53,49 +52,74 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
     private static final long serialVersionUID = 1L;
 
     /**
-     * 写的时候每个key一把锁，降低锁的粒度
+     * 缓存池
      */
-    protected final Map<K, Lock> keyLockMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, Node<V>> cache;
     /**
-     * 缓存池
+     * 容量上限，小于等于0表示不限制
+     */
+    private final int maximumSize;
+    /**
+     * 淘汰策略
      */
-    private final Map<K, V> cache;
+    private final Policy policy;
     /**
-     * 乐观读写锁
+     * 淘汰锁，同一时间只有一个线程执行淘汰
      */
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock evictLock = new ReentrantLock();
 
     /**
-     * 构造，默认使用{@link WeakHashMap}实现缓存自动清理
+     * 构造，默认使用{@link WeakMap}实现缓存自动清理
      */
     public SimpleCache() {
-        this(new WeakMap<>());
+        this(References.Type.WEAK, 0, Policy.LRU);
     }
 
     /**
-     * 通过自定义Map初始化，可以自定义缓存实现
-     * 比如使用{@link WeakHashMap}则会自动清理key，使用HashMap则不会清理
+     * 通过自定义Map初始化
+     * 传入{@link WeakMap}或其它{@link ReferenceMap}时键使用对应的引用类型，其它Map使用强引用，
      * 同时，传入的Map对象也可以自带初始化的键值对，防止在get时创建
      *
      * @param initMap 初始Map，用于定义Map类型
      */
     public SimpleCache(Map<K, V> initMap) {
-        this.cache = initMap;
+        this(initMap instanceof WeakMap ? References.Type.WEAK
+                : initMap instanceof ReferenceMap ? References.Type.SOFT : null, 0, Policy.LRU);
+        initMap.forEach(this::put);
     }
 
     /**
-     * 从缓存池中查找值
+     * 构造
+     *
+     * @param keyType     键的引用类型，{@code null}表示强引用，支持{@link References.Type#WEAK}和{@link References.Type#SOFT}
+     * @param maximumSize 容量上限，小于等于0表示不限制
+     * @param policy      超出容量上限时的淘汰策略
+     */
+    public SimpleCache(References.Type keyType, int maximumSize, Policy policy) {
+        if (null == keyType) {
+            this.cache = new ConcurrentHashMap<>();
+        } else if (References.Type.WEAK == keyType) {
+            this.cache = new WeakMap<>();
+        } else {
+            this.cache = new ReferenceMap<>(new SafeHashMap<>(), keyType);
+        }
+        this.maximumSize = maximumSize;
+        this.policy = null == policy ? Policy.LRU : policy;
+    }
+
+    /**
+     * 从缓存池中查找值，正在加载中的值视为不存在
      *
      * @param key 键
      * @return 值
      */
     public V get(K key) {
-        lock.readLock().lock();
-        try {
-            return cache.get(MutableObject.of(key));
-        } finally {
-            lock.readLock().unlock();
+        final Node<V> node = cache.get(key);
+        if (null == node || false == node.done) {
+            return null;
         }
+        touch(node);
+        return node.value;
     }
 
     /**
@@ -118,28 +142,32 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
      * @return 值对象
      */
     public V get(K key, Predicate<V> validPredicate, XSupplier<V> supplier) {
-        V v = get(key);
-        if ((null != validPredicate && null != v && false == validPredicate.test(v))) {
-            v = null;
+        if (null == supplier) {
+            final V v = get(key);
+            return (null != v && null != validPredicate && false == validPredicate.test(v)) ? null : v;
         }
-        if (null == v && null != supplier) {
-            //每个key单独获取一把锁，降低锁的粒度提高并发能力，see pr#1385@Github
-            final Lock keyLock = keyLockMap.computeIfAbsent(key, k -> new ReentrantLock());
-            keyLock.lock();
-            try {
-                // 双重检查，防止在竞争锁的过程中已经有其它线程写入
-                v = get(key);
-                if (null == v || (null != validPredicate && false == validPredicate.test(v))) {
-                    v = supplier.get();
-                    put(key, v);
+        while (true) {
+            final Node<V> node = cache.get(key);
+            final Node<V> loading;
+            if (null == node) {
+                loading = new Node<>();
+                if (null != cache.putIfAbsent(key, loading)) {
+                    continue;
+                }
+            } else {
+                // 加载中则等待其它线程的结果
+                final V v = node.await();
+                if (null != v && (null == validPredicate || validPredicate.test(v))) {
+                    touch(node);
+                    return v;
+                }
+                loading = new Node<>();
+                if (false == cache.replace(key, node, loading)) {
+                    continue;
                 }
-            } finally {
-                keyLock.unlock();
-                keyLockMap.remove(key);
             }
+            return load(key, loading, supplier);
         }
-
-        return v;
     }
 
     /**
@@ -150,12 +178,11 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
      * @return 值
      */
     public V put(K key, V value) {
-        lock.writeLock().lock();
-        try {
-            cache.put(key, value);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        final Node<V> node = new Node<>();
+        node.complete(value);
+        touch(node);
+        cache.put(key, node);
+        evict();
         return value;
     }
 
@@ -166,29 +193,185 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
      * @return 移除的值
      */
     public V remove(K key) {
-        lock.writeLock().lock();
+        final Node<V> node = cache.remove(key);
+        return null == node ? null : node.value;
+    }
+
+    /**
+     * 清空缓存池
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * 缓存中的对象数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        final Iterator<Map.Entry<K, Node<V>>> iterator = this.cache.entrySet().iterator();
+        return new Iterator<>() {
+
+            private Map.Entry<K, Node<V>> current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                current = iterator.next();
+                return new AbstractMap.SimpleImmutableEntry<>(current.getKey(), current.getValue().value);
+            }
+
+            @Override
+            public void remove() {
+                if (null == current) {
+                    throw new IllegalStateException();
+                }
+                cache.remove(current.getKey(), current.getValue());
+                current = null;
+            }
+        };
+    }
+
+    /**
+     * 执行加载，加载失败或结果为{@code null}时移除占位节点
+     *
+     * @param key      键
+     * @param node     占位节点
+     * @param supplier 值生产者
+     * @return 值
+     */
+    private V load(K key, Node<V> node, XSupplier<V> supplier) {
+        V value = null;
         try {
-            return cache.remove(key);
+            value = supplier.get();
         } finally {
-            lock.writeLock().unlock();
+            if (null == value) {
+                cache.remove(key, node);
+            }
+            node.complete(value);
         }
+        touch(node);
+        evict();
+        return value;
     }
 
     /**
-     * 清空缓存池
+     * 记录访问
+     *
+     * @param node 节点
      */
-    public void clear() {
-        lock.writeLock().lock();
+    private void touch(Node<V> node) {
+        if (maximumSize > 0) {
+            node.access = java.lang.System.nanoTime();
+            if (Policy.LFU == policy) {
+                node.hits++;
+            }
+        }
+    }
+
+    /**
+     * 超出容量上限时淘汰，每次淘汰到上限的7/8，摊薄扫描开销
+     */
+    private void evict() {
+        if (maximumSize <= 0 || cache.size() <= maximumSize || false == evictLock.tryLock()) {
+            return;
+        }
         try {
-            this.cache.clear();
+            final int excess = cache.size() - maximumSize + (maximumSize >>> 3);
+            if (excess <= 0) {
+                return;
+            }
+            final List<Map.Entry<K, Node<V>>> candidates = new ArrayList<>(cache.size());
+            for (final Map.Entry<K, Node<V>> entry : cache.entrySet()) {
+                if (null != entry.getKey() && entry.getValue().done) {
+                    candidates.add(entry);
+                }
+            }
+            final Comparator<Map.Entry<K, Node<V>>> byAccess = Comparator.comparingLong(entry -> entry.getValue().access);
+            candidates.sort(Policy.LFU == policy
+                    ? Comparator.<Map.Entry<K, Node<V>>>comparingInt(entry -> entry.getValue().hits).thenComparing(byAccess)
+                    : byAccess);
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                final Map.Entry<K, Node<V>> entry = candidates.get(i);
+                cache.remove(entry.getKey(), entry.getValue());
+            }
         } finally {
-            lock.writeLock().unlock();
+            evictLock.unlock();
         }
     }
 
-    @Override
-    public Iterator<Map.Entry<K, V>> iterator() {
-        return this.cache.entrySet().iterator();
+    /**
+     * 淘汰策略
+     */
+    public enum Policy {
+        /**
+         * 最近最少使用
+         */
+        LRU,
+        /**
+         * 最不经常使用
+         */
+        LFU
+    }
+
+    /**
+     * 缓存节点，加载完成前作为占位，访问信息为近似值
+     *
+     * @param <V> 值类型
+     */
+    private static class Node<V> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private volatile V value;
+        private volatile boolean done;
+        private long access;
+        private int hits;
+
+        /**
+         * 等待加载完成
+         *
+         * @return 值，加载失败为{@code null}
+         */
+        V await() {
+            if (false == done) {
+                boolean interrupted = false;
+                synchronized (this) {
+                    while (false == done) {
+                        try {
+                            wait();
+                        } catch (final InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return value;
+        }
+
+        /**
+         * 完成加载并唤醒等待者
+         *
+         * @param value 值
+         */
+        synchronized void complete(V value) {
+            this.value = value;
+            this.done = true;
+            notifyAll();
+        }
     }
 
 }
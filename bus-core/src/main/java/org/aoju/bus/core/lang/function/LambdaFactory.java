@@ -3,9 +3,9 @@ package org.aoju.bus.core.lang.function;
 import org.aoju.bus.core.exception.InternalException;
 import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.lang.Optional;
+import org.aoju.bus.core.lang.SimpleCache;
 import org.aoju.bus.core.lang.mutable.MutableEntry;
 import org.aoju.bus.core.lang.reflect.LookupFactory;
-import org.aoju.bus.core.map.WeakMap;
 import org.aoju.bus.core.toolkit.ReflectKit;
 
 import java.io.Serializable;
@@ -14,7 +14,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import static java.lang.invoke.LambdaMetafactory.FLAG_SERIALIZABLE;
@@ -28,7 +27,10 @@ import static java.lang.invoke.MethodType.methodType;
  */
 public class LambdaFactory {
 
-    private static final Map<MutableEntry<Class<?>, Method>, Object> CACHE = new WeakMap<>();
+    /**
+     * 缓存，键为每次新建的{@link MutableEntry}，故使用强引用并限制容量
+     */
+    private static final SimpleCache<MutableEntry<Class<?>, Method>, Object> CACHE = new SimpleCache<>(null, 2048, SimpleCache.Policy.LRU);
 
 
     private LambdaFactory() throws IllegalAccessException {
@@ -72,7 +74,7 @@ public class LambdaFactory {
         Assert.notNull(method);
         final MutableEntry<Class<?>, Method> cacheKey = new MutableEntry<>(functionInterfaceType, method);
         //noinspection unchecked
-        return (F) CACHE.computeIfAbsent(cacheKey, key -> {
+        return (F) CACHE.get(cacheKey, () -> {
             final List<Method> abstractMethods = Arrays.stream(functionInterfaceType.getMethods())
                     .filter(m -> Modifier.isAbstract(m.getModifiers()))
                     .collect(Collectors.toList());
@@ -0,0 +1,195 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.bloom;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的位数组, 以long为单位CAS更新, 位下标为long
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+abstract class BitArray {
+
+    /**
+     * 创建堆内位数组
+     *
+     * @param bitSize 位数
+     * @return 位数组
+     */
+    static BitArray of(long bitSize) {
+        return new Heap(words(bitSize));
+    }
+
+    /**
+     * 基于直接内存或内存映射文件的位数组, 按小端序存储
+     *
+     * @param buffer 缓冲区, 须为直接缓冲区, 容量为8的倍数
+     * @return 位数组
+     */
+    static BitArray of(ByteBuffer buffer) {
+        return new Buffer(buffer);
+    }
+
+    /**
+     * 计算容纳指定位数所需的直接内存字节数, 受{@link ByteBuffer}容量限制
+     *
+     * @param bitSize 位数
+     * @return 字节数
+     */
+    static int bytes(long bitSize) {
+        long bytes = (long) words(bitSize) << 3;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bit size too large for direct buffer: " + bitSize);
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * 计算容纳指定位数所需的long数量
+     *
+     * @param bitSize 位数
+     * @return long数量
+     */
+    static int words(long bitSize) {
+        long words = (bitSize + 63) >>> 6;
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("bit size too large: " + bitSize);
+        }
+        return (int) Math.max(1, words);
+    }
+
+    abstract int wordCount();
+
+    abstract long word(int index);
+
+    abstract boolean compareAndSet(int index, long expect, long update);
+
+    long bitSize() {
+        return (long) wordCount() << 6;
+    }
+
+    /**
+     * 置位
+     *
+     * @param index 位下标
+     * @return 该位原先未置位时返回{@code true}
+     */
+    boolean set(long index) {
+        int i = (int) (index >>> 6);
+        long mask = 1L << index;
+        for (; ; ) {
+            long old = word(i);
+            if ((old & mask) != 0) {
+                return false;
+            }
+            if (compareAndSet(i, old, old | mask)) {
+                return true;
+            }
+        }
+    }
+
+    boolean get(long index) {
+        return (word((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    /**
+     * @return 已置位的数量
+     */
+    long bitCount() {
+        long count = 0;
+        for (int i = 0; i < wordCount(); ++i) {
+            count += Long.bitCount(word(i));
+        }
+        return count;
+    }
+
+    private static final class Heap extends BitArray {
+
+        private final AtomicLongArray words;
+
+        Heap(int words) {
+            this.words = new AtomicLongArray(words);
+        }
+
+        @Override
+        int wordCount() {
+            return words.length();
+        }
+
+        @Override
+        long word(int index) {
+            return words.get(index);
+        }
+
+        @Override
+        boolean compareAndSet(int index, long expect, long update) {
+            return words.compareAndSet(index, expect, update);
+        }
+    }
+
+    private static final class Buffer extends BitArray {
+
+        private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+        private final ByteBuffer buffer;
+
+        private final int words;
+
+        Buffer(ByteBuffer buffer) {
+            if (!buffer.isDirect() || (buffer.capacity() & 7) != 0) {
+                throw new IllegalArgumentException("buffer must be direct and aligned to 8 bytes");
+            }
+            this.buffer = buffer;
+            this.words = buffer.capacity() >>> 3;
+        }
+
+        @Override
+        int wordCount() {
+            return words;
+        }
+
+        @Override
+        long word(int index) {
+            return (long) LONGS.getVolatile(buffer, offset(index));
+        }
+
+        @Override
+        boolean compareAndSet(int index, long expect, long update) {
+            return LONGS.compareAndSet(buffer, offset(index), expect, update);
+        }
+
+        private static int offset(int index) {
+            return Math.toIntExact((long) index << 3);
+        }
+    }
+
+}
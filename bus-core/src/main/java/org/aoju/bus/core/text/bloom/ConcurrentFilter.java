@@ -0,0 +1,243 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.bloom;
+
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.Murmur;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * 线程安全的Bloom过滤器
+ * 位数组以long为单位CAS更新, 位下标为long, 可位于堆内或直接内存;
+ * 通过一次Murmur3 128位哈希得到两个64位值, 以双重哈希(Kirsch–Mitzenmacher)生成k个位置
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class ConcurrentFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte VERSION = 1;
+
+    private final int hashes;
+    private transient BitArray bits;
+    private transient long bitSize;
+
+    /**
+     * 构造, 按预期元素数量及误判率计算位数及哈希次数
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率, (0, 1)
+     */
+    public ConcurrentFilter(final long expectedInsertions, final double fpp) {
+        this(BitArray.of(optimalBits(expectedInsertions, fpp)), optimalHashes(expectedInsertions, optimalBits(expectedInsertions, fpp)));
+    }
+
+    ConcurrentFilter(final BitArray bits, final int hashes) {
+        Assert.isTrue(hashes > 0 && hashes <= 255, "hashes must be in (0, 255]");
+        this.hashes = hashes;
+        this.bits = bits;
+        this.bitSize = bits.bitSize();
+    }
+
+    /**
+     * 创建堆内过滤器
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率
+     * @return ConcurrentFilter
+     */
+    public static ConcurrentFilter of(final long expectedInsertions, final double fpp) {
+        return new ConcurrentFilter(expectedInsertions, fpp);
+    }
+
+    /**
+     * 创建位于直接内存的过滤器, 不占用堆空间
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率
+     * @return ConcurrentFilter
+     */
+    public static ConcurrentFilter ofDirect(final long expectedInsertions, final double fpp) {
+        final long bits = optimalBits(expectedInsertions, fpp);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BitArray.bytes(bits));
+        return new ConcurrentFilter(BitArray.of(buffer), optimalHashes(expectedInsertions, bits));
+    }
+
+    /**
+     * 从紧凑格式读取, 数据放在堆内
+     *
+     * @param in 输入流
+     * @return ConcurrentFilter
+     * @throws IOException IO异常
+     */
+    public static ConcurrentFilter readFrom(final InputStream in) throws IOException {
+        return read(new DataInputStream(in));
+    }
+
+    /**
+     * 计算最优位数 m = -n * ln(p) / (ln2)^2
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率
+     * @return 位数
+     */
+    public static long optimalBits(final long expectedInsertions, final double fpp) {
+        Assert.isTrue(expectedInsertions > 0, "expectedInsertions must be > 0");
+        Assert.isTrue(fpp > 0 && fpp < 1, "fpp must be in (0, 1)");
+        return Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+    }
+
+    /**
+     * 计算最优哈希次数 k = m / n * ln2
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param bits               位数
+     * @return 哈希次数
+     */
+    public static int optimalHashes(final long expectedInsertions, final long bits) {
+        return (int) Math.min(255, Math.max(1, Math.round((double) bits / expectedInsertions * Math.log(2))));
+    }
+
+    static ConcurrentFilter read(final DataInput in) throws IOException {
+        final byte version = in.readByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException("unsupported bloom filter version: " + version);
+        }
+        final int hashes = in.readUnsignedByte();
+        final int words = in.readInt();
+        final BitArray bits = BitArray.of((long) words << 6);
+        for (int i = 0; i < words; ++i) {
+            final long word = in.readLong();
+            bits.compareAndSet(i, 0, word);
+        }
+        return new ConcurrentFilter(bits, hashes);
+    }
+
+    @Override
+    public boolean contains(final String text) {
+        final long[] hash = Murmur.hash128(text);
+        long combined = hash[0];
+        for (int i = 0; i < hashes; ++i) {
+            if (!bits.get((combined & Long.MAX_VALUE) % bitSize)) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    @Override
+    public boolean add(final String text) {
+        final long[] hash = Murmur.hash128(text);
+        long combined = hash[0];
+        boolean changed = false;
+        for (int i = 0; i < hashes; ++i) {
+            changed |= bits.set((combined & Long.MAX_VALUE) % bitSize);
+            combined += hash[1];
+        }
+        return changed;
+    }
+
+    /**
+     * @return 位数
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * @return 每个元素的哈希次数
+     */
+    public int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * @return 已置位的数量
+     */
+    public long bitCount() {
+        return bits.bitCount();
+    }
+
+    /**
+     * @return 按当前置位比例估算的误判率
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount() / bitSize, hashes);
+    }
+
+    /**
+     * @return 估算已加入的元素数量
+     */
+    public long approximateCount() {
+        final double fractionOfBitsSet = (double) bitCount() / bitSize;
+        return Math.round(-Math.log1p(-fractionOfBitsSet) * bitSize / hashes);
+    }
+
+    /**
+     * 以紧凑格式写出: 版本(1) + 哈希次数(1) + long数量(4) + 位数据
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(out);
+        write(dos);
+        dos.flush();
+    }
+
+    void write(final DataOutput out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeByte(hashes);
+        out.writeInt(bits.wordCount());
+        for (int i = 0; i < bits.wordCount(); ++i) {
+            out.writeLong(bits.word(i));
+        }
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(bits.wordCount());
+        for (int i = 0; i < bits.wordCount(); ++i) {
+            out.writeLong(bits.word(i));
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final int words = in.readInt();
+        this.bits = BitArray.of((long) words << 6);
+        for (int i = 0; i < words; ++i) {
+            this.bits.compareAndSet(i, 0, in.readLong());
+        }
+        this.bitSize = bits.bitSize();
+    }
+
+}
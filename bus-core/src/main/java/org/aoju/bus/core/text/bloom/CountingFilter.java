@@ -0,0 +1,241 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.bloom;
+
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.Murmur;
+
+import java.io.*;
+
+/**
+ * 支持删除的计数Bloom过滤器
+ * 每个位置使用4位计数器(每个long存放16个), CAS更新; 计数达到15后视为饱和, 不再增减
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class CountingFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte VERSION = 1;
+
+    private static final long MAX = 0xF;
+
+    private final int hashes;
+    private transient BitArray counters;
+    private transient long size;
+
+    /**
+     * 构造, 按预期元素数量及误判率计算计数器数量及哈希次数
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率, (0, 1)
+     */
+    public CountingFilter(final long expectedInsertions, final double fpp) {
+        this(ConcurrentFilter.optimalBits(expectedInsertions, fpp),
+                ConcurrentFilter.optimalHashes(expectedInsertions, ConcurrentFilter.optimalBits(expectedInsertions, fpp)));
+    }
+
+    private CountingFilter(final long size, final int hashes) {
+        Assert.isTrue(hashes > 0 && hashes <= 255, "hashes must be in (0, 255]");
+        this.hashes = hashes;
+        this.counters = BitArray.of(size << 2);
+        this.size = counters.bitSize() >>> 2;
+    }
+
+    /**
+     * 创建CountingFilter
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率
+     * @return CountingFilter
+     */
+    public static CountingFilter of(final long expectedInsertions, final double fpp) {
+        return new CountingFilter(expectedInsertions, fpp);
+    }
+
+    /**
+     * 从紧凑格式读取
+     *
+     * @param in 输入流
+     * @return CountingFilter
+     * @throws IOException IO异常
+     */
+    public static CountingFilter readFrom(final InputStream in) throws IOException {
+        final DataInputStream dis = new DataInputStream(in);
+        final byte version = dis.readByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException("unsupported bloom filter version: " + version);
+        }
+        final int hashes = dis.readUnsignedByte();
+        final int words = dis.readInt();
+        final CountingFilter filter = new CountingFilter((long) words << 4, hashes);
+        for (int i = 0; i < words; ++i) {
+            filter.counters.compareAndSet(i, 0, dis.readLong());
+        }
+        return filter;
+    }
+
+    @Override
+    public boolean contains(final String text) {
+        final long[] hash = Murmur.hash128(text);
+        long combined = hash[0];
+        for (int i = 0; i < hashes; ++i) {
+            if (count((combined & Long.MAX_VALUE) % size) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * 加入字符串, 同一字符串多次加入需要同样次数的删除
+     *
+     * @param text 字符串
+     * @return 加入前不存在时返回{@code true}
+     */
+    @Override
+    public boolean add(final String text) {
+        final long[] hash = Murmur.hash128(text);
+        long combined = hash[0];
+        boolean changed = false;
+        for (int i = 0; i < hashes; ++i) {
+            changed |= increment((combined & Long.MAX_VALUE) % size);
+            combined += hash[1];
+        }
+        return changed;
+    }
+
+    /**
+     * 删除字符串, 只应删除确实加入过的字符串, 否则可能造成其他元素漏判
+     *
+     * @param text 字符串
+     * @return 是否删除, 不存在时返回{@code false}
+     */
+    public boolean remove(final String text) {
+        if (!contains(text)) {
+            return false;
+        }
+
+        final long[] hash = Murmur.hash128(text);
+        long combined = hash[0];
+        for (int i = 0; i < hashes; ++i) {
+            decrement((combined & Long.MAX_VALUE) % size);
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * @return 计数器数量
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return 每个元素的哈希次数
+     */
+    public int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * 以紧凑格式写出: 版本(1) + 哈希次数(1) + long数量(4) + 计数器数据
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(out);
+        dos.writeByte(VERSION);
+        dos.writeByte(hashes);
+        writeWords(dos);
+        dos.flush();
+    }
+
+    private long count(final long index) {
+        return (counters.word((int) (index >>> 4)) >>> ((index & 15) << 2)) & MAX;
+    }
+
+    /**
+     * @return 计数器原先为0时返回{@code true}
+     */
+    private boolean increment(final long index) {
+        final int word = (int) (index >>> 4);
+        final int shift = (int) (index & 15) << 2;
+        for (; ; ) {
+            final long old = counters.word(word);
+            final long count = (old >>> shift) & MAX;
+            if (count == MAX) {
+                return false;
+            }
+            if (counters.compareAndSet(word, old, old + (1L << shift))) {
+                return count == 0;
+            }
+        }
+    }
+
+    private void decrement(final long index) {
+        final int word = (int) (index >>> 4);
+        final int shift = (int) (index & 15) << 2;
+        for (; ; ) {
+            final long old = counters.word(word);
+            final long count = (old >>> shift) & MAX;
+            if (count == 0 || count == MAX) {
+                return;
+            }
+            if (counters.compareAndSet(word, old, old - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void writeWords(final DataOutput out) throws IOException {
+        out.writeInt(counters.wordCount());
+        for (int i = 0; i < counters.wordCount(); ++i) {
+            out.writeLong(counters.word(i));
+        }
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        writeWords(out);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final int words = in.readInt();
+        this.counters = BitArray.of((long) words << 6);
+        for (int i = 0; i < words; ++i) {
+            this.counters.compareAndSet(i, 0, in.readLong());
+        }
+        this.size = counters.bitSize() >>> 2;
+    }
+
+}
@@ -0,0 +1,204 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.bloom;
+
+import org.aoju.bus.core.lang.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于内存映射文件的Bloom过滤器
+ * 位数据直接写入映射文件, 重启后无需重建; 其他进程可只读打开同一文件共享数据
+ * 文件格式: 魔数(4) + 版本(1) + 哈希次数(1) + 保留(2) + long数量(4), 补齐至64字节后为小端序的位数据
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class MappedFilter implements BloomFilter, Closeable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAGIC = 0x424C4D46;
+    private static final byte VERSION = 1;
+    private static final int HEADER = 64;
+
+    private final String path;
+    private final boolean readOnly;
+    private transient FileChannel channel;
+    private transient MappedByteBuffer buffer;
+    private transient ConcurrentFilter filter;
+
+    private MappedFilter(final Path path, final boolean readOnly, final long expectedInsertions, final double fpp) throws IOException {
+        this.path = path.toString();
+        this.readOnly = readOnly;
+        open(expectedInsertions, fpp);
+    }
+
+    /**
+     * 打开过滤器文件, 文件不存在时按预期元素数量及误判率创建
+     *
+     * @param path               文件路径
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                误判率
+     * @return MappedFilter
+     * @throws IOException IO异常
+     */
+    public static MappedFilter of(final Path path, final long expectedInsertions, final double fpp) throws IOException {
+        return new MappedFilter(path, false, expectedInsertions, fpp);
+    }
+
+    /**
+     * 只读打开已存在的过滤器文件
+     *
+     * @param path 文件路径
+     * @return MappedFilter
+     * @throws IOException IO异常
+     */
+    public static MappedFilter readOnly(final Path path) throws IOException {
+        return new MappedFilter(path, true, 0, 0);
+    }
+
+    private void open(final long expectedInsertions, final double fpp) throws IOException {
+        final Path file = Paths.get(path);
+        final boolean exists = Files.exists(file) && Files.size(file) > 0;
+        Assert.isTrue(exists || !readOnly, "bloom filter file not found: {}", path);
+
+        final int hashes;
+        final int words;
+        if (exists) {
+            final long size = Files.size(file);
+            if (size < HEADER) {
+                throw new InvalidObjectException("truncated bloom filter file: " + path);
+            }
+            try (FileChannel header = FileChannel.open(file, StandardOpenOption.READ)) {
+                final MappedByteBuffer head = header.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                head.order(ByteOrder.LITTLE_ENDIAN);
+                if (head.getInt(0) != MAGIC || head.get(4) != VERSION) {
+                    throw new InvalidObjectException("not a bloom filter file: " + path);
+                }
+                hashes = head.get(5) & 0xFF;
+                words = head.getInt(8);
+            }
+            // 映射前校验, 否则可写模式下会以零填充方式扩展被截断的文件
+            if (hashes == 0 || words <= 0 || size != HEADER + ((long) words << 3)) {
+                throw new InvalidObjectException("corrupt bloom filter file: " + path
+                        + ", header declares " + words + " words but file size is " + size);
+            }
+        } else {
+            final long bits = ConcurrentFilter.optimalBits(expectedInsertions, fpp);
+            hashes = ConcurrentFilter.optimalHashes(expectedInsertions, bits);
+            words = BitArray.words(bits);
+        }
+        Assert.isTrue((long) HEADER + ((long) words << 3) <= Integer.MAX_VALUE, "bloom filter file too large: {}", path);
+
+        this.channel = readOnly
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                0, HEADER + ((long) words << 3));
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (!exists) {
+            buffer.putInt(0, MAGIC);
+            buffer.put(4, VERSION);
+            buffer.put(5, (byte) hashes);
+            buffer.putInt(8, words);
+        }
+        this.filter = new ConcurrentFilter(BitArray.of(buffer.slice(HEADER, words << 3)), hashes);
+    }
+
+    @Override
+    public boolean contains(final String text) {
+        return filter.contains(text);
+    }
+
+    @Override
+    public boolean add(final String text) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("bloom filter is read only: " + path);
+        }
+        return filter.add(text);
+    }
+
+    /**
+     * @return 位数
+     */
+    public long bitSize() {
+        return filter.bitSize();
+    }
+
+    /**
+     * @return 每个元素的哈希次数
+     */
+    public int hashCount() {
+        return filter.hashCount();
+    }
+
+    /**
+     * @return 按当前置位比例估算的误判率
+     */
+    public double expectedFpp() {
+        return filter.expectedFpp();
+    }
+
+    /**
+     * 将修改刷入磁盘
+     */
+    public void force() {
+        if (!readOnly) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * 反序列化时按路径重新映射文件
+     */
+    private Object readResolve() throws ObjectStreamException {
+        try {
+            return new MappedFilter(Paths.get(path), readOnly, 0, 0);
+        } catch (IOException e) {
+            final InvalidObjectException exception = new InvalidObjectException("open bloom filter file failed: " + path);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+}
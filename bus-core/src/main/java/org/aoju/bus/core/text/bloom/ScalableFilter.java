@@ -0,0 +1,237 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.bloom;
+
+import org.aoju.bus.core.lang.Assert;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可扩容的Bloom过滤器
+ * 由多个{@link ConcurrentFilter}切片组成, 当前切片写满后追加一个容量更大、误判率更低的切片,
+ * 使总误判率在元素数量未知时仍不超过目标值
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class ScalableFilter implements BloomFilter {
+
+    private static final long serialVersionUID = 2L;
+
+    private static final byte VERSION = 1;
+
+    /**
+     * 切片容量增长倍数
+     */
+    private static final int GROWTH = 2;
+
+    /**
+     * 切片误判率收紧比例
+     */
+    private static final double TIGHTENING = 0.5;
+
+    private final long initialCapacity;
+    private final double fpp;
+    /**
+     * 切片及当前切片计数, 扩容时整体替换
+     */
+    private volatile Stage stage;
+
+    /**
+     * 构造
+     *
+     * @param initialCapacity 首个切片的容量
+     * @param fpp             总误判率, (0, 1)
+     */
+    public ScalableFilter(final long initialCapacity, final double fpp) {
+        Assert.isTrue(initialCapacity > 0, "initialCapacity must be > 0");
+        Assert.isTrue(fpp > 0 && fpp < 1, "fpp must be in (0, 1)");
+        this.initialCapacity = initialCapacity;
+        this.fpp = fpp;
+        this.stage = new Stage(new ConcurrentFilter[]{newSlice(0)}, 0);
+    }
+
+    private ScalableFilter(final long initialCapacity, final double fpp, final long count, final ConcurrentFilter[] slices) {
+        this.initialCapacity = initialCapacity;
+        this.fpp = fpp;
+        this.stage = new Stage(slices, count);
+    }
+
+    /**
+     * 创建ScalableFilter
+     *
+     * @param initialCapacity 首个切片的容量
+     * @param fpp             总误判率
+     * @return ScalableFilter
+     */
+    public static ScalableFilter of(final long initialCapacity, final double fpp) {
+        return new ScalableFilter(initialCapacity, fpp);
+    }
+
+    /**
+     * 从紧凑格式读取
+     *
+     * @param in 输入流
+     * @return ScalableFilter
+     * @throws IOException IO异常
+     */
+    public static ScalableFilter readFrom(final InputStream in) throws IOException {
+        final DataInputStream dis = new DataInputStream(in);
+        final byte version = dis.readByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException("unsupported bloom filter version: " + version);
+        }
+        final long initialCapacity = dis.readLong();
+        final double fpp = dis.readDouble();
+        final long count = dis.readLong();
+        final ConcurrentFilter[] slices = new ConcurrentFilter[dis.readInt()];
+        for (int i = 0; i < slices.length; ++i) {
+            slices[i] = ConcurrentFilter.read(dis);
+        }
+        return new ScalableFilter(initialCapacity, fpp, count, slices);
+    }
+
+    @Override
+    public boolean contains(final String text) {
+        final ConcurrentFilter[] current = this.stage.slices;
+        for (int i = current.length - 1; i >= 0; --i) {
+            if (current[i].contains(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(final String text) {
+        if (contains(text)) {
+            return false;
+        }
+
+        final Stage current = this.stage;
+        final ConcurrentFilter[] slices = current.slices;
+        if (!slices[slices.length - 1].add(text)) {
+            return false;
+        }
+        if (current.count.incrementAndGet() >= capacity(slices.length - 1)) {
+            grow(current);
+        }
+        return true;
+    }
+
+    /**
+     * @return 切片数量
+     */
+    public int sliceCount() {
+        return stage.slices.length;
+    }
+
+    /**
+     * @return 所有切片的总位数
+     */
+    public long bitSize() {
+        long bits = 0;
+        for (final ConcurrentFilter slice : stage.slices) {
+            bits += slice.bitSize();
+        }
+        return bits;
+    }
+
+    /**
+     * @return 按各切片当前置位比例估算的总误判率
+     */
+    public double expectedFpp() {
+        double negative = 1;
+        for (final ConcurrentFilter slice : stage.slices) {
+            negative *= 1 - slice.expectedFpp();
+        }
+        return 1 - negative;
+    }
+
+    /**
+     * 以紧凑格式写出: 版本 + 初始容量 + 误判率 + 当前切片计数 + 各切片
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        final DataOutputStream dos = new DataOutputStream(out);
+        final Stage current = this.stage;
+        dos.writeByte(VERSION);
+        dos.writeLong(initialCapacity);
+        dos.writeDouble(fpp);
+        dos.writeLong(current.count.get());
+        dos.writeInt(current.slices.length);
+        for (final ConcurrentFilter slice : current.slices) {
+            slice.write(dos);
+        }
+        dos.flush();
+    }
+
+    /**
+     * 切片与计数一起替换, 旧阶段上并发的计数随之丢弃, 不会计入新切片
+     */
+    private synchronized void grow(final Stage expected) {
+        if (this.stage != expected) {
+            return;
+        }
+        final int length = expected.slices.length;
+        final ConcurrentFilter[] grown = Arrays.copyOf(expected.slices, length + 1);
+        grown[length] = newSlice(length);
+        this.stage = new Stage(grown, 0);
+    }
+
+    private long capacity(final int index) {
+        return initialCapacity * (long) Math.pow(GROWTH, index);
+    }
+
+    /**
+     * 第i个切片的误判率为 fpp * (1 - r) * r^i, 总和不超过fpp
+     */
+    private ConcurrentFilter newSlice(final int index) {
+        final double sliceFpp = fpp * (1 - TIGHTENING) * Math.pow(TIGHTENING, index);
+        return new ConcurrentFilter(capacity(index), sliceFpp);
+    }
+
+    private static final class Stage implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ConcurrentFilter[] slices;
+        /**
+         * 当前切片已加入的元素数量
+         */
+        private final AtomicLong count;
+
+        Stage(final ConcurrentFilter[] slices, final long count) {
+            this.slices = slices;
+            this.count = new AtomicLong(count);
+        }
+    }
+
+}
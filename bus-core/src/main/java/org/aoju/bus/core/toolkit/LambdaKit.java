@@ -29,9 +29,9 @@ import lombok.Getter;
 import org.aoju.bus.core.exception.InternalException;
 import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.lang.Optional;
+import org.aoju.bus.core.lang.SimpleCache;
 import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.lang.function.LambdaFactory;
-import org.aoju.bus.core.map.WeakMap;
 
 import java.io.Serializable;
 import java.lang.invoke.SerializedLambda;
@@ -48,7 +48,10 @@ import java.util.function.Function;
  */
 public class LambdaKit {
 
-    private static final WeakMap<String, Info> CACHE = new WeakMap<>();
+    /**
+     * 缓存，以lambda实现类为弱引用键
+     */
+    private static final SimpleCache<Class<?>, Info> CACHE = new SimpleCache<>();
 
     /**
      * 通过对象的方法或类的静态方法引用，获取lambda实现类
@@ -75,7 +78,7 @@ public class LambdaKit {
      * @return 返回解析后的结果
      */
     public static <T extends Serializable> Info resolve(final T func) {
-        return CACHE.computeIfAbsent(func.getClass().getName(), (key) -> {
+        return CACHE.get(func.getClass(), () -> {
             final SerializedLambda serializedLambda = _resolve(func);
             final String methodName = serializedLambda.getImplMethodName();
             final Class<?> implClass;
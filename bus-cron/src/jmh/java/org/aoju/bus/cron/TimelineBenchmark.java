@@ -0,0 +1,103 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cron;
+
+import org.aoju.bus.cron.factory.Task;
+import org.aoju.bus.cron.pattern.CronPattern;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时任务匹配基准, 对比每个计时点逐个匹配表达式与按下一次触发时间索引
+ * 每次调用前进一分钟, 任务为随机分钟的每小时或每天执行
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=TimelineBenchmark
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineBenchmark {
+
+    private static final long MINUTE = 60_000L;
+
+    @Param({"100", "1000"})
+    public int tasks;
+
+    private final TimeZone timezone = TimeZone.getDefault();
+
+    private List<CronPattern> patterns;
+
+    private Timeline timeline;
+
+    private long millis;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final Task task = () -> {
+        };
+        millis = System.currentTimeMillis();
+        patterns = new ArrayList<>(tasks);
+        timeline = new Timeline(timezone, false, millis - MINUTE);
+        for (int i = 0; i < tasks; i++) {
+            final String expression = random.nextBoolean()
+                    ? random.nextInt(60) + " * * * *"
+                    : random.nextInt(60) + " " + random.nextInt(24) + " * * *";
+            final CronPattern pattern = CronPattern.of(expression);
+            patterns.add(pattern);
+            timeline.add(String.valueOf(i), pattern, task);
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        millis += MINUTE;
+        int due = 0;
+        for (CronPattern pattern : patterns) {
+            if (pattern.match(timezone, millis, false)) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    @Benchmark
+    public int indexed() {
+        millis += MINUTE;
+        return timeline.poll(millis).size();
+    }
+
+}
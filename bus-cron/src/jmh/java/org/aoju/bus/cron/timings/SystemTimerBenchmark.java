@@ -0,0 +1,117 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cron.timings;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 时间轮压力基准, 批量加入随机延迟的任务并在到期前后取消其中一部分,
+ * 测量全部任务执行或取消完毕的耗时, 并校验每个任务恰好计入执行或取消之一
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=SystemTimerBenchmark
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SystemTimerBenchmark {
+
+    /**
+     * 任务延迟分布范围, 单位毫秒
+     */
+    private static final int SPREAD = 1000;
+
+    @Param({"100000", "1000000"})
+    public int tasks;
+
+    @Param({"1", "64"})
+    public int batchSize;
+
+    private ExecutorService workers;
+
+    private SystemTimer timer;
+
+    private LongAdder ran;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        workers = Executors.newFixedThreadPool(2);
+        timer = new SystemTimer(1, 20, workers).setBatchSize(batchSize).start();
+        ran = new LongAdder();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        timer.stop();
+        workers.shutdownNow();
+    }
+
+    @Benchmark
+    public long addCancelAndDrain() throws InterruptedException {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Runnable task = ran::increment;
+        final TimerTask[] added = new TimerTask[tasks];
+        for (int i = 0; i < tasks; i++) {
+            added[i] = timer.addTask(task, random.nextInt(SPREAD));
+        }
+        // 按加入顺序取消十分之一, 部分任务此时已到期并被收集, 与执行相互竞争
+        for (int i = 0; i < tasks; i += 10) {
+            timer.cancel(added[i]);
+        }
+
+        final long deadline = System.currentTimeMillis() + SPREAD + 30_000;
+        while (timer.getExpiredCount() + timer.getCancelledCount() + timer.getRejectedCount() < tasks) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Timer lost tasks: " + describe());
+            }
+            Thread.sleep(1);
+        }
+        // 等待最后一批执行完毕
+        Thread.sleep(10);
+        if (ran.sum() != timer.getExpiredCount()
+                || timer.getExpiredCount() + timer.getCancelledCount() + timer.getRejectedCount() != tasks) {
+            throw new IllegalStateException("Timer miscounted tasks: " + describe());
+        }
+        return timer.getMaxLatency();
+    }
+
+    private String describe() {
+        return "added=" + timer.getAddedCount() + ", ran=" + ran.sum() + ", expired=" + timer.getExpiredCount()
+                + ", cancelled=" + timer.getCancelledCount() + ", rejected=" + timer.getRejectedCount()
+                + ", avgLatency=" + timer.getAverageLatency() + "ms, maxLatency=" + timer.getMaxLatency() + "ms";
+    }
+
+}
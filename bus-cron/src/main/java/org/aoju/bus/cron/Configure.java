@@ -43,6 +43,26 @@ public class Configure {
      * 是否支持秒匹配
      */
     protected boolean matchSecond;
+    /**
+     * 是否使用触发时间索引，开启后每次计时只处理到期的任务，适用于任务数量较多的场景
+     */
+    protected boolean indexed;
+    /**
+     * 是否每个任务使用一个虚拟线程执行，运行环境不支持虚拟线程时使用默认线程池
+     */
+    protected boolean virtual;
+    /**
+     * 执行线程池大小，大于0时使用有界线程池，否则使用无界线程池
+     */
+    protected int poolSize;
+    /**
+     * 有界线程池的等待队列大小，队列满时任务记为错过执行
+     */
+    protected int queueSize = 1024;
+    /**
+     * 同一任务上一次执行尚未结束时的执行规则，默认并行
+     */
+    protected Strategy strategy = Strategy.CONCURRENT_EXECUTION;
 
     public Configure() {
 
@@ -88,4 +108,113 @@ public class Configure {
         return this;
     }
 
+    /**
+     * 是否使用触发时间索引
+     *
+     * @return <code>true</code>使用，<code>false</code>不使用
+     */
+    public boolean isIndexed() {
+        return this.indexed;
+    }
+
+    /**
+     * 设置是否使用触发时间索引，默认不使用
+     * 开启后按{@link org.aoju.bus.cron.pattern.CronPattern#nextMatchAfter(java.util.Calendar)}计算下一次触发时间，
+     * 每次计时只处理到期的任务，而非逐个匹配所有表达式
+     *
+     * @param indexed <code>true</code>使用，<code>false</code>不使用
+     * @return this
+     */
+    public Configure setIndexed(boolean indexed) {
+        this.indexed = indexed;
+        return this;
+    }
+
+    /**
+     * 是否使用虚拟线程执行任务
+     *
+     * @return <code>true</code>使用，<code>false</code>不使用
+     */
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    /**
+     * 设置是否每个任务使用一个虚拟线程执行，适用于IO密集的长时间任务
+     * 运行环境不支持虚拟线程(低于Java 21)时使用默认线程池
+     *
+     * @param virtual <code>true</code>使用，<code>false</code>不使用
+     * @return this
+     */
+    public Configure setVirtual(boolean virtual) {
+        this.virtual = virtual;
+        return this;
+    }
+
+    /**
+     * 获得执行线程池大小
+     *
+     * @return 线程池大小，小于等于0表示无界
+     */
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    /**
+     * 设置执行线程池大小，大于0时使用有界线程池
+     *
+     * @param poolSize 线程池大小
+     * @return this
+     */
+    public Configure setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    /**
+     * 获得有界线程池的等待队列大小
+     *
+     * @return 等待队列大小
+     */
+    public int getQueueSize() {
+        return this.queueSize;
+    }
+
+    /**
+     * 设置有界线程池的等待队列大小，队列满时任务记为错过执行
+     *
+     * @param queueSize 等待队列大小
+     * @return this
+     */
+    public Configure setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * 获得同一任务重叠执行时的规则
+     *
+     * @return {@link Strategy}
+     */
+    public Strategy getStrategy() {
+        return this.strategy;
+    }
+
+    /**
+     * 设置同一任务上一次执行尚未结束时的默认执行规则，单个任务可通过{@link Scheduler#setStrategy(String, Strategy)}另行指定
+     * <ul>
+     *     <li>{@link Strategy#CONCURRENT_EXECUTION}：并行执行，默认</li>
+     *     <li>{@link Strategy#DISCARD_LATER}：跳过本次执行，记为错过执行</li>
+     *     <li>{@link Strategy#SERIAL_EXECUTION}：排队等待上一次执行结束，最多排队一次，其余记为错过执行</li>
+     *     <li>{@link Strategy#COVER_EARLY}：中断上一次执行，立即执行本次</li>
+     * </ul>
+     *
+     * @param strategy {@link Strategy}
+     * @return this
+     */
+    public Configure setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
 }
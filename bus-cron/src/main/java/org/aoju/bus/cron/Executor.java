@@ -39,6 +39,14 @@ public class Executor implements Runnable {
 
     private final Scheduler scheduler;
     private final CronTask task;
+    /**
+     * 执行线程，读写时持有this锁
+     */
+    private Thread thread;
+    /**
+     * 是否已被取消
+     */
+    private boolean cancelled;
 
     /**
      * 构造
@@ -69,8 +77,33 @@ public class Executor implements Runnable {
         return this.task;
     }
 
+    /**
+     * 取消任务，尚未开始的任务不再执行，正在执行的任务被中断，任务需响应中断才能结束
+     */
+    public void cancel() {
+        synchronized (this) {
+            this.cancelled = true;
+            if (null != this.thread) {
+                this.thread.interrupt();
+            }
+        }
+    }
+
     @Override
     public void run() {
+        final boolean cancelled;
+        synchronized (this) {
+            cancelled = this.cancelled;
+            if (false == cancelled) {
+                this.thread = Thread.currentThread();
+            }
+        }
+        if (cancelled) {
+            // 开始前已被取消，记为错过执行
+            scheduler.manager.notifyExecutorCompleted(this);
+            scheduler.manager.misfire(this);
+            return;
+        }
         try {
             scheduler.listenerManager.notifyTaskStart(this);
             task.execute();
@@ -78,6 +111,11 @@ public class Executor implements Runnable {
         } catch (Exception e) {
             scheduler.listenerManager.notifyTaskFailed(this, e);
         } finally {
+            synchronized (this) {
+                this.thread = null;
+            }
+            // 清除取消留下的中断标记，避免影响线程池中的后续任务
+            Thread.interrupted();
             scheduler.manager.notifyExecutorCompleted(this);
         }
     }
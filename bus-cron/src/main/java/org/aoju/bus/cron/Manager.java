@@ -32,10 +32,15 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 作业执行管理器
  * 负责管理作业的启动、停止等
+ * 按任务单独指定的规则或{@link Configure#getStrategy()}控制同一任务的重叠执行，跳过或被线程池拒绝的执行记为错过执行
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -47,6 +52,14 @@ public class Manager implements Serializable {
      * 执行器列表
      */
     private final List<Executor> executors = new ArrayList<>();
+    /**
+     * 任务ID与其执行状态，非并行规则下使用，任务空闲时移除
+     */
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    /**
+     * 错过执行的次数
+     */
+    private final LongAdder misfires = new LongAdder();
     protected Scheduler scheduler;
 
     public Manager(Scheduler scheduler) {
@@ -69,12 +82,79 @@ public class Manager implements Serializable {
      * @return {@link Executor}
      */
     public Executor spawnExecutor(CronTask task) {
+        return spawn(new Executor(this.scheduler, task));
+    }
+
+    /**
+     * 启动计时点触发的作业，启动时已晚于下一个计时点的记为错过执行
+     *
+     * @param task   {@link CronTask}
+     * @param millis 计时点的毫秒数
+     * @return {@link Executor}
+     */
+    Executor spawnExecutor(CronTask task, long millis) {
         final Executor executor = new Executor(this.scheduler, task);
-        synchronized (this.executors) {
-            this.executors.add(executor);
+        final long unit = this.scheduler.config.matchSecond ? 1000L : 60_000L;
+        if (System.currentTimeMillis() - millis >= unit) {
+            misfire(executor);
+            return executor;
         }
-        this.scheduler.threadExecutor.execute(executor);
-        return executor;
+        return spawn(executor);
+    }
+
+    /**
+     * 按执行规则启动执行器
+     *
+     * @param executor 执行器 {@link Executor}
+     * @return 执行器
+     */
+    private Executor spawn(Executor executor) {
+        final CronTask task = executor.getCronTask();
+        Strategy strategy = this.scheduler.repertoire.getStrategy(task.getId());
+        if (null == strategy) {
+            strategy = this.scheduler.config.strategy;
+        }
+        if (null == strategy || Strategy.CONCURRENT_EXECUTION == strategy) {
+            return execute(executor);
+        }
+
+        Executor covered = null;
+        while (true) {
+            final Slot slot = slots.computeIfAbsent(task.getId(), key -> new Slot());
+            synchronized (slot) {
+                if (slot.retired) {
+                    // 已在空闲时移除，重新获取
+                    continue;
+                }
+                if (null == slot.running) {
+                    slot.running = executor;
+                } else if (Strategy.COVER_EARLY == strategy) {
+                    covered = slot.running;
+                    slot.running = executor;
+                } else if (Strategy.SERIAL_EXECUTION == strategy && null == slot.pending) {
+                    // 排队等待上一次执行结束
+                    slot.pending = executor;
+                    return executor;
+                } else {
+                    misfire(executor);
+                    return executor;
+                }
+            }
+            break;
+        }
+        if (null != covered) {
+            covered.cancel();
+        }
+        return execute(executor);
+    }
+
+    /**
+     * 错过执行的次数，包括因规则跳过及线程池拒绝的执行
+     *
+     * @return 错过执行的次数
+     */
+    public long getMisfireCount() {
+        return this.misfires.sum();
     }
 
     /**
@@ -87,7 +167,74 @@ public class Manager implements Serializable {
         synchronized (executors) {
             executors.remove(executor);
         }
+        final Slot slot = slots.get(executor.getCronTask().getId());
+        if (null != slot) {
+            Executor next = null;
+            synchronized (slot) {
+                // 被覆盖的执行结束时不影响当前执行
+                if (slot.running == executor) {
+                    slot.running = next = slot.pending;
+                    slot.pending = null;
+                }
+                if (null == slot.running) {
+                    // 任务空闲，移除状态，避免已移除的任务残留
+                    slot.retired = true;
+                    slots.remove(executor.getCronTask().getId(), slot);
+                }
+            }
+            if (null != next) {
+                execute(next);
+            }
+        }
         return this;
     }
 
+    /**
+     * 提交执行器到线程池，被拒绝时记为错过执行
+     *
+     * @param executor 执行器 {@link Executor}
+     * @return 执行器
+     */
+    private Executor execute(Executor executor) {
+        synchronized (this.executors) {
+            this.executors.add(executor);
+        }
+        try {
+            this.scheduler.threadExecutor.execute(executor);
+        } catch (RejectedExecutionException e) {
+            notifyExecutorCompleted(executor);
+            misfire(executor);
+        }
+        return executor;
+    }
+
+    /**
+     * 记录错过执行并通知监听
+     *
+     * @param executor 执行器 {@link Executor}
+     */
+    void misfire(Executor executor) {
+        this.misfires.increment();
+        this.scheduler.listenerManager.notifyTaskMisfired(executor);
+    }
+
+    /**
+     * 单个任务的执行状态
+     */
+    private static class Slot {
+
+        /**
+         * 正在执行的执行器
+         */
+        private Executor running;
+        /**
+         * 排队等待的执行器
+         */
+        private Executor pending;
+        /**
+         * 是否已从状态表移除
+         */
+        private boolean retired;
+    }
+
 }
@@ -35,6 +35,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -43,6 +45,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * 定时任务表
  * 任务表将ID、表达式、任务一一对应,定时任务执行过程中,会周期性检查定时任务表中的所有任务表达式匹配情况,从而执行其对应的任务
  * 任务的添加、移除使用读写锁保证线程安全性
+ * 开启{@link Configure#setIndexed(boolean)}后，改为通过{@link Timeline}只处理到期的任务
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -56,7 +59,15 @@ public class Repertoire implements Serializable {
     private final List<String> ids;
     private final List<CronPattern> patterns;
     private final List<Task> tasks;
+    /**
+     * 单独指定了执行规则的任务
+     */
+    private final Map<String, Strategy> strategies;
     private int size;
+    /**
+     * 触发时间索引，首次按索引模式执行时创建
+     */
+    private transient volatile Timeline timeline;
 
     /**
      * 构造
@@ -76,6 +87,7 @@ public class Repertoire implements Serializable {
         ids = new ArrayList<>(initialCapacity);
         patterns = new ArrayList<>(initialCapacity);
         tasks = new ArrayList<>(initialCapacity);
+        strategies = new ConcurrentHashMap<>();
     }
 
     /**
@@ -97,6 +109,9 @@ public class Repertoire implements Serializable {
             patterns.add(pattern);
             tasks.add(task);
             size++;
+            if (null != timeline) {
+                timeline.add(id, pattern, task);
+            }
         } finally {
             writeLock.unlock();
         }
@@ -165,7 +180,11 @@ public class Repertoire implements Serializable {
             tasks.remove(index);
             patterns.remove(index);
             ids.remove(index);
+            strategies.remove(id);
             size--;
+            if (null != timeline) {
+                timeline.remove(id);
+            }
         } finally {
             writeLock.unlock();
         }
@@ -186,6 +205,9 @@ public class Repertoire implements Serializable {
             final int index = ids.indexOf(id);
             if (index > -1) {
                 patterns.set(index, pattern);
+                if (null != timeline) {
+                    timeline.add(id, pattern, tasks.get(index));
+                }
                 return true;
             }
         } finally {
@@ -194,6 +216,41 @@ public class Repertoire implements Serializable {
         return false;
     }
 
+    /**
+     * 设置某个Task在上一次执行尚未结束时的执行规则
+     *
+     * @param id       Task的ID
+     * @param strategy {@link Strategy}，{@code null}表示使用{@link Configure#getStrategy()}
+     * @return 是否设置成功，如果id对应的任务不存在则不设置
+     */
+    public boolean setStrategy(String id, Strategy strategy) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (false == ids.contains(id)) {
+                return false;
+            }
+            if (null == strategy) {
+                strategies.remove(id);
+            } else {
+                strategies.put(id, strategy);
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 获得指定id的{@link Strategy}
+     *
+     * @param id ID
+     * @return {@link Strategy}，未单独指定时返回{@code null}
+     */
+    public Strategy getStrategy(String id) {
+        return strategies.get(id);
+    }
+
     /**
      * 获得指定位置的{@link Task}
      *
@@ -295,11 +352,38 @@ public class Repertoire implements Serializable {
      * @param millis    时间毫秒
      */
     protected void executeTaskIfMatchInternal(Scheduler scheduler, long millis) {
+        if (scheduler.config.indexed) {
+            for (Timeline.Entry entry : getTimeline(scheduler.config, millis).poll(millis)) {
+                scheduler.manager.spawnExecutor(new CronTask(entry.id, entry.pattern, entry.task), millis);
+            }
+            return;
+        }
         for (int i = 0; i < size; i++) {
             if (patterns.get(i).match(scheduler.config.timezone, millis, scheduler.config.matchSecond)) {
-                scheduler.manager.spawnExecutor(new CronTask(ids.get(i), patterns.get(i), tasks.get(i)));
+                scheduler.manager.spawnExecutor(new CronTask(ids.get(i), patterns.get(i), tasks.get(i)), millis);
+            }
+        }
+    }
+
+    /**
+     * 获取触发时间索引，不存在或时区、秒匹配配置变更时重建，调用时须持有读锁
+     *
+     * @param config 定时任务配置
+     * @param millis 当前时间毫秒数
+     * @return {@link Timeline}
+     */
+    private synchronized Timeline getTimeline(Configure config, long millis) {
+        Timeline current = this.timeline;
+        if (null == current || current.matchSecond != config.matchSecond || false == current.timezone.equals(config.timezone)) {
+            // 从上一计时点开始计算，保证本次计时点的任务可以触发
+            current = new Timeline(config.timezone, config.matchSecond,
+                    millis - (config.matchSecond ? 1000L : 60_000L));
+            for (int i = 0; i < size; i++) {
+                current.add(ids.get(i), patterns.get(i), tasks.get(i));
             }
+            this.timeline = current;
         }
+        return current;
     }
 
     @Override
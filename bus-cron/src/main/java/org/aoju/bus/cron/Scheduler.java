@@ -46,6 +46,8 @@ import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 import java.util.TimeZone;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -109,7 +111,7 @@ public class Scheduler implements Serializable {
      */
     protected TaskListenerManager listenerManager = new TaskListenerManager();
     /**
-     * 线程池，用于执行TaskLauncher和TaskExecutor
+     * 线程池，用于执行TaskExecutor
      */
     protected ExecutorService threadExecutor;
     /**
@@ -209,6 +211,98 @@ public class Scheduler implements Serializable {
         return this;
     }
 
+    /**
+     * 是否使用触发时间索引
+     *
+     * @return {@code true}使用，{@code false}不使用
+     */
+    public boolean isIndexed() {
+        return this.config.isIndexed();
+    }
+
+    /**
+     * 设置是否使用触发时间索引，默认不使用
+     * 任务数量较多时开启，每次计时只处理到期的任务
+     *
+     * @param indexed {@code true}使用，{@code false}不使用
+     * @return this
+     */
+    public Scheduler setIndexed(boolean indexed) {
+        this.config.setIndexed(indexed);
+        return this;
+    }
+
+    /**
+     * 设置是否每个任务使用一个虚拟线程执行，运行环境不支持虚拟线程时使用默认线程池
+     * 如果用户调用{@link #setThreadExecutor(ExecutorService)}自定义线程池则此参数无效
+     *
+     * @param virtual {@code true}使用，{@code false}不使用
+     * @return this
+     * @throws CrontabException 定时任务已经启动抛出此异常
+     */
+    public Scheduler setVirtual(boolean virtual) throws CrontabException {
+        lock.lock();
+        try {
+            checkStarted();
+            this.config.setVirtual(virtual);
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * 设置有界线程池，线程池和等待队列均满时任务记为错过执行
+     * 如果用户调用{@link #setThreadExecutor(ExecutorService)}自定义线程池则此参数无效
+     *
+     * @param poolSize  线程池大小，小于等于0表示无界
+     * @param queueSize 等待队列大小
+     * @return this
+     * @throws CrontabException 定时任务已经启动抛出此异常
+     */
+    public Scheduler setPoolSize(int poolSize, int queueSize) throws CrontabException {
+        lock.lock();
+        try {
+            checkStarted();
+            this.config.setPoolSize(poolSize).setQueueSize(queueSize);
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * 设置同一任务上一次执行尚未结束时的默认执行规则，默认并行
+     *
+     * @param strategy {@link Strategy}
+     * @return this
+     */
+    public Scheduler setStrategy(Strategy strategy) {
+        this.config.setStrategy(strategy);
+        return this;
+    }
+
+    /**
+     * 设置指定任务上一次执行尚未结束时的执行规则，优先于{@link #setStrategy(Strategy)}
+     *
+     * @param id       Task的ID
+     * @param strategy {@link Strategy}，{@code null}表示使用默认规则
+     * @return this
+     */
+    public Scheduler setStrategy(String id, Strategy strategy) {
+        this.repertoire.setStrategy(id, strategy);
+        return this;
+    }
+
+    /**
+     * 错过执行的次数，包括因规则跳过及线程池拒绝的执行
+     *
+     * @return 错过执行的次数
+     */
+    public long getMisfireCount() {
+        return null == this.manager ? 0 : this.manager.getMisfireCount();
+    }
+
     /**
      * 增加监听器
      *
@@ -322,6 +416,21 @@ public class Scheduler implements Serializable {
         return this;
     }
 
+    /**
+     * 新增Task并指定其执行规则，如果任务ID已经存在，抛出异常
+     *
+     * @param id       ID,为每一个Task定义一个ID
+     * @param pattern  {@link CronPattern}
+     * @param task     {@link Task}
+     * @param strategy {@link Strategy}
+     * @return this
+     */
+    public Scheduler schedule(String id, CronPattern pattern, Task task, Strategy strategy) {
+        repertoire.add(id, pattern, task);
+        repertoire.setStrategy(id, strategy);
+        return this;
+    }
+
     /**
      * 移除Task
      *
@@ -440,11 +549,24 @@ public class Scheduler implements Serializable {
         try {
             checkStarted();
 
+            if (null == this.threadExecutor && this.config.virtual) {
+                this.threadExecutor = newVirtualExecutor();
+            }
             if (null == this.threadExecutor) {
-                // 无界线程池，确保每一个需要执行的线程都可以及时运行，同时复用已有线程避免线程重复创建
-                this.threadExecutor = ExecutorBuilder.of().useSynchronousQueue().setThreadFactory(//
-                        ThreadBuilder.of().setNamePrefix("exec-cron-").setDaemon(this.daemon).build()//
-                ).build();
+                if (this.config.poolSize > 0) {
+                    // 有界线程池，超出容量的任务被拒绝并记为错过执行
+                    this.threadExecutor = ExecutorBuilder.of()
+                            .setCorePoolSize(this.config.poolSize)
+                            .setMaxPoolSize(this.config.poolSize)
+                            .setWorkQueue(new LinkedBlockingQueue<>(Math.max(1, this.config.queueSize)))
+                            .setThreadFactory(ThreadBuilder.of().setNamePrefix("exec-cron-").setDaemon(this.daemon).build())
+                            .build();
+                } else {
+                    // 无界线程池，确保每一个需要执行的线程都可以及时运行，同时复用已有线程避免线程重复创建
+                    this.threadExecutor = ExecutorBuilder.of().useSynchronousQueue().setThreadFactory(//
+                            ThreadBuilder.of().setNamePrefix("exec-cron-").setDaemon(this.daemon).build()//
+                    ).build();
+                }
             }
             this.supervisor = new Supervisor(this);
             this.manager = new Manager(this);
@@ -488,6 +610,7 @@ public class Scheduler implements Serializable {
             // 停止CronTimer
             this.timer.stopTimer();
             this.timer = null;
+            this.supervisor.shutdown();
 
             //停止线程池
             this.threadExecutor.shutdown();
@@ -506,6 +629,21 @@ public class Scheduler implements Serializable {
         return this;
     }
 
+    /**
+     * 创建每个任务一个虚拟线程的执行器，运行环境不支持时返回{@code null}
+     * 虚拟线程始终为守护线程
+     *
+     * @return {@link ExecutorService}
+     */
+    private ExecutorService newVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            Logger.warn("Virtual threads are not supported, fall back to the default pool.");
+            return null;
+        }
+    }
+
     /**
      * 检查定时任务是否已经启动
      *
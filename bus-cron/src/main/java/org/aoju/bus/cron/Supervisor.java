@@ -25,12 +25,19 @@
  ********************************************************************************/
 package org.aoju.bus.cron;
 
+import org.aoju.bus.core.thread.ExecutorBuilder;
+import org.aoju.bus.core.thread.ThreadBuilder;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 作业启动管理器
+ * 启动器在独立的线程中按计时点顺序执行，不与作业争用线程池
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -42,10 +49,20 @@ public class Supervisor implements Serializable {
      * 启动器列表
      */
     protected final List<Launcher> launchers = new ArrayList<>();
+    /**
+     * 启动器线程
+     */
+    protected final transient ExecutorService launcherExecutor;
     protected Scheduler scheduler;
 
     public Supervisor(Scheduler scheduler) {
         this.scheduler = scheduler;
+        this.launcherExecutor = ExecutorBuilder.of()
+                .setCorePoolSize(1)
+                .setMaxPoolSize(1)
+                .setWorkQueue(new LinkedBlockingQueue<>())
+                .setThreadFactory(ThreadBuilder.of().setNamePrefix("launch-cron-").setDaemon(scheduler.daemon).build())
+                .build();
     }
 
     /**
@@ -59,11 +76,22 @@ public class Supervisor implements Serializable {
         synchronized (this.launchers) {
             this.launchers.add(launcher);
         }
-        // 子线程是否为daemon线程取决于父线程，因此此处无需显示调用
-        this.scheduler.threadExecutor.execute(launcher);
+        try {
+            this.launcherExecutor.execute(launcher);
+        } catch (RejectedExecutionException e) {
+            // 已停止
+            notifyLauncherCompleted(launcher);
+        }
         return launcher;
     }
 
+    /**
+     * 停止启动器线程，已提交的计时点不再匹配
+     */
+    protected void shutdown() {
+        this.launcherExecutor.shutdownNow();
+    }
+
     /**
      * 启动器启动完毕,启动完毕后从执行器列表中移除
      *
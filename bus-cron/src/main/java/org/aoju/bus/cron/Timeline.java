@@ -0,0 +1,205 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.cron;
+
+import org.aoju.bus.cron.factory.Task;
+import org.aoju.bus.cron.pattern.CronPattern;
+
+import java.util.*;
+
+/**
+ * 定时任务触发时间索引
+ * 通过{@link CronPattern#nextMatchAfter(Calendar)}计算每个任务的下一次触发时间并放入优先队列，
+ * 每次计时只处理到期的任务，无需逐个匹配全部表达式
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+class Timeline {
+
+    /**
+     * 时区
+     */
+    final TimeZone timezone;
+    /**
+     * 是否匹配秒
+     */
+    final boolean matchSecond;
+    /**
+     * 计时单元，秒或分的毫秒数
+     */
+    private final long unit;
+    /**
+     * 按下一次触发时间排序的队列，移除的任务延迟出队
+     */
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.next));
+    /**
+     * ID与任务的对应关系
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+    /**
+     * 上一次处理的计时点
+     */
+    private long last;
+
+    /**
+     * 构造
+     *
+     * @param timezone    时区
+     * @param matchSecond 是否匹配秒
+     * @param millis      当前时间毫秒数，此时间之后的计时点开始触发
+     */
+    Timeline(TimeZone timezone, boolean matchSecond, long millis) {
+        this.timezone = timezone;
+        this.matchSecond = matchSecond;
+        this.unit = matchSecond ? 1000L : 60_000L;
+        this.last = floor(millis);
+    }
+
+    /**
+     * 加入任务
+     *
+     * @param id      ID
+     * @param pattern {@link CronPattern}
+     * @param task    {@link Task}
+     */
+    synchronized void add(String id, CronPattern pattern, Task task) {
+        final Entry entry = new Entry(id, pattern, task);
+        entry.next = nextTick(pattern, last);
+        final Entry old = entries.put(id, entry);
+        if (null != old) {
+            old.removed = true;
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * 移除任务
+     *
+     * @param id ID
+     */
+    synchronized void remove(String id) {
+        final Entry old = entries.remove(id);
+        if (null != old) {
+            old.removed = true;
+        }
+    }
+
+    /**
+     * 取出在给定时间所在计时点到期的任务，并计算其下一次触发时间
+     *
+     * @param millis 时间毫秒数
+     * @return 到期的任务
+     */
+    synchronized List<Entry> poll(long millis) {
+        final long tick = floor(millis);
+        if (tick < last) {
+            // 时钟回拨，按当前时间重新计算
+            queue.clear();
+            for (Entry entry : entries.values()) {
+                entry.next = nextTick(entry.pattern, tick - unit);
+                queue.add(entry);
+            }
+        }
+        last = tick;
+
+        final List<Entry> due = new ArrayList<>();
+        Entry entry;
+        while (null != (entry = queue.peek()) && entry.next <= tick) {
+            queue.poll();
+            if (entry.removed) {
+                continue;
+            }
+            if (entry.next < tick) {
+                // 错过的计时点不补偿触发
+                entry.next = nextTick(entry.pattern, tick - unit);
+                if (entry.next > tick) {
+                    queue.add(entry);
+                    continue;
+                }
+            }
+            if (entry.pattern.match(timezone, millis, matchSecond)) {
+                due.add(entry);
+            }
+            entry.next = nextTick(entry.pattern, tick);
+            queue.add(entry);
+        }
+        return due;
+    }
+
+    /**
+     * 计算给定计时点之后的第一个匹配计时点
+     *
+     * @param pattern {@link CronPattern}
+     * @param after   计时点
+     * @return 下一个计时点，无匹配返回{@link Long#MAX_VALUE}
+     */
+    private long nextTick(CronPattern pattern, long after) {
+        final Calendar calendar = Calendar.getInstance(timezone);
+        calendar.setTimeInMillis(after + unit);
+        final Calendar next;
+        try {
+            next = pattern.nextMatchAfter((Calendar) calendar.clone());
+        } catch (RuntimeException e) {
+            // 无法计算时退化为逐个计时点检查
+            return after + unit;
+        }
+        if (null == next) {
+            return Long.MAX_VALUE;
+        }
+        final long tick = floor(next.getTimeInMillis());
+        return tick > after ? tick : after + unit;
+    }
+
+    /**
+     * 向下取整到计时点
+     *
+     * @param millis 时间毫秒数
+     * @return 计时点
+     */
+    private long floor(long millis) {
+        return millis - Math.floorMod(millis, unit);
+    }
+
+    /**
+     * 索引中的任务
+     */
+    static class Entry {
+
+        final String id;
+        final CronPattern pattern;
+        final Task task;
+        long next;
+        boolean removed;
+
+        Entry(String id, CronPattern pattern, Task task) {
+            this.id = id;
+            this.pattern = pattern;
+            this.task = task;
+        }
+    }
+
+}
@@ -50,4 +50,9 @@ public class SimpleTaskListener implements TaskListener {
 
     }
 
+    @Override
+    public void onMisfired(Executor executor) {
+
+    }
+
 }
@@ -58,4 +58,13 @@ public interface TaskListener {
      */
     void onFailed(Executor executor, Throwable exception);
 
+    /**
+     * 任务错过执行时触发，包括因执行规则跳过及线程池拒绝的执行
+     *
+     * @param executor {@link Executor}，未被执行
+     */
+    default void onMisfired(Executor executor) {
+
+    }
+
 }
@@ -100,6 +100,19 @@ public class TaskListenerManager implements Serializable {
         }
     }
 
+    /**
+     * 通知所有监听任务错过执行
+     *
+     * @param executor {@link Executor}
+     */
+    public void notifyTaskMisfired(Executor executor) {
+        synchronized (listeners) {
+            for (TaskListener listener : listeners) {
+                listener.onMisfired(executor);
+            }
+        }
+    }
+
     /**
      * 通知所有监听任务启动器结束并失败
      * 无监听将打印堆栈到命令行
@@ -305,14 +305,19 @@ public class CronPattern {
      * 返回匹配到的下一个时间
      *
      * @param calendar 时间
-     * @return 匹配到的下一个时间
+     * @return 匹配到的下一个时间，无匹配返回{@code null}
      */
     public Calendar nextMatchAfter(Calendar calendar) {
+        final int maxYear = calendar.get(Calendar.YEAR) + 8;
         Calendar next = nextMatchAfter(getFields(calendar, true), calendar.getTimeZone());
-        if (false == match(next, true)) {
+        // 逐日向后查找，8年内(覆盖闰年周期)无匹配则认为不会再匹配
+        while (false == match(next, true)) {
+            if (next.get(Calendar.YEAR) > maxYear) {
+                return null;
+            }
             next.set(Calendar.DAY_OF_MONTH, next.get(Calendar.DAY_OF_MONTH) + 1);
             next = Almanac.beginOfDay(next);
-            return nextMatchAfter(next);
+            next = nextMatchAfter(getFields(next, true), next.getTimeZone());
         }
         return next;
     }
@@ -25,6 +25,7 @@
  ********************************************************************************/
 package org.aoju.bus.cron.pattern.matcher;
 
+import org.aoju.bus.core.lang.Fields;
 import org.aoju.bus.cron.pattern.Part;
 
 import java.time.Year;
@@ -165,6 +166,12 @@ public class PatternMatcher {
         calendar.set(Calendar.MILLISECOND, 0);
 
         final int[] newValues = nextMatchValuesAfter(values);
+        // 最后一天（31）在天数较少的月份修正为当月最后一天，月份进位到下一年时交由日历处理
+        final int month = newValues[Part.MONTH.ordinal()];
+        final int lastDay = month <= 12 ? getLastDay(newValues) : 31;
+        if (newValues[Part.DAY_OF_MONTH.ordinal()] > lastDay && matchers[Part.DAY_OF_MONTH.ordinal()].test(31)) {
+            newValues[Part.DAY_OF_MONTH.ordinal()] = lastDay;
+        }
         for (int i = 0; i < newValues.length; i++) {
             // 周无需设置
             if (i != Part.DAY_OF_WEEK.ordinal()) {
@@ -205,6 +212,13 @@ public class PatternMatcher {
                 continue;
             }
             nextValue = matchers[i].nextAfter(values[i]);
+            if (i == Part.DAY_OF_MONTH.ordinal()) {
+                final int lastDay = getLastDay(values);
+                if (nextValue > lastDay) {
+                    // 超出当月天数：表达式包含最后一天则取当月最后一天，否则回退到月份查找
+                    nextValue = (matchers[i].test(31) && values[i] <= lastDay) ? lastDay : 0;
+                }
+            }
             if (nextValue > values[i]) {
                 // 此部分正常获取新值，结束循环，后续的部分置最小值
                 newValues[i] = nextValue;
@@ -229,6 +243,12 @@ public class PatternMatcher {
                     continue;
                 }
                 nextValue = matchers[i].nextAfter(values[i] + 1);
+                if (i == Part.DAY_OF_MONTH.ordinal()) {
+                    final int lastDay = getLastDay(values);
+                    if (nextValue > lastDay) {
+                        nextValue = (matchers[i].test(31) && values[i] < lastDay) ? lastDay : 0;
+                    }
+                }
                 if (nextValue > values[i]) {
                     newValues[i] = nextValue;
                     i--;
@@ -243,6 +263,16 @@ public class PatternMatcher {
         return newValues;
     }
 
+    /**
+     * 获取字段值对应月份的最后一天
+     *
+     * @param values 时间字段值，{second, minute, hour, dayOfMonth, month, dayOfWeek, year}
+     * @return 最后一天
+     */
+    private static int getLastDay(int[] values) {
+        return Fields.Month.getLastDay(values[Part.MONTH.ordinal()] - 1, Year.isLeap(values[Part.YEAR.ordinal()]));
+    }
+
     /**
      * 设置从{@link Part#SECOND}到指定部分，全部设置为最小值
      *
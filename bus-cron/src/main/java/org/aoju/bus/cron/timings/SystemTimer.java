@@ -25,14 +25,25 @@
  ********************************************************************************/
 package org.aoju.bus.cron.timings;
 
+import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.toolkit.ThreadKit;
+import org.aoju.bus.logger.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * 系统计时器
+ * 时间槽放满后任务进入上层时间轮，层数按需增长；到期的时间槽一次性取出，
+ * 过期任务按批次交由执行器执行
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -49,11 +60,56 @@ public class SystemTimer {
      */
     private final DelayQueue<TimerTaskList> delayQueue = new DelayQueue<>();
 
+    /**
+     * 过期任务执行器
+     */
+    private final Executor executor;
+
+    /**
+     * 添加任务与推进时间互斥，添加任务之间并发
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 本轮过期任务，仅在轮询线程中使用
+     */
+    private final List<TimerTask> expired = new ArrayList<>();
+
+    /**
+     * 已添加任务数
+     */
+    private final LongAdder addedCount = new LongAdder();
+    /**
+     * 已执行任务数
+     */
+    private final LongAdder expiredCount = new LongAdder();
+    /**
+     * 已取消任务数
+     */
+    private final LongAdder cancelledCount = new LongAdder();
+    /**
+     * 被执行器拒绝的任务数
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+    /**
+     * 执行延迟总和，单位毫秒
+     */
+    private final LongAdder totalLatency = new LongAdder();
+    /**
+     * 最大执行延迟，单位毫秒
+     */
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
     /**
      * 执行队列取元素超时时长，单位毫秒，默认100
      */
     private long delayQueueTimeout = 100;
 
+    /**
+     * 每批交由执行器的任务数，默认1，即每个任务单独执行
+     */
+    private int batchSize = 1;
+
     /**
      * 轮询delayQueue获取过期任务线程
      */
@@ -63,7 +119,22 @@ public class SystemTimer {
      * 构造
      */
     public SystemTimer() {
-        timeWheel = new TimingWheel(1, 20, delayQueue::offer);
+        this(1, 20, ThreadKit::execute);
+    }
+
+    /**
+     * 构造
+     *
+     * @param tickMs    一个时间槽的范围，单位毫秒
+     * @param wheelSize 时间轮大小
+     * @param executor  过期任务执行器
+     */
+    public SystemTimer(long tickMs, int wheelSize, Executor executor) {
+        Assert.isTrue(tickMs > 0, "TickMs must be positive");
+        Assert.isTrue(wheelSize > 0, "WheelSize must be positive");
+        Assert.notNull(executor, "Executor must not be null");
+        this.timeWheel = new TimingWheel(tickMs, wheelSize, delayQueue::offer);
+        this.executor = executor;
     }
 
     /**
@@ -77,6 +148,18 @@ public class SystemTimer {
         return this;
     }
 
+    /**
+     * 设置每批交由执行器的任务数，同批任务在执行器的一个线程中顺序执行
+     *
+     * @param batchSize 每批任务数
+     * @return this
+     */
+    public SystemTimer setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "BatchSize must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
     /**
      * 启动，异步
      *
@@ -98,7 +181,20 @@ public class SystemTimer {
      * 强制结束
      */
     public void stop() {
-        this.bossThreadPool.shutdown();
+        this.bossThreadPool.shutdownNow();
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param task    任务
+     * @param delayMs 延迟毫秒数
+     * @return 延迟任务，可用于取消
+     */
+    public TimerTask addTask(Runnable task, long delayMs) {
+        final TimerTask timerTask = new TimerTask(task, delayMs);
+        addTask(timerTask);
+        return timerTask;
     }
 
     /**
@@ -107,14 +203,92 @@ public class SystemTimer {
      * @param timerTask 任务
      */
     public void addTask(TimerTask timerTask) {
+        addedCount.increment();
+        final boolean added;
+        lock.readLock().lock();
+        try {
+            added = timeWheel.addTask(timerTask);
+        } finally {
+            lock.readLock().unlock();
+        }
         // 添加失败任务直接执行
-        if (false == timeWheel.addTask(timerTask)) {
-            ThreadKit.execAsync(timerTask.getTask());
+        if (false == added) {
+            execute(new TimerTask[]{timerTask});
+        }
+    }
+
+    /**
+     * 取消任务
+     *
+     * @param timerTask 任务
+     * @return 是否取消成功，任务已开始执行时返回false
+     */
+    public boolean cancel(TimerTask timerTask) {
+        if (timerTask.cancel()) {
+            cancelledCount.increment();
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * 已添加任务数
+     *
+     * @return 任务数
+     */
+    public long getAddedCount() {
+        return addedCount.sum();
+    }
+
+    /**
+     * 已执行任务数
+     *
+     * @return 任务数
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * 通过{@link #cancel(TimerTask)}取消的任务数
+     *
+     * @return 任务数
+     */
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    /**
+     * 被执行器拒绝的任务数
+     *
+     * @return 任务数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 平均执行延迟，即任务实际开始执行时间与到期时间之差，单位毫秒
+     *
+     * @return 平均执行延迟
+     */
+    public double getAverageLatency() {
+        final long count = expiredCount.sum();
+        return count == 0 ? 0 : (double) totalLatency.sum() / count;
+    }
+
+    /**
+     * 最大执行延迟，单位毫秒
+     *
+     * @return 最大执行延迟
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
     }
 
     /**
      * 指针前进并获取过期任务
+     * 取到一个到期时间槽后，将同时到期的时间槽一并取出，只加锁一次
      *
      * @return 是否结束
      */
@@ -122,10 +296,19 @@ public class SystemTimer {
         try {
             TimerTaskList timerTaskList = poll();
             if (null != timerTaskList) {
-                // 推进时间
-                timeWheel.advanceClock(timerTaskList.getExpire());
-                // 执行过期任务（包含降级操作）
-                timerTaskList.flush(this::addTask);
+                lock.writeLock().lock();
+                try {
+                    while (null != timerTaskList) {
+                        // 推进时间
+                        timeWheel.advanceClock(timerTaskList.getExpire());
+                        // 收集过期任务（包含降级操作）
+                        timerTaskList.flush(this::reinsert);
+                        timerTaskList = delayQueue.poll();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                dispatch();
             }
         } catch (InterruptedException ignore) {
             return false;
@@ -133,6 +316,72 @@ public class SystemTimer {
         return true;
     }
 
+    /**
+     * 重新放入时间轮，已过期的任务放入待执行列表
+     *
+     * @param timerTask 任务
+     */
+    private void reinsert(TimerTask timerTask) {
+        if (false == timerTask.isCancelled() && false == timeWheel.addTask(timerTask)) {
+            expired.add(timerTask);
+        }
+    }
+
+    /**
+     * 将本轮过期任务按批次交由执行器
+     */
+    private void dispatch() {
+        final int size = expired.size();
+        for (int from = 0; from < size; from += batchSize) {
+            execute(expired.subList(from, Math.min(size, from + batchSize)).toArray(new TimerTask[0]));
+        }
+        expired.clear();
+    }
+
+    /**
+     * 交由执行器执行一批任务
+     *
+     * @param batch 任务
+     */
+    private void execute(TimerTask[] batch) {
+        try {
+            executor.execute(() -> run(batch));
+        } catch (RejectedExecutionException e) {
+            // 已取消的任务计入取消数，其余计入拒绝数
+            int rejected = 0;
+            for (TimerTask timerTask : batch) {
+                if (timerTask.expire()) {
+                    rejected++;
+                }
+            }
+            rejectedCount.add(rejected);
+            Logger.warn("Timer rejected {} expired tasks: {}", rejected, e.getMessage());
+        }
+    }
+
+    /**
+     * 顺序执行一批任务并记录延迟，延迟按每个任务开始执行的时间计算
+     *
+     * @param batch 任务
+     */
+    private void run(TimerTask[] batch) {
+        for (TimerTask timerTask : batch) {
+            if (false == timerTask.expire()) {
+                // 已取消
+                continue;
+            }
+            final long latency = Math.max(0, System.currentTimeMillis() - timerTask.getDelayMs());
+            totalLatency.add(latency);
+            maxLatency.accumulate(latency);
+            expiredCount.increment();
+            try {
+                timerTask.getTask().run();
+            } catch (Throwable e) {
+                Logger.error(e, "Timer task [{}] failed", timerTask);
+            }
+        }
+    }
+
     /**
      * 执行队列取任务列表
      *
@@ -25,6 +25,8 @@
  ********************************************************************************/
 package org.aoju.bus.cron.timings;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * 延迟任务
  *
@@ -33,6 +35,19 @@ package org.aoju.bus.cron.timings;
  */
 public class TimerTask {
 
+    /**
+     * 状态：等待到期
+     */
+    private static final int PENDING = 0;
+    /**
+     * 状态：已取消
+     */
+    private static final int CANCELLED = 1;
+    /**
+     * 状态：已开始执行
+     */
+    private static final int EXPIRED = 2;
+
     /**
      * 延迟时间
      */
@@ -47,9 +62,13 @@ public class TimerTask {
      */
     public String desc;
     /**
-     * 时间槽
+     * 时间槽，任务在时间轮间降级时会变更
+     */
+    protected volatile TimerTaskList timerTaskList;
+    /**
+     * 任务状态，取消与开始执行互斥，只有一方可以成功
      */
-    protected TimerTaskList timerTaskList;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
     /**
      * 下一个节点
      */
@@ -88,6 +107,43 @@ public class TimerTask {
         return delayMs;
     }
 
+    /**
+     * 取消任务，直接从所在时间槽的双向链表中摘除，无需遍历
+     * 已到期但尚未开始执行的任务也可取消，已开始执行的任务无法取消
+     *
+     * @return 是否取消成功，任务已开始执行或已取消时返回false
+     */
+    public boolean cancel() {
+        if (false == state.compareAndSet(PENDING, CANCELLED)) {
+            return false;
+        }
+        // 降级过程中任务可能被移动到其它时间槽，直到不在任何时间槽中为止
+        TimerTaskList list = this.timerTaskList;
+        while (null != list) {
+            list.removeTask(this);
+            list = this.timerTaskList;
+        }
+        return true;
+    }
+
+    /**
+     * 是否已取消
+     *
+     * @return 是否已取消
+     */
+    public boolean isCancelled() {
+        return CANCELLED == state.get();
+    }
+
+    /**
+     * 标记任务开始执行，此后无法取消
+     *
+     * @return 是否标记成功，任务已取消时返回false
+     */
+    boolean expire() {
+        return state.compareAndSet(PENDING, EXPIRED);
+    }
+
     @Override
     public String toString() {
         return desc;
@@ -85,7 +85,7 @@ public class TimerTaskList implements Delayed {
      */
     public void addTask(TimerTask timerTask) {
         synchronized (this) {
-            if (timerTask.timerTaskList == null) {
+            if (timerTask.timerTaskList == null && false == timerTask.isCancelled()) {
                 timerTask.timerTaskList = this;
                 TimerTask tail = root.prev;
                 timerTask.next = root;
@@ -100,8 +100,9 @@ public class TimerTaskList implements Delayed {
      * 移除任务
      *
      * @param timerTask 任务
+     * @return 是否移除
      */
-    public void removeTask(TimerTask timerTask) {
+    public boolean removeTask(TimerTask timerTask) {
         synchronized (this) {
             if (this.equals(timerTask.timerTaskList)) {
                 timerTask.next.prev = timerTask.prev;
@@ -109,8 +110,10 @@ public class TimerTaskList implements Delayed {
                 timerTask.timerTaskList = null;
                 timerTask.next = null;
                 timerTask.prev = null;
+                return true;
             }
         }
+        return false;
     }
 
     /**
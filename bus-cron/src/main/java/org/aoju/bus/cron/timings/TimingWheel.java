@@ -25,8 +25,6 @@
  ********************************************************************************/
 package org.aoju.bus.cron.timings;
 
-import org.aoju.bus.logger.Logger;
-
 import java.util.function.Consumer;
 
 /**
@@ -65,7 +63,7 @@ public class TimingWheel {
     /**
      * 当前时间，指向当前操作的时间格，代表当前时间
      */
-    private long currentTime;
+    private volatile long currentTime;
     /**
      * 上层时间轮
      */
@@ -95,6 +93,10 @@ public class TimingWheel {
         this.wheelSize = wheelSize;
         this.interval = tickMs * wheelSize;
         this.timerTaskLists = new TimerTaskList[wheelSize];
+        // 预先创建时间槽，避免并发添加任务时重复创建
+        for (int i = 0; i < wheelSize; i++) {
+            this.timerTaskLists[i] = new TimerTaskList();
+        }
         // currentTime为tickMs的整数倍 这里做取整操作
         this.currentTime = currentTime - (currentTime % tickMs);
         this.consumer = consumer;
@@ -115,13 +117,7 @@ public class TimingWheel {
             // 当前时间轮可以容纳该任务 加入时间槽
             long virtualId = expiration / tickMs;
             int index = (int) (virtualId % wheelSize);
-            Logger.debug("TickMs: {} ------index: {} ------expiration: {}", tickMs, index, expiration);
-
             TimerTaskList timerTaskList = timerTaskLists[index];
-            if (null == timerTaskList) {
-                timerTaskList = new TimerTaskList();
-                timerTaskLists[index] = timerTaskList;
-            }
             timerTaskList.addTask(timerTask);
             if (timerTaskList.setExpiration(virtualId * tickMs)) {
                 // 添加到delayQueue中
@@ -0,0 +1,138 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support;
+
+import org.aoju.bus.limiter.support.peak.jdk.JdkPeakLimiter;
+import org.aoju.bus.limiter.support.rate.jdk.JdkRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地限流基准, 速率足够大, 每次获取都成功, 只测量注册表查找与限流桶的开销;
+ * allocatingKey 为按键与参数新建键对象再查找的做法, 作为对照
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=LimiterBenchmark
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LimiterBenchmark {
+
+    private static final double RATE = 1e9;
+
+    private static final long CAPACITY = 1_000_000;
+
+    private final String key = "order:create";
+
+    private JdkRateLimiter tokenBucket;
+
+    private JdkRateLimiter windowCounter;
+
+    private JdkRateLimiter windowLog;
+
+    private JdkPeakLimiter peak;
+
+    private ConcurrentMap<Object, Object> keyed;
+
+    @Setup
+    public void setup() {
+        tokenBucket = new JdkRateLimiter("token", 1, TimeUnit.MINUTES, JdkRateLimiter.Algorithm.TOKEN_BUCKET);
+        windowCounter = new JdkRateLimiter("counter", 1, TimeUnit.MINUTES, JdkRateLimiter.Algorithm.SLIDING_WINDOW_COUNTER);
+        windowLog = new JdkRateLimiter("log", 1, TimeUnit.MINUTES, JdkRateLimiter.Algorithm.SLIDING_WINDOW_LOG);
+        peak = new JdkPeakLimiter("peak");
+        keyed = new ConcurrentHashMap<>();
+        keyed.put(new CacheKey(key, RATE, CAPACITY, 0), Boolean.TRUE);
+    }
+
+    @Benchmark
+    public boolean tokenBucket() {
+        return tokenBucket.acquire(key, RATE, CAPACITY);
+    }
+
+    @Benchmark
+    public boolean slidingWindowCounter() {
+        return windowCounter.acquire(key, RATE, CAPACITY);
+    }
+
+    @Benchmark
+    public boolean slidingWindowLog() {
+        return windowLog.acquire(key, RATE, CAPACITY);
+    }
+
+    @Benchmark
+    public boolean peakAcquireRelease() {
+        boolean acquired = peak.acquire(key, Integer.MAX_VALUE);
+        peak.release(key, Integer.MAX_VALUE);
+        return acquired;
+    }
+
+    @Benchmark
+    public Object allocatingKey() {
+        return keyed.get(new CacheKey(key, RATE, CAPACITY, 0));
+    }
+
+    private static class CacheKey {
+
+        private final Object key;
+        private final double rate;
+        private final long capacity;
+        private final long warmUp;
+
+        CacheKey(Object key, double rate, long capacity, long warmUp) {
+            this.key = key;
+            this.rate = rate;
+            this.capacity = capacity;
+            this.warmUp = warmUp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (null == o || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return Double.compare(cacheKey.rate, rate) == 0 &&
+                    capacity == cacheKey.capacity &&
+                    warmUp == cacheKey.warmUp &&
+                    Objects.equals(key, cacheKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, rate, capacity, warmUp);
+        }
+    }
+
+}
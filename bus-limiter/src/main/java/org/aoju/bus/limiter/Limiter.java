@@ -62,4 +62,17 @@ public interface Limiter<T extends Annotation> {
      */
     void release(Object key, Map<String, Object> args);
 
+    /**
+     * 方法执行完成后释放限制,附带执行耗时与异常
+     * 自适应限制器据此调整限制,其它限制器与{@link #release(Object, Map)}相同
+     *
+     * @param key       键
+     * @param args      参数
+     * @param elapsed   执行耗时,单位纳秒
+     * @param throwable 执行异常,正常返回时为null
+     */
+    default void release(Object key, Map<String, Object> args, long elapsed, Throwable throwable) {
+        release(key, args);
+    }
+
 }
@@ -66,4 +66,12 @@ public @interface RateLimiter {
      */
     long capacity() default 10;
 
+    /**
+     * 预热时长，单位毫秒，默认0不预热
+     * 令牌桶满(冷启动)时令牌按更高代价消耗，突发量与速率降低，仅JDK令牌桶支持
+     *
+     * @return the long
+     */
+    long warmUp() default 0;
+
 }
@@ -26,7 +26,6 @@
 package org.aoju.bus.limiter.execute;
 
 import org.aoju.bus.core.lang.Assert;
-import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.toolkit.CollKit;
 import org.aoju.bus.core.toolkit.ObjectKit;
 import org.aoju.bus.core.toolkit.StringKit;
@@ -70,6 +69,8 @@ public class LimiterExecutionContext {
 
     private Throwable throwable;
 
+    private long limitedAt;
+
     public LimiterExecutionContext(LimitedResourceMetadata metadata, Object[] args, Object target, BeanFactory beanFactory) {
         this.metadata = metadata;
         this.args = extractArgs(metadata.getTargetMethod(), args);
@@ -90,6 +91,7 @@ public class LimiterExecutionContext {
 
     public boolean limit() {
         boolean ret;
+        this.limitedAt = System.nanoTime();
         try {
             ret = this.metadata.getLimiter().limit(this.key, this.metadata.getLimiterParameters());
         } catch (Throwable throwable) {
@@ -107,6 +109,11 @@ public class LimiterExecutionContext {
         this.metadata.getLimiter().release(this.key, this.metadata.getLimiterParameters());
     }
 
+    public void release(Throwable throwable) {
+        this.metadata.getLimiter().release(this.key, this.metadata.getLimiterParameters(),
+                System.nanoTime() - this.limitedAt, throwable);
+    }
+
     public Object getFallbackResult() {
         return fallbackResult;
     }
@@ -131,8 +138,7 @@ public class LimiterExecutionContext {
             Assert.notNull(evalKey, "key值计算为null!");
             return evalKey;
         }
-        return this.metadata.getTargetClass().getName() + Symbol.SHAPE +
-                this.metadata.getTargetMethod().getName();
+        return this.metadata.getDefaultKey();
 
     }
 
@@ -82,12 +82,14 @@ public abstract class LimiterAspectSupport implements BeanFactoryAware, Initiali
                     Collection<LimiterExecutionContext> contexts = getLimiterOperationContexts(limitedResources, method, args, target, targetClass);
                     LimitContextsValueWrapper limitContextsValueWrapper = limitContexts(contexts);
                     if (limitContextsValueWrapper.value()) {
+                        Throwable throwable = null;
                         try {
                             return invocation.proceed();
                         } catch (Throwable e) {
+                            throwable = e;
                             throw e;
                         } finally {
-                            releaseContexts(contexts);
+                            releaseContexts(contexts, throwable);
                         }
                     } else {
                         return limitContextsValueWrapper.getLimiterFailResolveResult();
@@ -133,6 +135,14 @@ public abstract class LimiterAspectSupport implements BeanFactoryAware, Initiali
         }
     }
 
+    protected void releaseContexts(Collection<LimiterExecutionContext> contexts, Throwable throwable) {
+        if (null != contexts && !contexts.isEmpty()) {
+            for (LimiterExecutionContext context : contexts) {
+                context.release(throwable);
+            }
+        }
+    }
+
 
     protected Collection<LimiterExecutionContext> getLimiterOperationContexts(Collection<LimitedResource> limitedResources, Method method, Object[] args, Object target, Class<?> targetClass) {
         Collection<LimiterExecutionContext> retVal = new ArrayList<>();
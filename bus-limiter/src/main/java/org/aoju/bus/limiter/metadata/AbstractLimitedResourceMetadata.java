@@ -25,6 +25,7 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.metadata;
 
+import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.toolkit.AnnoKit;
 import org.aoju.bus.core.toolkit.CollKit;
 import org.aoju.bus.limiter.Handler;
@@ -64,12 +65,14 @@ public abstract class AbstractLimitedResourceMetadata<T extends LimitedResource>
 
     private Method targetMethod;
 
+    private Object defaultKey;
 
     public AbstractLimitedResourceMetadata(T limitedResource, Class<?> targetClass, Method targetMethod, BeanFactory beanFactory) {
         this.limitedResource = limitedResource;
         this.beanFactory = beanFactory;
         this.targetClass = targetClass;
         this.targetMethod = targetMethod;
+        this.defaultKey = targetClass.getName() + Symbol.SHAPE + targetMethod.getName();
         parse(limitedResource);
     }
 
@@ -135,6 +138,11 @@ public abstract class AbstractLimitedResourceMetadata<T extends LimitedResource>
         return limiterParameters;
     }
 
+    @Override
+    public Object getDefaultKey() {
+        return defaultKey;
+    }
+
     @Override
     public T getLimitedResource() {
         return this.limitedResource;
@@ -25,6 +25,7 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.metadata;
 
+import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.limiter.Handler;
 import org.aoju.bus.limiter.Injector;
 import org.aoju.bus.limiter.Limiter;
@@ -57,4 +58,13 @@ public interface LimitedResourceMetadata<T extends LimitedResource> {
 
     Map<String, Object> getLimiterParameters();
 
+    /**
+     * 未指定key时使用的默认键，即类名#方法名
+     *
+     * @return 默认键
+     */
+    default Object getDefaultKey() {
+        return getTargetClass().getName() + Symbol.SHAPE + getTargetMethod().getName();
+    }
+
 }
@@ -0,0 +1,167 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * 限流键注册表
+ * 命中时只有一次Map查找；过期清理按访问时间批量进行，
+ * 访问时间按粒度更新，热点键不会在每次调用时写共享变量
+ *
+ * @param <V> 限流对象类型
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class KeyRegistry<V> {
+
+    private final ConcurrentMap<Object, Entry<V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * 访问后过期时长，单位毫秒，不大于0时不过期
+     */
+    private final long expireAfterAccess;
+
+    /**
+     * 访问时间更新粒度，单位毫秒
+     */
+    private final long touchGranularity;
+
+    /**
+     * 下次清理时间
+     */
+    private final AtomicLong nextSweep;
+
+    /**
+     * 构造，不过期
+     */
+    public KeyRegistry() {
+        this(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 构造
+     *
+     * @param expireAfterAccess 访问后过期时长
+     * @param unit              时长单位
+     */
+    public KeyRegistry(long expireAfterAccess, TimeUnit unit) {
+        this.expireAfterAccess = unit.toMillis(expireAfterAccess);
+        this.touchGranularity = Math.max(1, this.expireAfterAccess >> 3);
+        this.nextSweep = new AtomicLong(System.currentTimeMillis() + this.expireAfterAccess);
+    }
+
+    /**
+     * 获取限流对象
+     *
+     * @param key 键
+     * @return 限流对象，不存在时返回null
+     */
+    public V get(Object key) {
+        Entry<V> entry = map.get(key);
+        if (null == entry) {
+            return null;
+        }
+        if (expireAfterAccess > 0) {
+            long now = System.currentTimeMillis();
+            entry.touch(now, touchGranularity);
+            sweep(now);
+        }
+        return entry.value;
+    }
+
+    /**
+     * 原子地创建或替换限流对象
+     *
+     * @param key      键
+     * @param function 参数为当前对象(可能为null)，返回新对象或原对象
+     * @return 限流对象
+     */
+    public V update(Object key, UnaryOperator<V> function) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = map.compute(key, (k, old) -> {
+            V value = function.apply(null == old ? null : old.value);
+            return null != old && old.value == value ? old : new Entry<>(value, now);
+        });
+        entry.touch(now, touchGranularity);
+        return entry.value;
+    }
+
+    /**
+     * 移除限流对象
+     *
+     * @param key 键
+     * @return 被移除的对象
+     */
+    public V remove(Object key) {
+        Entry<V> entry = map.remove(key);
+        return null == entry ? null : entry.value;
+    }
+
+    /**
+     * 当前键数量
+     *
+     * @return 键数量
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 到达清理时间时，由一个线程清理过期键
+     *
+     * @param now 当前时间
+     */
+    private void sweep(long now) {
+        long next = nextSweep.get();
+        if (now >= next && nextSweep.compareAndSet(next, now + expireAfterAccess)) {
+            map.values().removeIf(entry -> now - entry.access >= expireAfterAccess);
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private volatile long access;
+
+        Entry(V value, long access) {
+            this.value = value;
+            this.access = access;
+        }
+
+        void touch(long now, long granularity) {
+            if (now - access >= granularity) {
+                access = now;
+            }
+        }
+    }
+
+}
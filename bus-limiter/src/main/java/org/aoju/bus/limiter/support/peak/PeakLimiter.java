@@ -40,6 +40,18 @@ public abstract class PeakLimiter implements Limiter<Peak> {
 
     public abstract void release(Object key, int max);
 
+    /**
+     * 执行完成后释放，附带执行耗时与异常
+     *
+     * @param key       键
+     * @param max       最大并发数
+     * @param elapsed   执行耗时，单位纳秒
+     * @param throwable 执行异常，正常返回时为null
+     */
+    public void release(Object key, int max, long elapsed, Throwable throwable) {
+        release(key, max);
+    }
+
     @Override
     public boolean limit(Object key, Map<String, Object> args) {
         return acquire(key, (int) args.get("max"));
@@ -50,4 +62,9 @@ public abstract class PeakLimiter implements Limiter<Peak> {
         release(key, (int) args.get("max"));
     }
 
+    @Override
+    public void release(Object key, Map<String, Object> args, long elapsed, Throwable throwable) {
+        release(key, (int) args.get("max"), elapsed, throwable);
+    }
+
 }
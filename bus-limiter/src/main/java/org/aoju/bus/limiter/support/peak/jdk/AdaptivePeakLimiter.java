@@ -0,0 +1,301 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.peak.jdk;
+
+import org.aoju.bus.limiter.support.KeyRegistry;
+import org.aoju.bus.limiter.support.peak.PeakLimiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制
+ * 并发上限不再固定，按观测到的耗时与异常在 [minLimit, max] 之间调整，
+ * {@link org.aoju.bus.limiter.annotation.Peak#max()} 作为上限。
+ * 采样按窗口聚合，每个窗口调整一次：
+ * <ul>
+ *     <li>AIMD：窗口内有异常或超时则乘性减小，并发已用满一半以上则加一</li>
+ *     <li>GRADIENT：以长期平均耗时与窗口平均耗时之比作为梯度，耗时上升时减小，
+ *     不变时按sqrt(limit)留出排队余量缓慢增长；异常时乘性减小</li>
+ * </ul>
+ * 并发上限按键及最大并发数注册，注册表按键保存最大并发数不同的上限链表
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class AdaptivePeakLimiter extends PeakLimiter {
+
+    /**
+     * 每个窗口最少样本数
+     */
+    private static final int MIN_SAMPLES = 10;
+
+    /**
+     * 乘性减小系数
+     */
+    private static final double BACKOFF = 0.9;
+
+    private final String limiterName;
+
+    private final Algorithm algorithm;
+
+    private final int initialLimit;
+
+    private final int minLimit;
+
+    /**
+     * 超时时长，超过视为异常，单位纳秒
+     */
+    private final long timeout;
+
+    /**
+     * 采样窗口，单位纳秒
+     */
+    private final long window;
+
+    private final KeyRegistry<Limit> registry = new KeyRegistry<>();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptivePeakLimiter(String limiterName) {
+        this(limiterName, Algorithm.GRADIENT, 10, 1, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param limiterName  名称
+     * @param algorithm    调整算法
+     * @param initialLimit 初始并发上限
+     * @param minLimit     最小并发上限
+     * @param timeout      超时时长，超过视为异常
+     * @param unit         时长单位
+     */
+    public AdaptivePeakLimiter(String limiterName, Algorithm algorithm, int initialLimit, int minLimit, long timeout, TimeUnit unit) {
+        this.limiterName = limiterName;
+        this.algorithm = algorithm;
+        this.initialLimit = Math.max(1, initialLimit);
+        this.minLimit = Math.max(1, minLimit);
+        this.timeout = unit.toNanos(timeout);
+        this.window = TimeUnit.MILLISECONDS.toNanos(100);
+    }
+
+    @Override
+    public boolean acquire(Object key, int max) {
+        Limit limit = find(registry.get(key), max);
+        if (null == limit) {
+            limit = find(registry.update(key, old -> null != find(old, max) ? old : new Limit(max, old)), max);
+        }
+        if (limit.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    @Override
+    public void release(Object key, int max) {
+        Limit limit = find(registry.get(key), max);
+        if (null != limit) {
+            limit.inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void release(Object key, int max, long elapsed, Throwable throwable) {
+        Limit limit = find(registry.get(key), max);
+        if (null != limit) {
+            int inFlight = limit.inFlight.getAndDecrement();
+            limit.sample(elapsed, null != throwable || elapsed > timeout, inFlight);
+        }
+    }
+
+    @Override
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    /**
+     * 当前并发上限
+     *
+     * @param key 键
+     * @param max 最大并发数
+     * @return 并发上限，键不存在时为-1
+     */
+    public int getLimit(Object key, int max) {
+        Limit limit = find(registry.get(key), max);
+        return null == limit ? -1 : limit.limit;
+    }
+
+    /**
+     * 当前并发数
+     *
+     * @param key 键
+     * @param max 最大并发数
+     * @return 并发数，键不存在时为-1
+     */
+    public int getInFlight(Object key, int max) {
+        Limit limit = find(registry.get(key), max);
+        return null == limit ? -1 : limit.inFlight.get();
+    }
+
+    /**
+     * 在上限链表中查找最大并发数一致的上限
+     */
+    private static Limit find(Limit limit, int max) {
+        for (; null != limit; limit = limit.next) {
+            if (limit.max == max) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 被拒绝的次数
+     *
+     * @return 次数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 调整算法
+     */
+    public enum Algorithm {
+        /**
+         * 加性增、乘性减
+         */
+        AIMD,
+        /**
+         * 耗时梯度
+         */
+        GRADIENT
+    }
+
+    /**
+     * 单个键及最大并发数的并发上限，同一键下最大并发数不同的上限组成不可变链表
+     */
+    private class Limit {
+
+        private final int max;
+
+        private final Limit next;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private volatile int limit;
+
+        /**
+         * 上限的精确值，仅在同步块内访问
+         */
+        private double estimate;
+
+        /**
+         * 长期平均耗时，单位纳秒
+         */
+        private double longRtt;
+
+        private long windowStart = System.nanoTime();
+
+        private int samples;
+
+        private long rttSum;
+
+        private boolean dropped;
+
+        private int maxInFlight;
+
+        Limit(int max, Limit next) {
+            this.max = max;
+            this.next = next;
+            this.estimate = Math.min(max, Math.max(minLimit, initialLimit));
+            this.limit = (int) estimate;
+        }
+
+        boolean tryAcquire() {
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= limit) {
+                    return false;
+                }
+            } while (false == inFlight.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        synchronized void sample(long rtt, boolean drop, int inFlight) {
+            samples++;
+            rttSum += rtt;
+            dropped |= drop;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            long now = System.nanoTime();
+            if (samples < MIN_SAMPLES || now - windowStart < window) {
+                return;
+            }
+            double shortRtt = (double) rttSum / samples;
+            estimate = Algorithm.AIMD == algorithm ? aimd() : gradient(shortRtt);
+            estimate = Math.max(minLimit, Math.min(max, estimate));
+            limit = (int) estimate;
+            windowStart = now;
+            samples = 0;
+            rttSum = 0;
+            dropped = false;
+            maxInFlight = 0;
+        }
+
+        private double aimd() {
+            if (dropped) {
+                return estimate * BACKOFF;
+            }
+            // 并发未用满时不增长，避免上限虚高
+            return maxInFlight * 2 >= limit ? estimate + 1 : estimate;
+        }
+
+        private double gradient(double shortRtt) {
+            if (longRtt == 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt = longRtt * 0.95 + shortRtt * 0.05;
+            }
+            if (dropped) {
+                return estimate * BACKOFF;
+            }
+            // 负载下降后长期耗时偏高，加速回落以便重新探测
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            if (maxInFlight * 2 < limit) {
+                return estimate;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+            double target = estimate * gradient + Math.sqrt(estimate);
+            // 平滑
+            return estimate * 0.8 + target * 0.2;
+        }
+    }
+
+}
@@ -25,16 +25,14 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.support.peak.jdk;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.limiter.support.KeyRegistry;
 import org.aoju.bus.limiter.support.peak.PeakLimiter;
 
-import java.util.Objects;
 import java.util.concurrent.Semaphore;
 
 /**
+ * 注册表按键保存最大并发数不同的信号量链表，命中时逐个比较参数，不创建键对象
+ *
  * @author Kimi Liu
  * @since Java 17+
  */
@@ -42,33 +40,27 @@ public class JdkPeakLimiter extends PeakLimiter {
 
     private String limiterName;
 
-    private LoadingCache<CacheKey, Semaphore> cache;
+    private KeyRegistry<Permits> registry;
 
     public JdkPeakLimiter(String limiterName) {
         this.limiterName = limiterName;
-        this.cache = CacheBuilder.newBuilder()
-                .concurrencyLevel(Normal._16)
-                .initialCapacity(2048)
-                .build(new CacheLoader<>() {
-                    @Override
-                    public Semaphore load(CacheKey key) {
-                        return new Semaphore(key.max);
-                    }
-                });
+        this.registry = new KeyRegistry<>();
     }
 
     @Override
     public boolean acquire(Object key, int max) {
-        CacheKey cacheKey = new CacheKey(key, max);
-        return cache.getIfPresent(cacheKey).tryAcquire();
+        Permits permits = Permits.find(registry.get(key), max);
+        if (null == permits) {
+            permits = Permits.find(registry.update(key, old -> null != Permits.find(old, max) ? old : new Permits(max, old)), max);
+        }
+        return permits.tryAcquire();
     }
 
     @Override
     public void release(Object key, int max) {
-        CacheKey cacheKey = new CacheKey(key, max);
-        Semaphore semaphore = cache.getIfPresent(cacheKey);
-        if (null != semaphore) {
-            semaphore.release();
+        Permits permits = Permits.find(registry.get(key), max);
+        if (null != permits) {
+            permits.release();
         }
     }
 
@@ -77,29 +69,27 @@ public class JdkPeakLimiter extends PeakLimiter {
         return limiterName;
     }
 
-    public static class CacheKey {
-
-        private Object key;
+    /**
+     * 同一键下最大并发数不同的信号量，新参数加在链表头部，链表不可变
+     */
+    private static class Permits extends Semaphore {
 
-        private int max;
+        private final int max;
+        private final Permits next;
 
-        public CacheKey(Object key, int max) {
-            this.key = key;
+        Permits(int max, Permits next) {
+            super(max);
             this.max = max;
+            this.next = next;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (null == o || getClass() != o.getClass()) return false;
-            CacheKey cacheKey = (CacheKey) o;
-            return max == cacheKey.max &&
-                    Objects.equals(key, cacheKey.key);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(key, max);
+        static Permits find(Permits permits, int max) {
+            for (; null != permits; permits = permits.next) {
+                if (permits.max == max) {
+                    return permits;
+                }
+            }
+            return null;
         }
     }
 
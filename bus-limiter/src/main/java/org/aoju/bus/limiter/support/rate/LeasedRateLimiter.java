@@ -0,0 +1,202 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.rate;
+
+import org.aoju.bus.limiter.support.KeyRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地租约限流
+ * 每次从共享令牌桶批量租用令牌，在本地扣减，租约用尽或过期后再租用，
+ * 远程调用次数约降为 1/租约大小
+ * <p>
+ * 精度：令牌在租用时计入共享令牌桶，每个节点最多提前占用一个租约的令牌，
+ * 租约过期未用完的令牌作废；租约大小不超过容量，也不超过租期内按速率产生的令牌数
+ * <p>
+ * 租约按键及参数注册，相同键不同参数的租约互不影响，注册表按键保存参数不同的租约链表
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class LeasedRateLimiter extends RateLimiter {
+
+    private final String limiterName;
+
+    private final Lessor lessor;
+
+    private final long leaseSize;
+
+    private final long leaseNanos;
+
+    private final KeyRegistry<Lease> registry;
+
+    /**
+     * @param limiterName 名称
+     * @param lessor      共享令牌桶
+     * @param leaseSize   租约大小
+     * @param leaseTime   租期
+     * @param unit        租期单位
+     */
+    public LeasedRateLimiter(String limiterName, Lessor lessor, long leaseSize, long leaseTime, TimeUnit unit) {
+        this.limiterName = limiterName;
+        this.lessor = lessor;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseNanos = unit.toNanos(leaseTime);
+        this.registry = new KeyRegistry<>(Math.max(TimeUnit.MINUTES.toNanos(1), leaseNanos), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean acquire(Object key, double rate, long capacity) {
+        Lease lease = find(registry.get(key), rate, capacity);
+        if (null == lease) {
+            lease = find(registry.update(key, old -> null != find(old, rate, capacity) ?
+                    old : new Lease(rate, capacity, sizeOf(rate, capacity), old)), rate, capacity);
+        }
+        long now = System.nanoTime();
+        return lease.take(now) || lease.renew(key, now);
+    }
+
+    @Override
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    /**
+     * 在租约链表中查找参数一致的租约
+     */
+    private static Lease find(Lease lease, double rate, long capacity) {
+        for (; null != lease; lease = lease.next) {
+            if (lease.matches(rate, capacity)) {
+                return lease;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 租约大小，不超过容量及租期内产生的令牌数
+     */
+    private long sizeOf(double rate, long capacity) {
+        long produced = (long) (rate * leaseNanos / TimeUnit.SECONDS.toNanos(1));
+        return Math.max(1, Math.min(leaseSize, Math.min(capacity, produced)));
+    }
+
+    /**
+     * 共享令牌桶
+     */
+    @FunctionalInterface
+    public interface Lessor {
+
+        /**
+         * 租用令牌
+         *
+         * @param key      键
+         * @param least    最少获取数
+         * @param most     最多获取数
+         * @param rate     速率
+         * @param capacity 容量
+         * @return 获取到的令牌数，不足最少获取数时为0
+         */
+        long lease(Object key, long least, long most, double rate, long capacity);
+
+    }
+
+    /**
+     * 单个键及参数的本地租约，同一键下参数不同的租约组成不可变链表
+     */
+    private class Lease {
+
+        private final double rate;
+
+        private final long capacity;
+
+        private final long size;
+
+        private final Lease next;
+
+        private final AtomicLong remaining = new AtomicLong();
+
+        /**
+         * 租约到期时间，单位纳秒
+         */
+        private volatile long expireAt;
+
+        /**
+         * 共享令牌桶无令牌时，下次允许租用的时间，单位纳秒
+         */
+        private volatile long retryAt;
+
+        Lease(double rate, long capacity, long size, Lease next) {
+            this.rate = rate;
+            this.capacity = capacity;
+            this.size = size;
+            this.next = next;
+            long now = System.nanoTime();
+            this.expireAt = now;
+            this.retryAt = now;
+        }
+
+        boolean matches(double rate, long capacity) {
+            return Double.compare(this.rate, rate) == 0 && this.capacity == capacity;
+        }
+
+        boolean take(long now) {
+            if (now - expireAt >= 0) {
+                return false;
+            }
+            long current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (false == remaining.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        synchronized boolean renew(Object key, long now) {
+            // 等待期间其它线程可能已续租
+            if (take(now)) {
+                return true;
+            }
+            if (now - retryAt < 0) {
+                return false;
+            }
+            long granted = lessor.lease(key, 1, size, rate, capacity);
+            if (granted <= 0) {
+                // 至少等待产生一个令牌的时间，避免拒绝时每次都访问共享令牌桶
+                retryAt = now + Math.min(leaseNanos, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+                return false;
+            }
+            remaining.set(granted - 1);
+            expireAt = now + leaseNanos;
+            return true;
+        }
+    }
+
+}
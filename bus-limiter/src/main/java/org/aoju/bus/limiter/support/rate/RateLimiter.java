@@ -37,11 +37,25 @@ public abstract class RateLimiter implements Limiter<org.aoju.bus.limiter.annota
 
     public abstract boolean acquire(Object key, double rate, long capacity);
 
+    /**
+     * 获取令牌，不支持预热的实现忽略预热时长
+     *
+     * @param key      键
+     * @param rate     速率
+     * @param capacity 容量
+     * @param warmUp   预热时长，单位毫秒
+     * @return 是否获取成功
+     */
+    public boolean acquire(Object key, double rate, long capacity, long warmUp) {
+        return acquire(key, rate, capacity);
+    }
+
     @Override
     public boolean limit(Object key, Map<String, Object> args) {
         double pps = (double) args.get("rate");
         long capacity = (long) args.get("capacity");
-        return acquire(key, pps, capacity);
+        Object warmUp = args.get("warmUp");
+        return acquire(key, pps, capacity, null == warmUp ? 0 : (long) warmUp);
     }
 
     @Override
@@ -26,43 +26,42 @@
 package org.aoju.bus.limiter.support.rate.jdk;
 
 /**
- * 基于令牌桶实现的速率限制器
+ * 限流桶，参数不可变，参数不同时由调用方另行创建
+ * {@link TokenBucket}与{@link SlidingWindowCounter}基于CAS，{@link SlidingWindowLog}加锁
  *
  * @author Kimi Liu
  * @since Java 17+
  */
-public class RateLimiterObject {
+public abstract class Bucket {
 
-    private double rate;
+    protected final double rate;
 
-    private long capacity;
+    protected final long capacity;
 
-    private long lastSyncTime;
+    protected final long warmUp;
 
-    private double storedPermits;
-
-    public synchronized boolean tryAcquire(long permits, double rate, long capacity) {
-        if (permits > capacity) return false;
-        long now = System.currentTimeMillis();
-        if (rate != this.rate || capacity != this.capacity) {
-            this.rate = rate;
-            this.capacity = capacity;
-            this.storedPermits = capacity - permits;
-            this.lastSyncTime = now;
-            return true;
-        }
-        resync(now);
-        if (storedPermits >= permits) {
-            storedPermits = storedPermits - permits;
-            return true;
+    /**
+     * 构造
+     *
+     * @param rate     每秒速率
+     * @param capacity 容量
+     * @param warmUp   预热时长，单位毫秒
+     */
+    protected Bucket(double rate, long capacity, long warmUp) {
+        if (rate <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
         }
-        return false;
+        this.rate = rate;
+        this.capacity = capacity;
+        this.warmUp = warmUp;
     }
 
-    private void resync(long nowMicros) {
-        double newPermits = (nowMicros - lastSyncTime) * rate / 1000 + storedPermits;
-        storedPermits = Math.max(newPermits, capacity);
-        this.lastSyncTime = nowMicros;
-    }
+    /**
+     * 尝试获取许可
+     *
+     * @param permits 许可数
+     * @return 是否获取成功
+     */
+    public abstract boolean tryAcquire(long permits);
 
 }
@@ -25,17 +25,15 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.support.rate.jdk;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.limiter.support.KeyRegistry;
 import org.aoju.bus.limiter.support.rate.RateLimiter;
 
-import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 一个RateLimiter组件
+ * 限流对象按键及参数注册，相同键不同参数的资源互不影响；
+ * 注册表按键保存参数不同的限流桶链表，命中时逐个比较参数，不创建键对象
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -44,8 +42,9 @@ public class JdkRateLimiter extends RateLimiter {
 
     private String rateLimiterName;
 
-    private LoadingCache<CacheKey, RateLimiterObject>
-            cache;
+    private Algorithm algorithm;
+
+    private KeyRegistry<Node> registry;
 
     /**
      * @param rateLimiterName       名称
@@ -53,23 +52,34 @@ public class JdkRateLimiter extends RateLimiter {
      * @param expireAfterAccessUnit 过期数量
      */
     public JdkRateLimiter(String rateLimiterName, long expireAfterAccess, TimeUnit expireAfterAccessUnit) {
+        this(rateLimiterName, expireAfterAccess, expireAfterAccessUnit, Algorithm.TOKEN_BUCKET);
+    }
+
+    /**
+     * @param rateLimiterName       名称
+     * @param expireAfterAccess     过期时间
+     * @param expireAfterAccessUnit 过期数量
+     * @param algorithm             限流算法
+     */
+    public JdkRateLimiter(String rateLimiterName, long expireAfterAccess, TimeUnit expireAfterAccessUnit, Algorithm algorithm) {
         this.rateLimiterName = rateLimiterName;
-        this.cache = CacheBuilder.newBuilder()
-                .expireAfterAccess(expireAfterAccess, expireAfterAccessUnit)
-                .concurrencyLevel(Normal._16)
-                .build(new CacheLoader<CacheKey, RateLimiterObject>() {
-                    @Override
-                    public RateLimiterObject load(CacheKey key) {
-                        return new RateLimiterObject();
-                    }
-                });
+        this.algorithm = algorithm;
+        this.registry = new KeyRegistry<>(expireAfterAccess, expireAfterAccessUnit);
     }
 
     @Override
     public boolean acquire(Object key, double rate, long capacity) {
-        CacheKey cacheKey = new CacheKey(key, rate, capacity);
-        RateLimiterObject rateLimiterObject = cache.getUnchecked(cacheKey);
-        return rateLimiterObject.tryAcquire(1, rate, capacity);
+        return acquire(key, rate, capacity, 0);
+    }
+
+    @Override
+    public boolean acquire(Object key, double rate, long capacity, long warmUp) {
+        Node node = Node.find(registry.get(key), rate, capacity, warmUp);
+        if (null == node) {
+            node = Node.find(registry.update(key, old -> null != Node.find(old, rate, capacity, warmUp) ? old :
+                    new Node(rate, capacity, warmUp, algorithm.create(rate, capacity, warmUp), old)), rate, capacity, warmUp);
+        }
+        return node.bucket.tryAcquire(1);
     }
 
     @Override
@@ -77,31 +87,68 @@ public class JdkRateLimiter extends RateLimiter {
         return rateLimiterName;
     }
 
-    private static class CacheKey {
+    /**
+     * 限流算法
+     */
+    public enum Algorithm {
+
+        /**
+         * 令牌桶，支持突发与预热
+         */
+        TOKEN_BUCKET {
+            @Override
+            Bucket create(double rate, long capacity, long warmUp) {
+                return new TokenBucket(rate, capacity, warmUp);
+            }
+        },
+        /**
+         * 滑动窗口计数，内存固定，结果近似
+         */
+        SLIDING_WINDOW_COUNTER {
+            @Override
+            Bucket create(double rate, long capacity, long warmUp) {
+                return new SlidingWindowCounter(rate, capacity);
+            }
+        },
+        /**
+         * 滑动窗口日志，结果精确，内存与容量成正比
+         */
+        SLIDING_WINDOW_LOG {
+            @Override
+            Bucket create(double rate, long capacity, long warmUp) {
+                return new SlidingWindowLog(rate, capacity);
+            }
+        };
 
-        private Object key;
-        private double rate;
-        private long capacity;
+        abstract Bucket create(double rate, long capacity, long warmUp);
+    }
 
-        public CacheKey(Object key, double rate, long capacity) {
-            this.key = key;
+    /**
+     * 同一键下参数不同的限流桶，新参数加在链表头部，链表不可变
+     */
+    private static class Node {
+
+        private final double rate;
+        private final long capacity;
+        private final long warmUp;
+        private final Bucket bucket;
+        private final Node next;
+
+        Node(double rate, long capacity, long warmUp, Bucket bucket, Node next) {
             this.rate = rate;
             this.capacity = capacity;
+            this.warmUp = warmUp;
+            this.bucket = bucket;
+            this.next = next;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (null == o || getClass() != o.getClass()) return false;
-            CacheKey cacheKey = (CacheKey) o;
-            return Double.compare(cacheKey.rate, rate) == 0 &&
-                    capacity == cacheKey.capacity &&
-                    Objects.equals(key, cacheKey.key);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(key, rate, capacity);
+        static Node find(Node node, double rate, long capacity, long warmUp) {
+            for (; null != node; node = node.next) {
+                if (Double.compare(node.rate, rate) == 0 && node.capacity == capacity && node.warmUp == warmUp) {
+                    return node;
+                }
+            }
+            return null;
         }
     }
 
@@ -0,0 +1,132 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.rate.jdk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 基于CAS的滑动窗口计数
+ * 窗口时长为 capacity / rate 秒，任意窗口内最多 capacity 次；
+ * 窗口分为固定个数的子窗口，内存与容量无关，子窗口切换时的计数为近似值；
+ * 每个子窗口的编号(低32位)与计数保存在同一个long中，切换子窗口与计数在一次CAS内完成
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class SlidingWindowCounter extends Bucket {
+
+    /**
+     * 子窗口个数
+     */
+    private static final int SLOTS = 10;
+
+    /**
+     * 计数所占的低32位
+     */
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    /**
+     * 子窗口时长，单位纳秒
+     */
+    private final long slot;
+
+    /**
+     * 子窗口编号(高32位)与计数(低32位)
+     */
+    private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+    /**
+     * 构造
+     *
+     * @param rate     每秒速率
+     * @param capacity 窗口内最大次数
+     */
+    public SlidingWindowCounter(double rate, long capacity) {
+        super(rate, capacity, 0);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity too large for sliding window counter: " + capacity);
+        }
+        this.slot = Math.max(1, (long) (capacity * TimeUnit.SECONDS.toNanos(1) / rate / SLOTS));
+    }
+
+    @Override
+    public boolean tryAcquire(long permits) {
+        if (permits > capacity) {
+            return false;
+        }
+        long epoch = System.nanoTime() / slot;
+        int index = Math.floorMod(epoch, SLOTS);
+        int stamp = (int) epoch;
+
+        long next;
+        while (true) {
+            long current = slots.get(index);
+            int currentStamp = (int) (current >>> 32);
+            if (currentStamp == stamp || stamp - currentStamp < 0) {
+                // 同一子窗口，或其他线程已切换到更新的子窗口
+                next = current + permits;
+            } else {
+                // 过期的子窗口，清零后计数
+                next = ((long) stamp << 32) | permits;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+
+        long total = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            long value = slots.get(i);
+            int distance = stamp - (int) (value >>> 32);
+            if (distance > -SLOTS && distance < SLOTS) {
+                total += value & COUNT_MASK;
+            }
+        }
+        if (total > capacity) {
+            rollback(index, (int) (next >>> 32), permits);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 撤销计数，子窗口已切换时无需撤销
+     *
+     * @param index   子窗口位置
+     * @param stamp   计数时的子窗口编号
+     * @param permits 许可数
+     */
+    private void rollback(int index, int stamp, long permits) {
+        while (true) {
+            long current = slots.get(index);
+            if ((int) (current >>> 32) != stamp || slots.compareAndSet(index, current, current - permits)) {
+                return;
+            }
+        }
+    }
+
+}
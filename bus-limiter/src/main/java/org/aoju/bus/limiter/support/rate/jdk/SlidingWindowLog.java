@@ -0,0 +1,90 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.rate.jdk;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 滑动窗口日志
+ * 环形数组记录最近 capacity 次获取的时间，窗口时长为 capacity / rate 秒，
+ * 被覆盖的记录仍在窗口内时拒绝；判断与写入记录在同一把锁内完成，结果精确，
+ * 内存与容量成正比，适合容量较小的场景
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class SlidingWindowLog extends Bucket {
+
+    /**
+     * 窗口时长，单位纳秒
+     */
+    private final long window;
+
+    /**
+     * 获取时间记录
+     */
+    private final long[] log;
+
+    /**
+     * 下一条记录的序号
+     */
+    private long head;
+
+    /**
+     * 构造
+     *
+     * @param rate     每秒速率
+     * @param capacity 窗口内最大次数
+     */
+    public SlidingWindowLog(double rate, long capacity) {
+        super(rate, capacity, 0);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity too large for sliding window log: " + capacity);
+        }
+        this.window = (long) (capacity * TimeUnit.SECONDS.toNanos(1) / rate);
+        this.log = new long[(int) capacity];
+        Arrays.fill(this.log, System.nanoTime() - window);
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(long permits) {
+        if (permits > capacity) {
+            return false;
+        }
+        long now = System.nanoTime();
+        // 记录按时间有序，只需检查将被覆盖的最新一条
+        if (now - log[(int) ((head + permits - 1) % capacity)] < window) {
+            return false;
+        }
+        for (long i = head; i < head + permits; i++) {
+            log[(int) (i % capacity)] = now;
+        }
+        head += permits;
+        return true;
+    }
+
+}
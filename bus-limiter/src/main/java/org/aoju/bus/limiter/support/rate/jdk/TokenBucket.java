@@ -0,0 +1,121 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.rate.jdk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于CAS的令牌桶(GCRA)
+ * 只保存令牌桶重新装满的时间点，获取令牌即一次CAS推进该时间点；
+ * 容量即允许的突发量。开启预热时，桶内令牌超过一半后每个令牌的代价线性增加，
+ * 冷启动(满桶)时突发量与发放速率降低，按稳定速率消耗的预热时长后恢复
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class TokenBucket extends Bucket {
+
+    /**
+     * 每个令牌的间隔，单位纳秒
+     */
+    private final double interval;
+
+    /**
+     * 突发容忍时长，即容量*间隔
+     */
+    private final double tolerance;
+
+    /**
+     * 预热阈值，令牌数超过该值时代价增加
+     */
+    private final double threshold;
+
+    /**
+     * 满桶时令牌代价相对稳定代价的倍数
+     */
+    private final double coldFactor;
+
+    /**
+     * 令牌桶重新装满的时间点，单位纳秒
+     */
+    private final AtomicLong full;
+
+    /**
+     * 构造，初始为满桶
+     *
+     * @param rate     每秒速率
+     * @param capacity 容量
+     * @param warmUp   预热时长，单位毫秒
+     */
+    public TokenBucket(double rate, long capacity, long warmUp) {
+        super(rate, capacity, warmUp);
+        this.interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.tolerance = capacity * interval;
+        this.threshold = capacity / 2.0;
+        double factor = 1;
+        if (warmUp > 0 && capacity > 1) {
+            // 满桶到半桶的代价积分 (capacity - threshold) * interval * (1 + coldFactor) / 2 = warmUp
+            factor = 2 * TimeUnit.MILLISECONDS.toNanos(warmUp) / ((capacity - threshold) * interval) - 1;
+        }
+        this.coldFactor = Math.max(1, factor);
+        this.full = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public boolean tryAcquire(long permits) {
+        if (permits > capacity) {
+            return false;
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long current = full.get();
+            long base = current - now > 0 ? current : now;
+            double deficit = base - now;
+            if (deficit + permits * interval > tolerance) {
+                return false;
+            }
+            long next = base + (long) (permits * interval * factor(capacity - deficit / interval));
+            if (full.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 当前令牌数下的代价倍数
+     *
+     * @param stored 桶内令牌数
+     * @return 代价倍数
+     */
+    private double factor(double stored) {
+        if (coldFactor == 1 || stored <= threshold) {
+            return 1;
+        }
+        return 1 + (coldFactor - 1) * (stored - threshold) / (capacity - threshold);
+    }
+
+}
@@ -25,11 +25,14 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.support.rate.redis;
 
+import org.aoju.bus.limiter.support.rate.LeasedRateLimiter;
 import org.aoju.bus.limiter.support.rate.RateLimiter;
 import org.aoju.bus.logger.Logger;
 import org.redisson.Redisson;
 import org.redisson.config.Config;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Kimi Liu
  * @since Java 17+
@@ -40,6 +43,11 @@ public class RedisRatelimiter extends RateLimiter {
 
     private RateLimiterRedission ratelimiterRedission;
 
+    /**
+     * 本地租约，未开启时为null
+     */
+    private LeasedRateLimiter leased;
+
     /**
      * @param limiterName 名称
      * @param config      配置
@@ -51,8 +59,29 @@ public class RedisRatelimiter extends RateLimiter {
 
     }
 
+    /**
+     * 开启本地租约，每次从Redis租用一批令牌在本地扣减
+     *
+     * @param limiterName 名称
+     * @param config      配置
+     * @param leaseSize   租约大小，不大于1时不开启
+     * @param leaseTime   租期，未用完的令牌到期作废
+     * @param unit        租期单位
+     */
+    public RedisRatelimiter(String limiterName, Config config, long leaseSize, long leaseTime, TimeUnit unit) {
+        this(limiterName, config);
+        if (leaseSize > 1) {
+            this.leased = new LeasedRateLimiter(limiterName, (key, least, most, rate, capacity) ->
+                    ratelimiterRedission.getRedisRatelimiterObject(key.toString()).lease(least, most, rate, capacity),
+                    leaseSize, leaseTime, unit);
+        }
+    }
+
     @Override
     public boolean acquire(Object key, double rate, long capacity) {
+        if (null != leased) {
+            return leased.acquire(key, rate, capacity);
+        }
         RedisRatelimiterObject rateLimiterObject = ratelimiterRedission.getRedisRatelimiterObject(key.toString());
         return rateLimiterObject.tryAcquire(1, rate, capacity);
     }
@@ -27,14 +27,14 @@ package org.aoju.bus.limiter.support.rate.redis;
 
 import org.aoju.bus.core.lang.Normal;
 import org.redisson.RedissonObject;
-import org.redisson.api.RFuture;
+import org.redisson.RedissonScript;
+import org.redisson.api.RScript;
+import org.redisson.client.RedisException;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
-import org.redisson.client.protocol.RedisCommand;
-import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
 
 /**
@@ -43,6 +43,40 @@ import java.util.Objects;
  */
 public class RedisRatelimiterObject extends RedissonObject {
 
+    /**
+     * 令牌桶脚本，ARGV为容量、速率、最多获取数、参数摘要、最少获取数，返回获取到的令牌数，不足最少获取数时返回0
+     */
+    private static final String SCRIPT = "local capacity = tonumber(ARGV[1])\n" +
+            "local rate = tonumber(ARGV[2])\n" +
+            "local acq = tonumber(ARGV[3])\n" +
+            "local least = tonumber(ARGV[5])\n" +
+            "if (redis.call('exists',KEYS[1]) == 0 or redis.call('hget',KEYS[1],'hash') ~= ARGV[4]) then\n" +
+            "    -- create\n" +
+            "    redis.call('hset', KEYS[1], 'capacity ', capacity)\n" +
+            "    redis.call('hset', KEYS[1], 'rate', rate)\n" +
+            "    redis.call('hset', KEYS[1], 'permit', capacity-acq)\n" +
+            "    redis.call('hset', KEYS[1], 'hash', ARGV[4])\n" +
+            "    redis.call('expire', KEYS[1],3153600000000)\n" +
+            "    redis.call('hset', KEYS[1], 'pttl',3153600000000000)\n" +
+            "    return acq\n" +
+            "end\n" +
+            "local rate = tonumber(redis.call('hget', KEYS[1],'rate'))\n" +
+            "local now = redis.call('pttl', KEYS[1])\n" +
+            "local pttl = tonumber(redis.call('hget', KEYS[1], 'pttl'))\n" +
+            "local permit = tonumber(redis.call('hget', KEYS[1], 'permit'))\n" +
+            "local newPermit = math.min(capacity, permit + ((pttl-now)/1000*rate))\n" +
+            "if(newPermit < least) then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "local granted = math.min(acq, math.floor(newPermit))\n" +
+            "redis.call('hset', KEYS[1], 'permit', newPermit-granted)\n" +
+            "redis.call('hset', KEYS[1], 'pttl', now)\n" +
+            "return granted";
+
+    /**
+     * 脚本SHA，首次使用时加载
+     */
+    private static volatile String sha;
 
     public RedisRatelimiterObject(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
         super(codec, commandExecutor, name);
@@ -54,44 +88,42 @@ public class RedisRatelimiterObject extends RedissonObject {
 
     public boolean tryAcquire(long permits, double rate, long capacity) {
         if (permits > capacity) return false;
-        return get(tryAcquireAsync(RedisCommands.EVAL_LONG, permits, rate, capacity)) != -1;
+        return lease(permits, permits, rate, capacity) > 0;
     }
 
-    private <T> RFuture<T> tryAcquireAsync(RedisCommand<T> command, long permits, double rate, long capacity) {
+    /**
+     * 批量租用令牌，按可用数量发放，介于最少与最多获取数之间
+     *
+     * @param least    最少获取数
+     * @param most     最多获取数，不大于容量
+     * @param rate     速率
+     * @param capacity 容量
+     * @return 获取到的令牌数，不足最少获取数时为0
+     */
+    public long lease(long least, long most, double rate, long capacity) {
+        if (least > capacity) return 0;
         String hash = Objects.hash(rate, capacity) + Normal.EMPTY;
-        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, command,
-                "local capacity = tonumber(ARGV[1])\n" +
-                        "local rate = tonumber(ARGV[2])\n" +
-                        "local acq = tonumber(ARGV[3])\n" +
-                        "if (redis.call('exists',KEYS[1]) == 0 or redis.call('hget',KEYS[1],'hash') ~= ARGV[4]) then\n" +
-                        "    -- create\n" +
-                        "    redis.call('hset', KEYS[1], 'capacity ', capacity)\n" +
-                        "    redis.call('hset', KEYS[1], 'rate', rate)\n" +
-                        "    redis.call('hset', KEYS[1], 'permit', capacity-acq)\n" +
-                        "    redis.call('hset', KEYS[1], 'hash', ARGV[4])\n" +
-                        "    redis.call('expire', KEYS[1],3153600000000)\n" +
-                        "    redis.call('hset', KEYS[1], 'pttl',3153600000000000)\n" +
-                        "    return capacity-acq\n" +
-                        "end\n" +
-                        "local rate = tonumber(redis.call('hget', KEYS[1],'rate'))\n" +
-                        "local now = redis.call('pttl', KEYS[1])\n" +
-                        "local pttl = tonumber(redis.call('hget', KEYS[1], 'pttl'))\n" +
-                        "local permit = tonumber(redis.call('hget', KEYS[1], 'permit'))\n" +
-                        "local newPermit = permit + ((pttl-now)/1000*rate)\n" +
-                        "if(newPermit >= capacity) then\n" +
-                        "     redis.call('hset', KEYS[1], 'permit', capacity-acq)\n" +
-                        "     redis.call('hset', KEYS[1], 'pttl', now)\n" +
-                        "     return capacity-acq\n" +
-                        "end\n" +
-                        "if(newPermit >= acq) then\n" +
-                        "    redis.call('hset', KEYS[1], 'permit', newPermit-acq)\n" +
-                        "    redis.call('hset', KEYS[1], 'pttl', now)\n" +
-                        "    return newPermit-acq\n" +
-                        "end\n" +
-                        "return -1 ",
-                Arrays.asList(getName()),
-                permits, rate, capacity, hash);
+        RedissonScript script = new RedissonScript(commandExecutor, LongCodec.INSTANCE);
+        String digest = sha;
+        if (null == digest) {
+            digest = sha = script.scriptLoad(getName(), SCRIPT);
+        }
+        try {
+            return evalSha(script, digest, least, Math.min(most, capacity), rate, capacity, hash);
+        } catch (RedisException e) {
+            if (null == e.getMessage() || false == e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            // 节点重启或切换后脚本丢失，重新加载
+            sha = script.scriptLoad(getName(), SCRIPT);
+            return evalSha(script, sha, least, Math.min(most, capacity), rate, capacity, hash);
+        }
     }
 
+    private long evalSha(RedissonScript script, String digest, long least, long most, double rate, long capacity, String hash) {
+        Long granted = get(script.evalShaAsync(getName(), RScript.Mode.READ_WRITE, LongCodec.INSTANCE, digest,
+                RScript.ReturnType.INTEGER, Collections.singletonList(getName()), capacity, rate, most, hash, least));
+        return null == granted ? 0 : granted;
+    }
 
 }
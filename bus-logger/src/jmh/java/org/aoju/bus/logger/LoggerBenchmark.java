@@ -0,0 +1,106 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.logger;
+
+import org.aoju.bus.core.toolkit.CallerKit;
+import org.aoju.bus.logger.dialect.console.ConsoleLog;
+import org.aoju.bus.logger.dialect.console.ConsoleLogFactory;
+import org.aoju.bus.logger.dialect.jdk.JdkLogFactory;
+import org.aoju.bus.logger.level.Level;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 静态Logger在级别未开启时的开销, 对比先判断级别再获取调用类与先按调用类获取日志对象的做法
+ * console: 工厂可直接判断全局级别; jdk: 级别按日志对象独立, 需获取调用类
+ * 调用前先递归到指定栈深度, 以体现获取调用类的开销是否与栈深度相关
+ * 运行: mvn -Pjmh test-compile exec:exec -Djmh.include=LoggerBenchmark
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private static final String FQCN = Logger.class.getName();
+
+    @Param({"console", "jdk"})
+    public String factory;
+
+    @Param({"1", "150"})
+    public int depth;
+
+    private final Object argument = "value";
+
+    @Setup
+    public void setup() {
+        // 两种工厂均只开启INFO及以上级别, debug调用被过滤
+        ConsoleLog.setLevel(Level.INFO);
+        GlobalFactory.set("console".equals(factory) ? new ConsoleLogFactory() : new JdkLogFactory());
+    }
+
+    @Benchmark
+    public int debugDisabled() {
+        return deep(depth, 0);
+    }
+
+    @Benchmark
+    public int debugDisabledVarargs() {
+        return deep(depth, 1);
+    }
+
+    /**
+     * 之前的做法: 先获取调用类及其日志对象, 再由日志对象判断级别
+     */
+    @Benchmark
+    public int debugDisabledCallerFirst() {
+        return deep(depth, 2);
+    }
+
+    private int deep(int remaining, int mode) {
+        if (remaining > 1) {
+            return deep(remaining - 1, mode) + 1;
+        }
+        switch (mode) {
+            case 0:
+                Logger.debug("value is {}", argument);
+                break;
+            case 1:
+                Logger.debug("values are {} {} {} {}", argument, argument, argument, argument);
+                break;
+            default:
+                LogFactory.get(CallerKit.getCaller()).debug(FQCN, null, "value is {}", argument);
+        }
+        return 1;
+    }
+
+}
@@ -29,6 +29,7 @@ import org.aoju.bus.core.toolkit.CallerKit;
 import org.aoju.bus.core.toolkit.FileKit;
 import org.aoju.bus.logger.dialect.console.ConsoleLogFactory;
 import org.aoju.bus.logger.dialect.jdk.JdkLogFactory;
+import org.aoju.bus.logger.level.Level;
 
 import java.net.URL;
 import java.util.Map;
@@ -192,6 +193,17 @@ public abstract class LogFactory {
         return log;
     }
 
+    /**
+     * 是否可能有日志对象开启了该级别,用于在获取调用类之前快速过滤
+     * 各日志对象级别独立时无法判断,默认返回true
+     *
+     * @param level 级别
+     * @return 是否可能开启
+     */
+    public boolean isEnabled(Level level) {
+        return true;
+    }
+
     /**
      * 创建日志对象
      *
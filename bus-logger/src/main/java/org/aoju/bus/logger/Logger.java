@@ -25,12 +25,12 @@
  ********************************************************************************/
 package org.aoju.bus.logger;
 
-import org.aoju.bus.core.toolkit.CallerKit;
-import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.logger.level.Level;
 
 /**
  * 静态日志类,用于在不引入日志对象的情况下打印日志
+ * 先按日志工厂的全局级别过滤,再通过StackWalker直接获取调用类(开销与栈深度无关),
+ * 日志对象由日志工厂按类缓存;0~3个参数的重载在级别未开启时不创建参数数组
  *
  * @author Kimi Liu
  * @since Java 17+
@@ -39,19 +39,83 @@ public final class Logger {
 
     private static final String FQCN = Logger.class.getName();
 
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * 调用类获取器,只能在被外部直接调用的方法中使用
+     */
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+
     private Logger() {
 
     }
 
     /**
      * Trace等级日志,小于debug
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void trace(String format, Object... arguments) {
-        trace(LogFactory.get(CallerKit.getCallers()), format, arguments);
+        final Log log = isEnabled(Level.TRACE) ? get(WALKER.getCallerClass(), Level.TRACE) : null;
+        if (null != log) {
+            log.trace(FQCN, null, format, arguments);
+        }
+    }
+
+    /**
+     * Trace等级日志
+     *
+     * @param format 格式文本
+     */
+    public static void trace(String format) {
+        final Log log = isEnabled(Level.TRACE) ? get(WALKER.getCallerClass(), Level.TRACE) : null;
+        if (null != log) {
+            log.trace(FQCN, null, format, EMPTY);
+        }
+    }
+
+    /**
+     * Trace等级日志
+     *
+     * @param format   格式文本,{} 代表变量
+     * @param argument 参数,为数组时视为参数列表
+     */
+    public static void trace(String format, Object argument) {
+        final Log log = isEnabled(Level.TRACE) ? get(WALKER.getCallerClass(), Level.TRACE) : null;
+        if (null != log) {
+            log.trace(FQCN, null, format, argument instanceof Object[] ? (Object[]) argument : new Object[]{argument});
+        }
+    }
+
+    /**
+     * Trace等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     */
+    public static void trace(String format, Object argument1, Object argument2) {
+        final Log log = isEnabled(Level.TRACE) ? get(WALKER.getCallerClass(), Level.TRACE) : null;
+        if (null != log) {
+            log.trace(FQCN, null, format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Trace等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     * @param argument3 参数3
+     */
+    public static void trace(String format, Object argument1, Object argument2, Object argument3) {
+        final Log log = isEnabled(Level.TRACE) ? get(WALKER.getCallerClass(), Level.TRACE) : null;
+        if (null != log) {
+            log.trace(FQCN, null, format, argument1, argument2, argument3);
+        }
     }
 
     /**
@@ -67,13 +131,69 @@ public final class Logger {
 
     /**
      * Debug等级日志,小于Info
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void debug(String format, Object... arguments) {
-        debug(LogFactory.get(CallerKit.getCallers()), format, arguments);
+        final Log log = isEnabled(Level.DEBUG) ? get(WALKER.getCallerClass(), Level.DEBUG) : null;
+        if (null != log) {
+            log.debug(FQCN, null, format, arguments);
+        }
+    }
+
+    /**
+     * Debug等级日志
+     *
+     * @param format 格式文本
+     */
+    public static void debug(String format) {
+        final Log log = isEnabled(Level.DEBUG) ? get(WALKER.getCallerClass(), Level.DEBUG) : null;
+        if (null != log) {
+            log.debug(FQCN, null, format, EMPTY);
+        }
+    }
+
+    /**
+     * Debug等级日志
+     *
+     * @param format   格式文本,{} 代表变量
+     * @param argument 参数,为数组时视为参数列表
+     */
+    public static void debug(String format, Object argument) {
+        final Log log = isEnabled(Level.DEBUG) ? get(WALKER.getCallerClass(), Level.DEBUG) : null;
+        if (null != log) {
+            log.debug(FQCN, null, format, argument instanceof Object[] ? (Object[]) argument : new Object[]{argument});
+        }
+    }
+
+    /**
+     * Debug等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     */
+    public static void debug(String format, Object argument1, Object argument2) {
+        final Log log = isEnabled(Level.DEBUG) ? get(WALKER.getCallerClass(), Level.DEBUG) : null;
+        if (null != log) {
+            log.debug(FQCN, null, format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Debug等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     * @param argument3 参数3
+     */
+    public static void debug(String format, Object argument1, Object argument2, Object argument3) {
+        final Log log = isEnabled(Level.DEBUG) ? get(WALKER.getCallerClass(), Level.DEBUG) : null;
+        if (null != log) {
+            log.debug(FQCN, null, format, argument1, argument2, argument3);
+        }
     }
 
     /**
@@ -89,13 +209,69 @@ public final class Logger {
 
     /**
      * Info等级日志,小于Warn
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void info(String format, Object... arguments) {
-        info(LogFactory.get(CallerKit.getCallers()), format, arguments);
+        final Log log = isEnabled(Level.INFO) ? get(WALKER.getCallerClass(), Level.INFO) : null;
+        if (null != log) {
+            log.info(FQCN, null, format, arguments);
+        }
+    }
+
+    /**
+     * Info等级日志
+     *
+     * @param format 格式文本
+     */
+    public static void info(String format) {
+        final Log log = isEnabled(Level.INFO) ? get(WALKER.getCallerClass(), Level.INFO) : null;
+        if (null != log) {
+            log.info(FQCN, null, format, EMPTY);
+        }
+    }
+
+    /**
+     * Info等级日志
+     *
+     * @param format   格式文本,{} 代表变量
+     * @param argument 参数,为数组时视为参数列表
+     */
+    public static void info(String format, Object argument) {
+        final Log log = isEnabled(Level.INFO) ? get(WALKER.getCallerClass(), Level.INFO) : null;
+        if (null != log) {
+            log.info(FQCN, null, format, argument instanceof Object[] ? (Object[]) argument : new Object[]{argument});
+        }
+    }
+
+    /**
+     * Info等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     */
+    public static void info(String format, Object argument1, Object argument2) {
+        final Log log = isEnabled(Level.INFO) ? get(WALKER.getCallerClass(), Level.INFO) : null;
+        if (null != log) {
+            log.info(FQCN, null, format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Info等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     * @param argument3 参数3
+     */
+    public static void info(String format, Object argument1, Object argument2, Object argument3) {
+        final Log log = isEnabled(Level.INFO) ? get(WALKER.getCallerClass(), Level.INFO) : null;
+        if (null != log) {
+            log.info(FQCN, null, format, argument1, argument2, argument3);
+        }
     }
 
     /**
@@ -111,25 +287,83 @@ public final class Logger {
 
     /**
      * Warn等级日志,小于Error
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void warn(String format, Object... arguments) {
-        warn(LogFactory.get(CallerKit.getCallers()), format, arguments);
+        final Log log = isEnabled(Level.WARN) ? get(WALKER.getCallerClass(), Level.WARN) : null;
+        if (null != log) {
+            log.warn(FQCN, null, format, arguments);
+        }
+    }
+
+    /**
+     * Warn等级日志
+     *
+     * @param format 格式文本
+     */
+    public static void warn(String format) {
+        final Log log = isEnabled(Level.WARN) ? get(WALKER.getCallerClass(), Level.WARN) : null;
+        if (null != log) {
+            log.warn(FQCN, null, format, EMPTY);
+        }
+    }
+
+    /**
+     * Warn等级日志
+     *
+     * @param format   格式文本,{} 代表变量
+     * @param argument 参数,为数组时视为参数列表
+     */
+    public static void warn(String format, Object argument) {
+        final Log log = isEnabled(Level.WARN) ? get(WALKER.getCallerClass(), Level.WARN) : null;
+        if (null != log) {
+            log.warn(FQCN, null, format, argument instanceof Object[] ? (Object[]) argument : new Object[]{argument});
+        }
+    }
+
+    /**
+     * Warn等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     */
+    public static void warn(String format, Object argument1, Object argument2) {
+        final Log log = isEnabled(Level.WARN) ? get(WALKER.getCallerClass(), Level.WARN) : null;
+        if (null != log) {
+            log.warn(FQCN, null, format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Warn等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     * @param argument3 参数3
+     */
+    public static void warn(String format, Object argument1, Object argument2, Object argument3) {
+        final Log log = isEnabled(Level.WARN) ? get(WALKER.getCallerClass(), Level.WARN) : null;
+        if (null != log) {
+            log.warn(FQCN, null, format, argument1, argument2, argument3);
+        }
     }
 
     /**
      * Warn等级日志,小于Error
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param e         需在日志中堆栈打印的异常
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void warn(Throwable e, String format, Object... arguments) {
-        warn(LogFactory.get(CallerKit.getCallers()), e, StringKit.format(format, arguments));
+        final Log log = isEnabled(Level.WARN) ? get(WALKER.getCallerClass(), Level.WARN) : null;
+        if (null != log) {
+            log.warn(FQCN, e, format, arguments);
+        }
     }
 
     /**
@@ -157,35 +391,95 @@ public final class Logger {
 
     /**
      * Error等级日志
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param e 需在日志中堆栈打印的异常
      */
     public static void error(Throwable e) {
-        error(LogFactory.get(CallerKit.getCallers()), e);
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, e, e.getMessage(), EMPTY);
+        }
     }
 
     /**
      * Error等级日志
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void error(String format, Object... arguments) {
-        error(LogFactory.get(CallerKit.getCallers()), format, arguments);
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, null, format, arguments);
+        }
+    }
+
+    /**
+     * Error等级日志
+     *
+     * @param format 格式文本
+     */
+    public static void error(String format) {
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, null, format, EMPTY);
+        }
+    }
+
+    /**
+     * Error等级日志
+     *
+     * @param format   格式文本,{} 代表变量
+     * @param argument 参数,为数组时视为参数列表
+     */
+    public static void error(String format, Object argument) {
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, null, format, argument instanceof Object[] ? (Object[]) argument : new Object[]{argument});
+        }
+    }
+
+    /**
+     * Error等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     */
+    public static void error(String format, Object argument1, Object argument2) {
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, null, format, argument1, argument2);
+        }
+    }
+
+    /**
+     * Error等级日志
+     *
+     * @param format    格式文本,{} 代表变量
+     * @param argument1 参数1
+     * @param argument2 参数2
+     * @param argument3 参数3
+     */
+    public static void error(String format, Object argument1, Object argument2, Object argument3) {
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, null, format, argument1, argument2, argument3);
+        }
     }
 
     /**
      * Error等级日志
-     * 由于动态获取Log,效率较低,建议在非频繁调用的情况下使用！！
      *
      * @param e         需在日志中堆栈打印的异常
      * @param format    格式文本,{} 代表变量
      * @param arguments 变量对应的参数
      */
     public static void error(Throwable e, String format, Object... arguments) {
-        error(LogFactory.get(CallerKit.getCallers()), e, format, arguments);
+        final Log log = isEnabled(Level.ERROR) ? get(WALKER.getCallerClass(), Level.ERROR) : null;
+        if (null != log) {
+            log.error(FQCN, e, format, arguments);
+        }
     }
 
     /**
@@ -230,7 +524,10 @@ public final class Logger {
      * @param arguments 变量对应的参数
      */
     public static void log(Level level, Throwable t, String format, Object... arguments) {
-        LogFactory.get(CallerKit.getCallers()).log(FQCN, level, t, format, arguments);
+        final Log log = isEnabled(level) ? get(WALKER.getCallerClass(), level) : null;
+        if (null != log) {
+            log.log(FQCN, level, t, format, arguments);
+        }
     }
 
     /**
@@ -257,7 +554,7 @@ public final class Logger {
      * @return 获得日志, 自动判定日志发出者
      */
     public static Log get() {
-        return get(CallerKit.getCallers());
+        return get(WALKER.getCallerClass());
     }
 
     /**
@@ -266,7 +563,7 @@ public final class Logger {
      * @return the true/false
      */
     public static boolean isTrace() {
-        return get().isTrace();
+        return isEnabled(Level.TRACE) && null != get(WALKER.getCallerClass(), Level.TRACE);
     }
 
     /**
@@ -275,7 +572,7 @@ public final class Logger {
      * @return the true/false
      */
     public static boolean isDebug() {
-        return get().isDebug();
+        return isEnabled(Level.DEBUG) && null != get(WALKER.getCallerClass(), Level.DEBUG);
     }
 
     /**
@@ -284,7 +581,7 @@ public final class Logger {
      * @return the true/false
      */
     public static boolean isInfo() {
-        return get().isInfo();
+        return isEnabled(Level.INFO) && null != get(WALKER.getCallerClass(), Level.INFO);
     }
 
     /**
@@ -293,7 +590,7 @@ public final class Logger {
      * @return the true/false
      */
     public static boolean isWarn() {
-        return get().isWarn();
+        return isEnabled(Level.WARN) && null != get(WALKER.getCallerClass(), Level.WARN);
     }
 
     /**
@@ -302,7 +599,29 @@ public final class Logger {
      * @return the true/false
      */
     public static boolean isError() {
-        return get().isError();
+        return isEnabled(Level.ERROR) && null != get(WALKER.getCallerClass(), Level.ERROR);
+    }
+
+    /**
+     * 日志工厂是否可能开启该级别,不获取调用类
+     *
+     * @param level 级别
+     * @return 是否可能开启
+     */
+    private static boolean isEnabled(Level level) {
+        return GlobalFactory.get().isEnabled(level);
+    }
+
+    /**
+     * 获取调用类的日志对象,级别未开启时返回null
+     *
+     * @param caller 调用类
+     * @param level  级别
+     * @return 日志对象
+     */
+    private static Log get(Class<?> caller, Level level) {
+        final Log log = LogFactory.get(caller);
+        return log.isEnabled(level) ? log : null;
     }
 
 }
@@ -0,0 +1,137 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.logger.dialect.async;
+
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.logger.AbstractAware;
+import org.aoju.bus.logger.level.Level;
+
+/**
+ * 异步日志，调用线程只格式化消息并放入缓冲
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class AsyncLog extends AbstractAware {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AsyncLogFactory factory;
+
+    private final String name;
+
+    /**
+     * 构造
+     *
+     * @param factory 日志工厂
+     * @param clazz   类
+     */
+    public AsyncLog(AsyncLogFactory factory, Class<?> clazz) {
+        this(factory, (null == clazz) ? Normal.NULL : clazz.getName());
+    }
+
+    /**
+     * 构造
+     *
+     * @param factory 日志工厂
+     * @param name    类名
+     */
+    public AsyncLog(AsyncLogFactory factory, String name) {
+        this.factory = factory;
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public boolean isTrace() {
+        return isEnabled(Level.TRACE);
+    }
+
+    @Override
+    public void trace(String fqcn, Throwable t, String format, Object... arguments) {
+        log(fqcn, Level.TRACE, t, format, arguments);
+    }
+
+    @Override
+    public boolean isDebug() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    @Override
+    public void debug(String fqcn, Throwable t, String format, Object... arguments) {
+        log(fqcn, Level.DEBUG, t, format, arguments);
+    }
+
+    @Override
+    public boolean isInfo() {
+        return isEnabled(Level.INFO);
+    }
+
+    @Override
+    public void info(String fqcn, Throwable t, String format, Object... arguments) {
+        log(fqcn, Level.INFO, t, format, arguments);
+    }
+
+    @Override
+    public boolean isWarn() {
+        return isEnabled(Level.WARN);
+    }
+
+    @Override
+    public void warn(String fqcn, Throwable t, String format, Object... arguments) {
+        log(fqcn, Level.WARN, t, format, arguments);
+    }
+
+    @Override
+    public boolean isError() {
+        return isEnabled(Level.ERROR);
+    }
+
+    @Override
+    public void error(String fqcn, Throwable t, String format, Object... arguments) {
+        log(fqcn, Level.ERROR, t, format, arguments);
+    }
+
+    @Override
+    public void log(String fqcn, Level level, Throwable t, String format, Object... arguments) {
+        if (false == isEnabled(level)) {
+            return;
+        }
+        // 参数可能被调用方修改，在调用线程格式化
+        factory.append(level, this.name, StringKit.format(format, arguments), t);
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return factory.isEnabled(level);
+    }
+
+}
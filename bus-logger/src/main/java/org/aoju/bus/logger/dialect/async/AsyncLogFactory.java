@@ -0,0 +1,237 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.logger.dialect.async;
+
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.logger.Log;
+import org.aoju.bus.logger.LogFactory;
+import org.aoju.bus.logger.level.Level;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志工厂
+ * 日志事件放入有界无锁环形缓冲，由单个线程写出到控制台或文件，调用线程不做IO
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class AsyncLogFactory extends LogFactory {
+
+    /**
+     * 缓冲已满时等待的时长
+     */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final RingBuffer buffer;
+
+    private final AsyncWriter writer;
+
+    private final Overflow overflow;
+
+    /**
+     * 缓冲已满时，低于该级别的事件被丢弃
+     */
+    private final Level discardLevel;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * 进程退出时关闭的钩子，主动关闭时移除
+     */
+    private final Thread shutdownHook;
+
+    private volatile Level level = Level.DEBUG;
+
+    /**
+     * 构造，输出到控制台
+     */
+    public AsyncLogFactory() {
+        this(null, 0, Rolling.NONE);
+    }
+
+    /**
+     * 构造，输出到文件，不滚动
+     *
+     * @param file 日志文件
+     */
+    public AsyncLogFactory(String file) {
+        this(file, 0, Rolling.NONE);
+    }
+
+    /**
+     * 构造，缓冲8192条，缓冲已满时丢弃低于WARN级别的事件
+     *
+     * @param file        日志文件，为null时输出到控制台
+     * @param maxFileSize 单个文件最大字节数，不大于0时不按大小滚动
+     * @param rolling     按时间滚动方式
+     */
+    public AsyncLogFactory(String file, long maxFileSize, Rolling rolling) {
+        this(file, maxFileSize, rolling, 8192, Overflow.DISCARD_BELOW, Level.WARN);
+    }
+
+    /**
+     * 构造
+     *
+     * @param file         日志文件，为null时输出到控制台
+     * @param maxFileSize  单个文件最大字节数，不大于0时不按大小滚动
+     * @param rolling      按时间滚动方式
+     * @param capacity     缓冲容量，向上取2的幂
+     * @param overflow     缓冲已满时的处理策略
+     * @param discardLevel 策略为{@link Overflow#DISCARD_BELOW}时，低于该级别的事件被丢弃
+     */
+    public AsyncLogFactory(String file, long maxFileSize, Rolling rolling, int capacity, Overflow overflow, Level discardLevel) {
+        super(null == file ? "Async Console Logging" : "Async File Logging");
+        Assert.notNull(rolling);
+        Assert.notNull(overflow);
+        final Path path = null == file ? null : Paths.get(file);
+        this.buffer = new RingBuffer(capacity);
+        this.writer = new AsyncWriter(buffer, path, maxFileSize, rolling);
+        this.overflow = overflow;
+        this.discardLevel = null == discardLevel ? Level.WARN : discardLevel;
+        this.shutdownHook = new Thread(this::close, "bus-logger-async-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * 设置日志显示级别
+     *
+     * @param level 级别
+     */
+    public void setLevel(Level level) {
+        Assert.notNull(level);
+        this.level = level;
+    }
+
+    /**
+     * 获取日志显示级别
+     *
+     * @return 级别
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 因缓冲已满或已关闭而丢弃的事件数
+     *
+     * @return 事件数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 关闭，等待缓冲中的事件写完，之后的事件被丢弃并计入{@link #getDroppedCount()}
+     */
+    public void close() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // 进程正在退出，由钩子调用
+        }
+        writer.close(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return this.level.compareTo(level) <= 0;
+    }
+
+    @Override
+    public Log createLog(String name) {
+        return new AsyncLog(this, name);
+    }
+
+    @Override
+    public Log createLog(Class<?> clazz) {
+        return new AsyncLog(this, clazz);
+    }
+
+    /**
+     * 放入缓冲，消息已在调用线程格式化
+     *
+     * @param level   级别
+     * @param name    日志名
+     * @param message 消息
+     * @param t       异常
+     */
+    void append(Level level, String name, String message, Throwable t) {
+        // 已关闭或写出线程已退出时缓冲已关闭，领取失败
+        long sequence = buffer.tryClaim();
+        while (sequence < 0) {
+            if (RingBuffer.CLOSED == sequence || Overflow.DROP == overflow
+                    || (Overflow.DISCARD_BELOW == overflow && level.compareTo(discardLevel) < 0)) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+            sequence = buffer.tryClaim();
+        }
+        buffer.publish(sequence, System.currentTimeMillis(), level, name, message, t);
+    }
+
+    /**
+     * 缓冲已满时的处理策略
+     */
+    public enum Overflow {
+        /**
+         * 等待写出线程腾出空间
+         */
+        BLOCK,
+        /**
+         * 丢弃新事件
+         */
+        DROP,
+        /**
+         * 丢弃低于指定级别的新事件，其余等待
+         */
+        DISCARD_BELOW
+    }
+
+    /**
+     * 按时间滚动方式
+     */
+    public enum Rolling {
+        /**
+         * 不按时间滚动
+         */
+        NONE,
+        /**
+         * 每小时
+         */
+        HOURLY,
+        /**
+         * 每天
+         */
+        DAILY
+    }
+
+}
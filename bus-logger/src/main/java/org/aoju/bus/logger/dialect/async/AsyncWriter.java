@@ -0,0 +1,293 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.logger.dialect.async;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 单线程写出器
+ * 从环形缓冲中批量取出事件，编码到直接缓冲区后写入FileChannel，
+ * 缓冲为空或缓冲区写满时落盘；输出到文件时按大小及时间滚动
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+final class AsyncWriter implements Runnable {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 缓冲为空时的等待时长
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RingBuffer buffer;
+
+    /**
+     * 日志文件，为null时输出到控制台
+     */
+    private final Path file;
+
+    /**
+     * 单个文件最大字节数，不大于0时不按大小滚动
+     */
+    private final long maxFileSize;
+
+    private final AsyncLogFactory.Rolling rolling;
+
+    private final ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private FileChannel channel;
+
+    /**
+     * 当前文件已写入字节数
+     */
+    private long size;
+
+    /**
+     * 当前时间段的起始与下次按时间滚动的时间点
+     */
+    private LocalDateTime period;
+
+    private long nextRollAt = Long.MAX_VALUE;
+
+    /**
+     * 缓存的秒级时间文本
+     */
+    private long cachedSecond = -1;
+
+    private String cachedDate;
+
+    AsyncWriter(RingBuffer buffer, Path file, long maxFileSize, AsyncLogFactory.Rolling rolling) {
+        this.buffer = buffer;
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.rolling = rolling;
+        try {
+            open(System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not open log file: " + file, e);
+        }
+        this.thread = new Thread(this, "bus-logger-async");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 停止写出，等待缓冲中的事件写完
+     *
+     * @param timeout 最长等待时长，单位毫秒
+     */
+    void close(long timeout) {
+        // 先关闭缓冲，之后不再有新事件，再通知写出线程写完已领取的事件
+        buffer.close();
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running || false == buffer.isEmpty()) {
+                final RingBuffer.Event event = buffer.peek();
+                if (null == event) {
+                    flush();
+                    if (running) {
+                        LockSupport.parkNanos(IDLE_NANOS);
+                    } else {
+                        // 已领取未发布的事件很快会发布
+                        Thread.onSpinWait();
+                    }
+                    continue;
+                }
+                try {
+                    write(event);
+                } catch (RuntimeException | IOException e) {
+                    System.err.println("Async log write failed: " + e);
+                }
+                buffer.release(event);
+            }
+        } finally {
+            // 写出线程异常退出时同样关闭缓冲，之后的事件计为丢弃
+            buffer.close();
+            running = false;
+            flush();
+            closeChannel();
+        }
+    }
+
+    private void write(RingBuffer.Event event) throws IOException {
+        if (event.time >= nextRollAt) {
+            flush();
+            roll(event.time);
+        }
+        line.setLength(0);
+        line.append('[').append(date(event.time)).append("] [").append(event.level).append("] ")
+                .append(event.name).append(": ").append(event.message).append(System.lineSeparator());
+        if (null != event.throwable) {
+            final StringWriter writer = new StringWriter();
+            event.throwable.printStackTrace(new PrintWriter(writer));
+            line.append(writer);
+        }
+        final CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            final CoderResult result = encoder.encode(chars, out, true);
+            if (result.isOverflow()) {
+                flush();
+                continue;
+            }
+            break;
+        }
+        encoder.reset();
+        if (maxFileSize > 0 && size + out.position() >= maxFileSize) {
+            flush();
+            roll(event.time);
+        }
+    }
+
+    private String date(long time) {
+        final long second = time / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedDate = DATE.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()));
+        }
+        return cachedDate;
+    }
+
+    private void flush() {
+        if (out.position() == 0) {
+            return;
+        }
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                size += channel.write(out);
+            }
+        } catch (IOException e) {
+            System.err.println("Async log flush failed: " + e);
+        }
+        out.clear();
+    }
+
+    /**
+     * 打开日志文件并计算下次按时间滚动的时间点
+     */
+    private void open(long now) throws IOException {
+        if (null == file) {
+            channel = new FileOutputStream(FileDescriptor.out).getChannel();
+            return;
+        }
+        if (null != file.getParent()) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+        final LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        switch (rolling) {
+            case HOURLY:
+                period = time.truncatedTo(ChronoUnit.HOURS);
+                nextRollAt = period.plusHours(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                break;
+            case DAILY:
+                period = time.truncatedTo(ChronoUnit.DAYS);
+                nextRollAt = period.plusDays(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                break;
+            default:
+                period = time.truncatedTo(ChronoUnit.DAYS);
+                nextRollAt = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 将当前文件重命名为 文件名.时间段.序号 后重新打开
+     */
+    private void roll(long now) throws IOException {
+        if (null == file) {
+            nextRollAt = Long.MAX_VALUE;
+            return;
+        }
+        closeChannel();
+        final String label = period.format(AsyncLogFactory.Rolling.HOURLY == rolling ?
+                DateTimeFormatter.ofPattern("yyyy-MM-dd-HH") : DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        int index = 1;
+        Path target;
+        do {
+            target = file.resolveSibling(file.getFileName() + "." + label + "." + index++);
+        } while (Files.exists(target));
+        if (Files.exists(file)) {
+            Files.move(file, target);
+        }
+        open(now);
+    }
+
+    private void closeChannel() {
+        if (null == file || null == channel) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Async log close failed: " + e);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.logger.dialect.async;
+
+import org.aoju.bus.logger.level.Level;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多生产者单消费者的有界无锁环形缓冲
+ * 事件对象预先分配并循环使用；生产者CAS领取序号后填充事件，
+ * 以写入序号的方式发布，消费者按序号顺序读取；
+ * 关闭标记与领取序号在同一个原子变量中，关闭后不会再有事件被领取
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+final class RingBuffer {
+
+    /**
+     * 缓冲已满
+     */
+    static final long FULL = -1;
+
+    /**
+     * 缓冲已关闭
+     */
+    static final long CLOSED = -2;
+
+    /**
+     * 关闭标记，置于下一个可领取序号的符号位
+     */
+    private static final long CLOSED_BIT = Long.MIN_VALUE;
+
+    private final Event[] slots;
+
+    private final int mask;
+
+    /**
+     * 下一个可领取的序号，关闭后符号位置位
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个待消费的序号，仅消费者写入
+     */
+    private volatile long head;
+
+    /**
+     * 构造
+     *
+     * @param capacity 容量，向上取2的幂
+     */
+    RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Event[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Event();
+        }
+    }
+
+    /**
+     * 尝试领取序号
+     *
+     * @return 序号，缓冲已满时返回{@link #FULL}，已关闭时返回{@link #CLOSED}
+     */
+    long tryClaim() {
+        long current;
+        do {
+            current = tail.get();
+            if (current < 0) {
+                return CLOSED;
+            }
+            if (current - head >= slots.length) {
+                return FULL;
+            }
+        } while (false == tail.compareAndSet(current, current + 1));
+        return current;
+    }
+
+    /**
+     * 关闭，此后领取均失败，已领取的事件仍可消费
+     */
+    void close() {
+        long current;
+        do {
+            current = tail.get();
+        } while (current >= 0 && false == tail.compareAndSet(current, current | CLOSED_BIT));
+    }
+
+    /**
+     * 填充并发布事件
+     */
+    void publish(long sequence, long time, Level level, String name, String message, Throwable t) {
+        final Event event = slots[(int) (sequence & mask)];
+        event.time = time;
+        event.level = level;
+        event.name = name;
+        event.message = message;
+        event.throwable = t;
+        event.sequence = sequence;
+    }
+
+    /**
+     * 获取下一个已发布的事件，仅消费者调用
+     *
+     * @return 事件，无事件时返回null
+     */
+    Event peek() {
+        final long next = head;
+        final Event event = slots[(int) (next & mask)];
+        return event.sequence == next ? event : null;
+    }
+
+    /**
+     * 释放已消费的事件，仅消费者调用
+     *
+     * @param event 事件
+     */
+    void release(Event event) {
+        event.clear();
+        head = head + 1;
+    }
+
+    /**
+     * 是否没有未消费的事件
+     *
+     * @return 是否为空
+     */
+    boolean isEmpty() {
+        return (tail.get() & ~CLOSED_BIT) == head;
+    }
+
+    /**
+     * 日志事件
+     */
+    static final class Event {
+
+        long time;
+        Level level;
+        String name;
+        String message;
+        Throwable throwable;
+        /**
+         * 已发布的序号，未发布时为-1
+         */
+        volatile long sequence = -1;
+
+        void clear() {
+            name = null;
+            message = null;
+            throwable = null;
+        }
+    }
+
+}
@@ -0,0 +1,7 @@
+/**
+ * 异步环形缓冲输出的实现封装
+ *
+ * @author Kimi Liu
+ * @since Java 17++
+ */
+package org.aoju.bus.logger.dialect.async;
\ No newline at end of file
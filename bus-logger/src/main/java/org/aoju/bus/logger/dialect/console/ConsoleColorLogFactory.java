@@ -27,6 +27,7 @@ package org.aoju.bus.logger.dialect.console;
 
 import org.aoju.bus.logger.Log;
 import org.aoju.bus.logger.LogFactory;
+import org.aoju.bus.logger.level.Level;
 
 /**
  * 利用System.out.println()打印彩色日志
@@ -40,6 +41,11 @@ public class ConsoleColorLogFactory extends LogFactory {
         super("Console Color Logging");
     }
 
+    @Override
+    public boolean isEnabled(Level level) {
+        return ConsoleLog.getLevel().compareTo(level) <= 0;
+    }
+
     @Override
     public Log createLog(String name) {
         return new ConsoleColorLog(name);
@@ -27,6 +27,7 @@ package org.aoju.bus.logger.dialect.console;
 
 import org.aoju.bus.logger.Log;
 import org.aoju.bus.logger.LogFactory;
+import org.aoju.bus.logger.level.Level;
 
 /**
  * 利用System.out.println()打印日志
@@ -40,6 +41,11 @@ public class ConsoleLogFactory extends LogFactory {
         super("Console Logging");
     }
 
+    @Override
+    public boolean isEnabled(Level level) {
+        return ConsoleLog.getLevel().compareTo(level) <= 0;
+    }
+
     @Override
     public Log createLog(String name) {
         return new ConsoleLog(name);
@@ -109,6 +109,14 @@ public class Page<E> extends ArrayList<E> implements Closeable {
      * 分页实现类，可以使用 {@link PageAutoDialect} 类中注册的别名，例如 "mysql", "oracle"
      */
     private String dialectClass;
+    /**
+     * 游标分页的键列，格式同 order by，如 "id" 或 "create_time desc"
+     */
+    private String[] seekColumns;
+    /**
+     * 上一页最后一行的键值，首页为 null
+     */
+    private Object[] seekValues;
 
     public Page() {
         super();
@@ -297,10 +305,76 @@ public class Page<E> extends ArrayList<E> implements Closeable {
      * 计算起止行号
      */
     private void calculateStartAndEndRow() {
+        if (isSeek()) {
+            // 游标分页总是从条件之后的第一行开始
+            this.startRow = 0;
+            this.endRow = this.pageSize;
+            return;
+        }
         this.startRow = this.pageNo > 0 ? (this.pageNo - 1) * this.pageSize : 0;
         this.endRow = this.startRow + this.pageSize * (this.pageNo > 0 ? 1 : 0);
     }
 
+    public boolean isSeek() {
+        return seekColumns != null;
+    }
+
+    public String[] getSeekColumns() {
+        return seekColumns;
+    }
+
+    public Object[] getSeekValues() {
+        return seekValues;
+    }
+
+    /**
+     * 使用游标(keyset)分页：按键列排序，并从上一页最后一行之后取 pageSize 行，
+     * 深分页时无需扫描跳过前面的行，键列组合应唯一且有索引.
+     * 设置后 orderBy 不再生效，页码仅作展示
+     *
+     * @param columns    键列，格式同 order by，如 "id" 或 "create_time desc"
+     * @param lastValues 上一页最后一行的键值，与键列一一对应，首页不传
+     * @return 结果
+     */
+    public Page<E> seek(String[] columns, Object... lastValues) {
+        if (columns == null || columns.length == 0) {
+            throw new PageException("游标分页至少需要一个键列");
+        }
+        for (String column : columns) {
+            if (SqlInjection.check(column)) {
+                throw new PageException("seek column [" + column + "] 存在 SQL 注入风险");
+            }
+        }
+        if (lastValues != null && lastValues.length == 0) {
+            lastValues = null;
+        }
+        if (lastValues != null) {
+            if (lastValues.length != columns.length) {
+                throw new PageException("游标分页的键值数量[" + lastValues.length + "]与键列数量[" + columns.length + "]不一致");
+            }
+            for (Object value : lastValues) {
+                if (value == null) {
+                    throw new PageException("游标分页的键值不能为 null");
+                }
+            }
+        }
+        this.seekColumns = columns;
+        this.seekValues = lastValues;
+        calculateStartAndEndRow();
+        return this;
+    }
+
+    /**
+     * 使用单列游标分页
+     *
+     * @param column    键列
+     * @param lastValue 上一页最后一行的键值，首页传 null
+     * @return 结果
+     */
+    public Page<E> seek(String column, Object lastValue) {
+        return seek(new String[]{column}, lastValue == null ? null : new Object[]{lastValue});
+    }
+
     public boolean isCount() {
         return this.count;
     }
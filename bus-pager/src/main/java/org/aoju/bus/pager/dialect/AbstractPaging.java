@@ -64,6 +64,10 @@ public abstract class AbstractPaging extends AbstractDialect {
      * 第二个分页参数
      */
     public static String PAGEPARAMETER_SECOND = "Second" + SUFFIX_PAGE;
+    /**
+     * 游标分页参数前缀，后接键列下标
+     */
+    public static String PAGEPARAMETER_SEEK = "Seek" + SUFFIX_PAGE;
 
     /**
      * 获取分页参数
@@ -160,6 +164,7 @@ public abstract class AbstractPaging extends AbstractDialect {
                     String name = parameterMapping.getProperty();
                     if (!name.equals(PAGEPARAMETER_FIRST)
                             && !name.equals(PAGEPARAMETER_SECOND)
+                            && !name.startsWith(PAGEPARAMETER_SEEK)
                             && paramMap.get(name) == null) {
                         if (hasTypeHandler
                                 || parameterMapping.getJavaType().equals(parameterObject.getClass())) {
@@ -170,9 +175,49 @@ public abstract class AbstractPaging extends AbstractDialect {
                 }
             }
         }
+        if (page.isSeek()) {
+            processSeekParameter(ms, paramMap, page, boundSql, pageKey);
+        }
         return processPageParameter(ms, paramMap, page, boundSql, pageKey);
     }
 
+    /**
+     * 处理游标分页参数，追加在原参数之后、分页参数之前
+     *
+     * @param ms       MappedStatement
+     * @param paramMap Map
+     * @param page     Page
+     * @param boundSql BoundSql
+     * @param pageKey  CacheKey
+     */
+    protected void processSeekParameter(MappedStatement ms, Map<String, Object> paramMap, Page page, BoundSql boundSql, CacheKey pageKey) {
+        Object[] seekValues = page.getSeekValues();
+        if (seekValues == null) {
+            return;
+        }
+        for (int i = 0; i < seekValues.length; i++) {
+            paramMap.put(PAGEPARAMETER_SEEK + i, seekValues[i]);
+            pageKey.update(seekValues[i]);
+        }
+        if (boundSql.getParameterMappings() != null) {
+            List<ParameterMapping> newParameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+            for (int index : OrderByParser.seekParameterOrder(page.getSeekColumns(), isRowValueSupported())) {
+                newParameterMappings.add(new ParameterMapping.Builder(ms.getConfiguration(), PAGEPARAMETER_SEEK + index, Object.class).build());
+            }
+            MetaObject metaObject = org.aoju.bus.mapper.reflect.MetaObject.forObject(boundSql);
+            metaObject.setValue("parameterMappings", newParameterMappings);
+        }
+    }
+
+    /**
+     * 是否支持行值比较，如 (k1, k2) &gt; (?, ?)，不支持时游标条件展开为 OR 形式
+     *
+     * @return 默认false
+     */
+    protected boolean isRowValueSupported() {
+        return false;
+    }
+
     /**
      * 处理分页参数
      *
@@ -198,6 +243,13 @@ public abstract class AbstractPaging extends AbstractDialect {
     public String getPageSql(MappedStatement ms, BoundSql boundSql, Object parameterObject, org.apache.ibatis.session.RowBounds rowBounds, CacheKey pageKey) {
         String sql = boundSql.getSql();
         Page page = getLocalPage();
+        // 游标分页，排序由键列决定
+        if (page.isSeek() && !page.isOrderByOnly()) {
+            String[] seekColumns = page.getSeekColumns();
+            pageKey.update(String.join(",", seekColumns));
+            sql = OrderByParser.converToSeekSql(sql, seekColumns, page.getSeekValues() == null, isRowValueSupported(), jSqlParser);
+            return getPageSql(sql, page, pageKey);
+        }
         // 支持 order by
         String orderBy = page.getOrderBy();
         if (StringKit.isNotEmpty(orderBy)) {
@@ -79,4 +79,9 @@ public class MySql extends AbstractPaging {
         return sqlBuilder.toString();
     }
 
+    @Override
+    protected boolean isRowValueSupported() {
+        return true;
+    }
+
 }
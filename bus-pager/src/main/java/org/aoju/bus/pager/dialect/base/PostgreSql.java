@@ -82,4 +82,9 @@ public class PostgreSql extends AbstractPaging {
         return paramMap;
     }
 
+    @Override
+    protected boolean isRowValueSupported() {
+        return true;
+    }
+
 }
@@ -100,6 +100,15 @@ public class SqlServer extends AbstractPaging {
     public String getPageSql(MappedStatement ms, BoundSql boundSql, Object parameterObject, RowBounds rowBounds, CacheKey pageKey) {
         String sql = boundSql.getSql();
         Page page = this.getLocalPage();
+        // 游标分页，排序由键列决定
+        if (page.isSeek() && !page.isOrderByOnly()) {
+            String[] seekColumns = page.getSeekColumns();
+            pageKey.update(String.join(",", seekColumns));
+            sql = this.replaceSql.replace(sql);
+            sql = OrderByParser.converToSeekSql(sql, seekColumns, page.getSeekValues() == null, isRowValueSupported(), jSqlParser);
+            sql = this.replaceSql.restore(sql);
+            return this.getPageSql(sql, page, pageKey);
+        }
         String orderBy = page.getOrderBy();
         if (StringKit.isNotEmpty(orderBy)) {
             pageKey.update(orderBy);
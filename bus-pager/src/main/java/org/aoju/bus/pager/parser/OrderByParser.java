@@ -25,6 +25,10 @@
  ********************************************************************************/
 package org.aoju.bus.pager.parser;
 
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.select.*;
 import org.aoju.bus.core.exception.PageException;
@@ -105,4 +109,161 @@ public class OrderByParser {
         return converToOrderBySql(sql, orderBy, JSqlParser.DEFAULT);
     }
 
+    /**
+     * convert to seek sql
+     * 游标分页：以键列排序，非首页时追加"键值大于上一页最后一行"的条件，可走索引范围扫描而无需跳过前面的行.
+     * 原SQL为简单查询时条件直接并入where，否则(含group by、union、limit等)包装为子查询后再过滤，
+     * 条件中的参数顺序与{@link #seekParameterOrder(String[], boolean)}一致
+     *
+     * @param sql        SQL
+     * @param columns    键列，格式同order by，如 "id" 或 "create_time desc"
+     * @param first      是否首页，首页不追加条件
+     * @param rowValue   数据库是否支持行值比较，支持且各列方向一致时生成 (k1, k2) &gt; (?, ?)
+     * @param jSqlParser 解析器
+     * @return the string
+     */
+    public static String converToSeekSql(String sql, String[] columns, boolean first, boolean rowValue, JSqlParser jSqlParser) {
+        boolean[] desc = new boolean[columns.length];
+        String[] names = seekColumns(columns, desc);
+        try {
+            Select select = (Select) jSqlParser.parse(sql);
+            SelectBody selectBody = select.getSelectBody();
+            List<OrderByElement> orderByElements = extraOrderBy(selectBody);
+            String defaultOrderBy = PlainSelect.orderByToString(orderByElements);
+            if (defaultOrderBy.indexOf('?') != -1) {
+                throw new PageException("原SQL[" + sql + "]中的order by包含参数，因此不能使用游标分页!");
+            }
+            if (selectBody instanceof PlainSelect && isSeekable((PlainSelect) selectBody)) {
+                PlainSelect plainSelect = (PlainSelect) selectBody;
+                if (!first) {
+                    Expression condition = CCJSqlParserUtil.parseCondExpression(seekCondition(names, desc, rowValue));
+                    Expression where = plainSelect.getWhere();
+                    plainSelect.setWhere(where == null ? condition
+                            : new AndExpression(new Parenthesis(where), new Parenthesis(condition)));
+                }
+                return select + " order by " + seekOrderBy(names, desc);
+            }
+            if (selectBody instanceof SetOperationList) {
+                ((SetOperationList) selectBody).setOrderByElements(null);
+            }
+            sql = select.toString();
+        } catch (PageException e) {
+            throw e;
+        } catch (Throwable e) {
+            Logger.warn("处理游标分页失败: " + e + "，降级为子查询过滤");
+        }
+        for (int i = 0; i < names.length; i++) {
+            names[i] = names[i].substring(names[i].lastIndexOf('.') + 1);
+        }
+        StringBuilder sqlBuilder = new StringBuilder(sql.length() + 64);
+        sqlBuilder.append("select * from (").append(sql).append(") seek_table");
+        if (!first) {
+            sqlBuilder.append(" where ").append(seekCondition(names, desc, rowValue));
+        }
+        return sqlBuilder.append(" order by ").append(seekOrderBy(names, desc)).toString();
+    }
+
+    /**
+     * 游标条件中各个参数对应的键列下标
+     *
+     * @param columns  键列
+     * @param rowValue 数据库是否支持行值比较
+     * @return 按参数出现顺序排列的下标
+     */
+    public static int[] seekParameterOrder(String[] columns, boolean rowValue) {
+        boolean[] desc = new boolean[columns.length];
+        seekColumns(columns, desc);
+        if (isRowValue(desc, rowValue)) {
+            int[] order = new int[columns.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+        int[] order = new int[columns.length * (columns.length + 1) / 2];
+        int index = 0;
+        for (int i = 0; i < columns.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                order[index++] = j;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * 解析键列的名称与方向
+     */
+    private static String[] seekColumns(String[] columns, boolean[] desc) {
+        String[] names = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String[] parts = columns[i].trim().split("\\s+");
+            names[i] = parts[0];
+            desc[i] = parts.length > 1 && "desc".equalsIgnoreCase(parts[parts.length - 1]);
+        }
+        return names;
+    }
+
+    /**
+     * 各列方向一致时才能使用行值比较
+     */
+    private static boolean isRowValue(boolean[] desc, boolean rowValue) {
+        if (!rowValue || desc.length < 2) {
+            return false;
+        }
+        for (boolean d : desc) {
+            if (d != desc[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 条件能否直接并入where：其后不能再有分组、分页等子句
+     */
+    private static boolean isSeekable(PlainSelect plainSelect) {
+        return plainSelect.getGroupBy() == null
+                && plainSelect.getHaving() == null
+                && plainSelect.getLimit() == null
+                && plainSelect.getOffset() == null
+                && plainSelect.getFetch() == null
+                && plainSelect.getTop() == null;
+    }
+
+    /**
+     * 生成 (k1, k2) &gt; (?, ?)，或展开为 k1 &gt; ? OR (k1 = ? AND k2 &gt; ?)
+     */
+    private static String seekCondition(String[] names, boolean[] desc, boolean rowValue) {
+        StringBuilder condition = new StringBuilder();
+        if (isRowValue(desc, rowValue)) {
+            condition.append('(').append(String.join(", ", names)).append(desc[0] ? ") < (" : ") > (");
+            for (int i = 0; i < names.length; i++) {
+                condition.append(i == 0 ? "?" : ", ?");
+            }
+            return condition.append(')').toString();
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append('(');
+            for (int j = 0; j < i; j++) {
+                condition.append(names[j]).append(" = ? AND ");
+            }
+            condition.append(names[i]).append(desc[i] ? " < ?" : " > ?").append(')');
+        }
+        return condition.toString();
+    }
+
+    private static String seekOrderBy(String[] names, boolean[] desc) {
+        StringBuilder orderBy = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                orderBy.append(", ");
+            }
+            orderBy.append(names[i]).append(desc[i] ? " DESC" : " ASC");
+        }
+        return orderBy.toString();
+    }
+
 }
@@ -77,6 +77,21 @@ public abstract class PageMethod {
         return page.getTotal();
     }
 
+    /**
+     * 开始游标分页，不进行count查询
+     *
+     * @param <E>        对象
+     * @param pageSize   每页显示数量
+     * @param columns    键列，格式同 order by，如 "id" 或 "create_time desc"
+     * @param lastValues 上一页最后一行的键值，首页不传
+     * @return 结果
+     */
+    public static <E> Page<E> startSeek(int pageSize, String[] columns, Object... lastValues) {
+        Page<E> page = startPage(1, pageSize, false);
+        page.seek(columns, lastValues);
+        return page;
+    }
+
     /**
      * 开始分页
      *
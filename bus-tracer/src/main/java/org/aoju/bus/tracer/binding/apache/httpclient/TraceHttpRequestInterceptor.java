@@ -29,6 +29,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpRequestInterceptor;
@@ -42,6 +44,11 @@ import java.util.Map;
  */
 public class TraceHttpRequestInterceptor implements HttpRequestInterceptor {
 
+    /**
+     * 客户端跨度在{@link HttpContext}中的属性名，由{@link TraceHttpResponseInterceptor}结束
+     */
+    static final String SPAN_ATTRIBUTE = TraceHttpRequestInterceptor.class.getName() + ".span";
+
     private final Backend backend;
     private final HttpHeaderTransport transportSerialization;
     private final String profile;
@@ -62,11 +69,19 @@ public class TraceHttpRequestInterceptor implements HttpRequestInterceptor {
 
     @Override
     public final void process(final HttpRequest httpRequest, final HttpContext httpContext) {
-        final TraceFilterConfig filterConfiguration = backend.getConfiguration(profile);
-        if (!backend.isEmpty() && filterConfiguration.shouldProcessContext(TraceFilterConfig.Channel.OutgoingRequest)) {
-            final Map<String, String> filteredParams = filterConfiguration.filterDeniedParams(backend.copyToMap(),
-                    TraceFilterConfig.Channel.OutgoingRequest);
-            httpRequest.setHeader(Builder.TPIC_HEADER, transportSerialization.render(filteredParams));
+        final Span span = Spans.start(backend, Span.Kind.CLIENT, httpRequest.getRequestLine().getUri());
+        try {
+            final TraceFilterConfig filterConfiguration = backend.getConfiguration(profile);
+            if (!backend.isEmpty() && filterConfiguration.shouldProcessContext(TraceFilterConfig.Channel.OutgoingRequest)) {
+                final Map<String, String> filteredParams = filterConfiguration.filterDeniedParams(backend.copyToMap(),
+                        TraceFilterConfig.Channel.OutgoingRequest);
+                httpRequest.setHeader(Builder.TPIC_HEADER, transportSerialization.render(filteredParams));
+            }
+        } finally {
+            Spans.exit(backend, span);
+        }
+        if (null != span) {
+            httpContext.setAttribute(SPAN_ATTRIBUTE, span);
         }
     }
 
@@ -29,6 +29,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
@@ -75,6 +77,11 @@ public class TraceHttpResponseInterceptor implements HttpResponseInterceptor {
             backend.putAll(filterConfiguration.filterDeniedParams(transportSerialization.parse(stringTraceHeaders),
                     TraceFilterConfig.Channel.IncomingResponse));
         }
+        final Object span = context.getAttribute(TraceHttpRequestInterceptor.SPAN_ATTRIBUTE);
+        if (span instanceof Span) {
+            context.removeAttribute(TraceHttpRequestInterceptor.SPAN_ATTRIBUTE);
+            Spans.end((Span) span, response.getStatusLine().getStatusCode() >= 500);
+        }
     }
 
 }
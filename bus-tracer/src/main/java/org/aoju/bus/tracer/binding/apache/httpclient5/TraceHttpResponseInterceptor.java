@@ -29,6 +29,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 import org.apache.hc.core5.http.EntityDetails;
 import org.apache.hc.core5.http.Header;
@@ -77,6 +79,11 @@ public class TraceHttpResponseInterceptor implements HttpResponseInterceptor {
             backend.putAll(filterConfiguration.filterDeniedParams(transportSerialization.parse(stringTraceHeaders),
                     TraceFilterConfig.Channel.IncomingResponse));
         }
+        final Object span = httpContext.getAttribute(TraceHttpRequestInterceptor.SPAN_ATTRIBUTE);
+        if (span instanceof Span) {
+            httpContext.removeAttribute(TraceHttpRequestInterceptor.SPAN_ATTRIBUTE);
+            Spans.end((Span) span, response.getCode() >= 500);
+        }
     }
 
 }
@@ -27,7 +27,12 @@ package org.aoju.bus.tracer.binding.dubbo;
 
 import org.aoju.bus.core.lang.Normal;
 import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.tracer.Backend;
+import org.aoju.bus.tracer.Tracer;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
 
 /**
  * 基础dubbo过滤器
@@ -42,6 +47,30 @@ public abstract class BaseDubboFilter implements Filter, Filter.Listener {
             "org.apache.dubbo.rpc.service.GenericService"
     };
 
+    /**
+     * 跨度在{@link Invocation}中的属性名，异步调用时在回调中结束
+     */
+    private static final String SPAN_ATTRIBUTE = BaseDubboFilter.class.getName() + ".span";
+
+    final Backend backend = Tracer.getBackend();
+
+    String spanName(Invocation invocation) {
+        return invocation.getServiceName() + "#" + invocation.getMethodName();
+    }
+
+    void holdSpan(Invocation invocation, Span span) {
+        if (null != span) {
+            invocation.put(SPAN_ATTRIBUTE, span);
+        }
+    }
+
+    void endSpan(Invocation invocation, boolean error) {
+        final Object span = invocation.get(SPAN_ATTRIBUTE);
+        if (span instanceof Span) {
+            Spans.end((Span) span, error);
+        }
+    }
+
     boolean isDubboInnerService(String serviceName) {
         for (String dubboInnerServiceName : DUBBO_INNER_SERVICE_NAMES) {
             if (dubboInnerServiceName.equals(serviceName)) {
@@ -25,6 +25,8 @@
  ********************************************************************************/
 package org.aoju.bus.tracer.binding.dubbo;
 
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.apache.dubbo.common.constants.CommonConstants;
 import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.rpc.Invocation;
@@ -40,18 +42,35 @@ public class ConsumerTraceFilter extends BaseDubboFilter {
 
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) {
+        if (isDubboInnerService(invocation.getServiceName())) {
+            return invoker.invoke(invocation);
+        }
+        final Span span = Spans.start(backend, Span.Kind.CLIENT, spanName(invocation));
+        try {
+            final String traceId = backend.get(Spans.TRACE_ID_KEY);
+            if (null != traceId) {
+                invocation.setAttachment(Spans.TRACE_ID_KEY, traceId);
+                final String spanId = backend.get(Spans.SPAN_ID_KEY);
+                if (null != spanId) {
+                    invocation.setAttachment(Spans.SPAN_ID_KEY, spanId);
+                }
+            }
+        } finally {
+            Spans.exit(backend, span);
+        }
+        holdSpan(invocation, span);
         return invoker.invoke(invocation);
     }
 
 
     @Override
     public void onResponse(Result appResponse, Invoker<?> invoker, Invocation invocation) {
-
+        endSpan(invocation, appResponse.hasException());
     }
 
     @Override
     public void onError(Throwable t, Invoker<?> invoker, Invocation invocation) {
-
+        endSpan(invocation, true);
     }
 
 }
@@ -25,6 +25,8 @@
  ********************************************************************************/
 package org.aoju.bus.tracer.binding.dubbo;
 
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.apache.dubbo.common.constants.CommonConstants;
 import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.rpc.Invocation;
@@ -40,17 +42,39 @@ public class ProviderTraceFilter extends BaseDubboFilter {
 
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) {
-        return invoker.invoke(invocation);
+        if (isDubboInnerService(invocation.getServiceName())) {
+            return invoker.invoke(invocation);
+        }
+        final String traceId = invocation.getAttachment(Spans.TRACE_ID_KEY);
+        final boolean propagated = null != traceId && null == backend.get(Spans.TRACE_ID_KEY);
+        if (propagated) {
+            backend.put(Spans.TRACE_ID_KEY, traceId);
+            final String spanId = invocation.getAttachment(Spans.SPAN_ID_KEY);
+            if (null != spanId) {
+                backend.put(Spans.SPAN_ID_KEY, spanId);
+            }
+        }
+        final Span span = Spans.start(backend, Span.Kind.SERVER, spanName(invocation));
+        holdSpan(invocation, span);
+        try {
+            return invoker.invoke(invocation);
+        } finally {
+            Spans.exit(backend, span);
+            if (propagated) {
+                backend.remove(Spans.SPAN_ID_KEY);
+                backend.remove(Spans.TRACE_ID_KEY);
+            }
+        }
     }
 
     @Override
     public void onResponse(Result appResponse, Invoker<?> invoker, Invocation invocation) {
-
+        endSpan(invocation, appResponse.hasException());
     }
 
     @Override
     public void onError(Throwable throwable, Invoker<?> invoker, Invocation invocation) {
-
+        endSpan(invocation, true);
     }
 
 }
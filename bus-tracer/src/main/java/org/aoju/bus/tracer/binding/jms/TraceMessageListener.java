@@ -29,6 +29,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 
 import javax.interceptor.AroundInvoke;
@@ -60,13 +62,19 @@ public final class TraceMessageListener {
     @AroundInvoke
     public Object intercept(final InvocationContext ctx) throws Exception {
         final boolean isMdbInvocation = isMessageListenerOnMessageMethod(ctx.getMethod());
+        Span span = null;
+        boolean error = true;
         try {
             if (isMdbInvocation) {
                 beforeProcessing(extractMessageParameter(ctx.getParameters()));
+                span = Spans.start(backend, Span.Kind.CONSUMER, "onMessage");
             }
-            return ctx.proceed();
+            final Object result = ctx.proceed();
+            error = false;
+            return result;
         } finally {
             if (isMdbInvocation) {
+                Spans.finish(backend, span, error);
                 cleanUp();
             }
         }
@@ -29,6 +29,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 
 import javax.jms.Destination;
@@ -69,28 +71,47 @@ public class TraceMessageProducer implements MessageProducer {
         }
     }
 
+    /**
+     * 在生产者跨度内写入上下文并发送消息
+     *
+     * @param message  消息
+     * @param dispatch 发送动作
+     * @throws JMSException 发送失败
+     */
+    void dispatch(Message message, Dispatch dispatch) throws JMSException {
+        final Span span = Spans.start(backend, Span.Kind.PRODUCER, "send");
+        try {
+            writeTraceContextToMessage(message);
+        } finally {
+            Spans.exit(backend, span);
+        }
+        boolean error = true;
+        try {
+            dispatch.run();
+            error = false;
+        } finally {
+            Spans.end(span, error);
+        }
+    }
+
     @Override
     public void send(Message message) throws JMSException {
-        writeTraceContextToMessage(message);
-        delegate.send(message);
+        dispatch(message, () -> delegate.send(message));
     }
 
     @Override
     public void send(Message message, int deliveryMode, int priority, long timeToLive) throws JMSException {
-        writeTraceContextToMessage(message);
-        delegate.send(message, deliveryMode, priority, timeToLive);
+        dispatch(message, () -> delegate.send(message, deliveryMode, priority, timeToLive));
     }
 
     @Override
     public void send(Destination destination, Message message) throws JMSException {
-        writeTraceContextToMessage(message);
-        delegate.send(destination, message);
+        dispatch(message, () -> delegate.send(destination, message));
     }
 
     @Override
     public void send(Destination destination, Message message, int deliveryMode, int priority, long timeToLive) throws JMSException {
-        writeTraceContextToMessage(message);
-        delegate.send(destination, message, deliveryMode, priority, timeToLive);
+        dispatch(message, () -> delegate.send(destination, message, deliveryMode, priority, timeToLive));
     }
 
     @Override
@@ -153,4 +174,14 @@ public class TraceMessageProducer implements MessageProducer {
         delegate.close();
     }
 
+    /**
+     * 发送动作
+     */
+    @FunctionalInterface
+    interface Dispatch {
+
+        void run() throws JMSException;
+
+    }
+
 }
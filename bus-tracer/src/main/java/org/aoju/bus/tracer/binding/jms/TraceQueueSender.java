@@ -48,14 +48,12 @@ public final class TraceQueueSender implements QueueSender {
 
     @Override
     public void send(Queue queue, Message message) throws JMSException {
-        messageProducer.writeTraceContextToMessage(message);
-        delegate.send(queue, message);
+        messageProducer.dispatch(message, () -> delegate.send(queue, message));
     }
 
     @Override
     public void send(Queue queue, Message message, int deliveryMode, int priority, long timeToLive) throws JMSException {
-        messageProducer.writeTraceContextToMessage(message);
-        delegate.send(queue, message, deliveryMode, priority, timeToLive);
+        messageProducer.dispatch(message, () -> delegate.send(queue, message, deliveryMode, priority, timeToLive));
     }
 
     @Override
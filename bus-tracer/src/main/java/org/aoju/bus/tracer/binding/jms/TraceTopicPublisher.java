@@ -48,26 +48,22 @@ public final class TraceTopicPublisher implements TopicPublisher {
 
     @Override
     public void publish(Message message) throws JMSException {
-        messageProducer.writeTraceContextToMessage(message);
-        delegate.publish(message);
+        messageProducer.dispatch(message, () -> delegate.publish(message));
     }
 
     @Override
     public void publish(Message message, int deliveryMode, int priority, long timeToLive) throws JMSException {
-        messageProducer.writeTraceContextToMessage(message);
-        delegate.publish(message, deliveryMode, priority, timeToLive);
+        messageProducer.dispatch(message, () -> delegate.publish(message, deliveryMode, priority, timeToLive));
     }
 
     @Override
     public void publish(Topic topic, Message message) throws JMSException {
-        messageProducer.writeTraceContextToMessage(message);
-        delegate.publish(topic, message);
+        messageProducer.dispatch(message, () -> delegate.publish(topic, message));
     }
 
     @Override
     public void publish(Topic topic, Message message, int deliveryMode, int priority, long timeToLive) throws JMSException {
-        messageProducer.writeTraceContextToMessage(message);
-        delegate.publish(topic, message, deliveryMode, priority, timeToLive);
+        messageProducer.dispatch(message, () -> delegate.publish(topic, message, deliveryMode, priority, timeToLive));
     }
 
     @Override
@@ -33,6 +33,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 
 import java.io.IOException;
@@ -46,6 +48,10 @@ import java.util.Map;
 public class TraceFilter implements Filter {
 
     public static final String PROFILE_INIT_PARAM = "profile";
+    /**
+     * 本过滤器开始的跨度，请求属性名，其它绑定据此不再重复开始服务端跨度
+     */
+    public static final String SPAN_ATTRIBUTE = TraceFilter.class.getName() + ".span";
 
     private static final String HTTP_HEADER_NAME = Builder.TPIC_HEADER;
     private final Backend backend;
@@ -75,14 +81,20 @@ public class TraceFilter implements Filter {
                             final FilterChain filterChain) throws IOException, ServletException {
 
         final TraceFilterConfig configuration = backend.getConfiguration(profile);
-
+        final Span span = Spans.start(backend, Span.Kind.SERVER, request.getRequestURI());
+        if (null != span) {
+            request.setAttribute(SPAN_ATTRIBUTE, span);
+        }
+        boolean error = true;
         try {
             writeContextToResponse(response, configuration);
             filterChain.doFilter(request, response);
+            error = response.getStatus() >= 500;
         } finally {
             if (!response.isCommitted()) {
                 writeContextToResponse(response, configuration);
             }
+            Spans.finish(backend, span, error);
         }
     }
 
@@ -29,6 +29,8 @@ import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
@@ -65,10 +67,21 @@ public final class TraceClientHttpRequestInterceptor implements ClientHttpReques
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
-        preRequest(request);
-        final ClientHttpResponse response = execution.execute(request, body);
-        postResponse(response);
-        return response;
+        final Span span = Spans.start(backend, Span.Kind.CLIENT, request.getURI().getPath());
+        try {
+            preRequest(request);
+        } finally {
+            Spans.exit(backend, span);
+        }
+        boolean error = true;
+        try {
+            final ClientHttpResponse response = execution.execute(request, body);
+            postResponse(response);
+            error = response.getStatusCode().is5xxServerError();
+            return response;
+        } finally {
+            Spans.end(span, error);
+        }
     }
 
     private void preRequest(final HttpRequest request) {
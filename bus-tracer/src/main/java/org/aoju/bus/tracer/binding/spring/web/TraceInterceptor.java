@@ -31,11 +31,14 @@ import jakarta.servlet.http.HttpSession;
 import org.aoju.bus.tracer.Backend;
 import org.aoju.bus.tracer.Builder;
 import org.aoju.bus.tracer.Tracer;
+import org.aoju.bus.tracer.binding.servlet.TraceFilter;
 import org.aoju.bus.tracer.config.TraceFilterConfig;
+import org.aoju.bus.tracer.span.Span;
+import org.aoju.bus.tracer.span.Spans;
 import org.aoju.bus.tracer.transport.HttpHeaderTransport;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.Collections;
@@ -43,12 +46,18 @@ import java.util.Enumeration;
 import java.util.Map;
 
 /**
+ * 已安装{@link TraceFilter}时沿用其服务端跨度，不再重复开始；
+ * 异步请求在请求线程退出时恢复该线程的跨度，在异步处理完成时结束跨度
+ *
  * @author Kimi Liu
  * @since Java 17+
  */
 @Component
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
-public final class TraceInterceptor implements HandlerInterceptor {
+public final class TraceInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE = TraceInterceptor.class.getName() + ".span";
+    private static final String ASYNC_ATTRIBUTE = TraceInterceptor.class.getName() + ".async";
 
     private final Backend backend;
     private final HttpHeaderTransport httpHeaderSerialization;
@@ -74,7 +83,7 @@ public final class TraceInterceptor implements HandlerInterceptor {
             final Enumeration<String> headers = request.getHeaders(incomingHeaderName);
             if (null != headers && headers.hasMoreElements()) {
                 final Map<String, String> parsedContext = httpHeaderSerialization.parse(Collections.list(headers));
-                backend.putAll(configuration.filterDeniedParams(parsedContext, TraceFilterConfig.Channel.IncomingResponse));
+                backend.putAll(configuration.filterDeniedParams(parsedContext, TraceFilterConfig.Channel.IncomingRequest));
             }
         }
 
@@ -85,6 +94,14 @@ public final class TraceInterceptor implements HandlerInterceptor {
             org.aoju.bus.tracer.Builder.generateSessionIdIfNecessary(backend, session.getId());
         }
 
+        // 异步分派时跨度已在首次分派时开始
+        if (null == request.getAttribute(TraceFilter.SPAN_ATTRIBUTE) && null == request.getAttribute(SPAN_ATTRIBUTE)) {
+            final Span span = Spans.start(backend, Span.Kind.SERVER, request.getRequestURI());
+            if (null != span) {
+                request.setAttribute(SPAN_ATTRIBUTE, span);
+            }
+        }
+
         writeHeaderIfUncommitted(response);
 
         return true;
@@ -95,11 +112,33 @@ public final class TraceInterceptor implements HandlerInterceptor {
 
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object o) {
+        // 请求线程退出，跨度留待异步处理完成时结束
+        final Span span = (Span) request.getAttribute(SPAN_ATTRIBUTE);
+        if (null != span) {
+            request.setAttribute(ASYNC_ATTRIBUTE, Boolean.TRUE);
+            Spans.exit(backend, span);
+        }
+        // 已安装过滤器时由其在请求线程上清理
+        if (null == request.getAttribute(TraceFilter.SPAN_ATTRIBUTE)) {
+            backend.clear();
+        }
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object o, Exception e) {
         try {
             writeHeaderIfUncommitted(response);
         } finally {
+            final Span span = (Span) request.getAttribute(SPAN_ATTRIBUTE);
+            final boolean error = null != e || response.getStatus() >= 500;
+            if (null != request.getAttribute(ASYNC_ATTRIBUTE)) {
+                // 跨度在其它线程开始，当前线程只需结束
+                Spans.end(span, error);
+            } else {
+                Spans.finish(backend, span, error);
+            }
             backend.clear();
         }
     }
@@ -29,6 +29,7 @@ import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.tracer.Builder;
+import org.aoju.bus.tracer.span.Spans;
 
 import java.io.IOException;
 import java.util.*;
@@ -96,6 +97,11 @@ public final class PropertiesBasedTraceFilter implements TraceFilterConfig {
 
     @Override
     public boolean shouldProcessParam(String paramName, Channel channel) {
+        // 跨度标识只随请求向下游传递，响应回传会让调用方延续下游的跨度
+        if ((Channel.OutgoingResponse == channel || Channel.IncomingResponse == channel)
+                && (Spans.TRACE_ID_KEY.equals(paramName) || Spans.SPAN_ID_KEY.equals(paramName))) {
+            return false;
+        }
         final String messageTypePropertyValue = getProfiledOrDefaultProperty(channel.name());
         final List<Pattern> patterns = retrievePatternsForPropertyValue(messageTypePropertyValue);
         return anyPatternMatchesParamName(patterns, paramName);
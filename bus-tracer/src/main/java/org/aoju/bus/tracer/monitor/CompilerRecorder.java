@@ -0,0 +1,85 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.tracer.monitor;
+
+import jdk.jfr.consumer.RecordingStream;
+
+import java.io.Closeable;
+import java.time.Duration;
+
+/**
+ * 通过JFR事件流订阅JIT编译统计(jdk.CompilerStatistics)，对应jstat -compiler的输出
+ * 运行时不含jdk.jfr模块时构造失败，由{@link Sampler}退回MXBean
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+final class CompilerRecorder implements Closeable {
+
+    private static final String EVENT = "jdk.CompilerStatistics";
+
+    private final RecordingStream stream;
+
+    /**
+     * 编译任务执行的次数
+     */
+    volatile long compiled = -1;
+    /**
+     * 编译失败的次数
+     */
+    volatile long failed = -1;
+    /**
+     * 编译失效的次数
+     */
+    volatile long invalid = -1;
+    /**
+     * 编译总耗时(毫秒)
+     */
+    volatile long time = -1;
+
+    CompilerRecorder(final Duration period) {
+        this.stream = new RecordingStream();
+        this.stream.enable(EVENT).withPeriod(period);
+        this.stream.onEvent(EVENT, event -> {
+            this.compiled = event.getInt("compileCount");
+            this.failed = event.getInt("bailoutCount");
+            this.invalid = event.getInt("invalidatedCount");
+            this.time = event.getDuration("totalTimeSpent").toMillis();
+        });
+        this.stream.setReuse(true);
+        this.stream.setOrdered(false);
+        // startAsync的处理线程不是守护线程，会阻止JVM退出
+        final Thread thread = new Thread(this.stream::start, "bus-tracer-jfr");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        this.stream.close();
+    }
+
+}
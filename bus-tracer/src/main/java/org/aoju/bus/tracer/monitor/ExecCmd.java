@@ -25,28 +25,46 @@
  ********************************************************************************/
 package org.aoju.bus.tracer.monitor;
 
+import com.sun.management.HotSpotDiagnosticMXBean;
 import org.aoju.bus.core.lang.System;
 import org.aoju.bus.core.lang.*;
-import org.aoju.bus.core.toolkit.ArrayKit;
 import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.logger.Logger;
 
 import java.io.*;
 import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * 进程信息及快照导出
+ * GC、类加载与线程信息由{@link Sampler}在进程内读取，不再启动jstat/jstack/jmap子进程
+ *
  * @author Kimi Liu
  * @since Java 17+
  */
 public class ExecCmd {
 
+    /**
+     * 共享的采样器，首次使用时启动，编译统计由JFR事件流采集，对应jstat -compiler
+     */
+    private static class SamplerHolder {
+        private static final Sampler INSTANCE = new Sampler(1, TimeUnit.SECONDS, true);
+
+        static {
+            INSTANCE.start();
+        }
+    }
+
     /**
      * 执行外部程序,并获取标准输出
      *
@@ -111,26 +129,13 @@ public class ExecCmd {
     }
 
     /**
-     * @return java版本信息
+     * @return java版本信息，格式同java -version
      */
     public static String version() {
-        try {
-            Process p = Runtime.getRuntime().exec(new String[]{"java", "-version"});
-            InputStreamReader inputStreamReader = new InputStreamReader(p.getErrorStream());
-            BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while (null != (line = bufferedReader.readLine())) {
-                sb.append(line);
-                sb.append(Symbol.LF);
-            }
-            bufferedReader.close();
-            p.destroy();
-            return sb.toString();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return Normal.EMPTY;
+        return "java version \"" + System.getProperty(System.VERSION) + "\"" + Symbol.LF
+                + System.getProperty("java.runtime.name") + " (build " + System.getProperty("java.runtime.version") + ")" + Symbol.LF
+                + System.getProperty(System.VM_NAME) + " (build " + System.getProperty(System.VM_VERSION)
+                + ", " + System.getProperty("java.vm.info") + ")" + Symbol.LF;
     }
 
     /**
@@ -151,7 +156,7 @@ public class ExecCmd {
     }
 
     /**
-     * 导出堆快照
+     * 导出堆快照，仅包含存活对象
      *
      * @return 快照信息
      */
@@ -162,7 +167,11 @@ public class ExecCmd {
         if (!file.exists()) {
             file.mkdirs();
         }
-        ExecCmd.execute(new String[]{"jmap", "-dump:format=b,file=" + path, id});
+        try {
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).dumpHeap(path, true);
+        } catch (IOException e) {
+            Logger.error(e, "Failed to dump heap to {}", path);
+        }
         return path;
     }
 
@@ -174,9 +183,18 @@ public class ExecCmd {
     public static String exJstack() {
         String id = getPid();
         String path = ExecCmd.getRootPath("dump/" + id + "_thread.txt");
-        String s = ExecCmd.execute(new String[]{"jstack", id});
+        StringBuilder sb = new StringBuilder();
+        for (ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+            sb.append(Symbol.C_DOUBLE_QUOTES).append(info.getThreadName()).append(Symbol.C_DOUBLE_QUOTES)
+                    .append(" #").append(info.getThreadId()).append(Symbol.LF)
+                    .append("   java.lang.Thread.State: ").append(info.getThreadState()).append(Symbol.LF);
+            for (StackTraceElement element : info.getStackTrace()) {
+                sb.append("\tat ").append(element).append(Symbol.LF);
+            }
+            sb.append(Symbol.LF);
+        }
         File file = new File(path);
-        FileKit.writeString(s, file, Charset.UTF_8);
+        FileKit.writeString(sb.toString(), file, Charset.UTF_8);
         return path;
     }
 
@@ -198,14 +216,7 @@ public class ExecCmd {
      * @return the StackEntity
      */
     public static StackEntity jstack() {
-        String id = getPid();
-        String s = ExecCmd.execute(new String[]{"jstack", id});
-        int total = appearNumber(s, "nid=");
-        String prefix = "java.lang.Thread.State: ";
-        int RUNNABLE = appearNumber(s, prefix + "RUNNABLE");
-        int TIMED_WAITING = appearNumber(s, prefix + "TIMED_WAITING");
-        int WAITING = appearNumber(s, prefix + "WAITING");
-        return new StackEntity(id, total, RUNNABLE, TIMED_WAITING, WAITING);
+        return sampler().getStack();
     }
 
     /**
@@ -233,11 +244,10 @@ public class ExecCmd {
      * @throws IOException 异常
      */
     public static List<Map<String, String>> jstatClazz() throws IOException {
-        String id = getPid();
-        List<Map<String, String>> jstatClass = jstat(new String[]{"jstat", "-class", id});
-        List<Map<String, String>> jstatCompiler = jstat(new String[]{"jstat", "-compiler", id});
-        jstatClass.addAll(jstatCompiler);
-        return jstatClass;
+        ClazzEntity clazz = sampler().getClazz();
+        return jstat(new String[]{"Loaded", "Bytes", "Unloaded", "Bytes", "Time", "Compiled", "Failed", "Invalid", "Time"},
+                clazz.getLoaded(), clazz.getBytes1(), clazz.getUnloaded(), clazz.getBytes2(), clazz.getTime1(),
+                clazz.getCompiled(), clazz.getFailed(), clazz.getInvalid(), clazz.getTime2());
     }
 
     /**
@@ -248,7 +258,11 @@ public class ExecCmd {
      * @throws IOException 异常
      */
     public static List<Map<String, String>> jstatGc() throws IOException {
-        return jstat(new String[]{"jstat", "-gc", getPid()});
+        GcEntity gc = sampler().getGc();
+        return jstat(new String[]{"S0C", "S1C", "S0U", "S1U", "EC", "EU", "OC", "OU", "MC", "MU", "CCSC", "CCSU",
+                        "YGC", "YGCT", "FGC", "FGCT", "GCT"},
+                gc.getS0c(), gc.getS1c(), gc.getS0u(), gc.getS1u(), gc.getEc(), gc.getEu(), gc.getOc(), gc.getOU(),
+                gc.getMc(), gc.getMu(), gc.getCcsc(), gc.getCcsu(), gc.getYgc(), gc.getYgct(), gc.getFgc(), gc.getFgct(), gc.getGct());
     }
 
     /**
@@ -259,7 +273,22 @@ public class ExecCmd {
      * @throws IOException 异常
      */
     public static List<Map<String, String>> jstatGcu() throws IOException {
-        return jstat(new String[]{"jstat", "-gcutil", getPid()});
+        GcEntity gc = sampler().getGc();
+        return jstat(new String[]{"S0", "S1", "E", "O", "M", "CCS", "YGC", "YGCT", "FGC", "FGCT", "GCT"},
+                percent(gc.getS0u(), gc.getS0c()), percent(gc.getS1u(), gc.getS1c()), percent(gc.getEu(), gc.getEc()),
+                percent(gc.getOU(), gc.getOc()), percent(gc.getMu(), gc.getMc()), percent(gc.getCcsu(), gc.getCcsc()),
+                gc.getYgc(), gc.getYgct(), gc.getFgc(), gc.getFgct(), gc.getGct());
+    }
+
+    /**
+     * 刷新并返回共享的采样器
+     *
+     * @return the Sampler
+     */
+    private static Sampler sampler() {
+        final Sampler sampler = SamplerHolder.INSTANCE;
+        sampler.sample();
+        return sampler;
     }
 
     /**
@@ -289,35 +318,35 @@ public class ExecCmd {
     }
 
     /**
-     * jstat 模板方法
+     * 按jstat的输出格式组装结果，每列一个Map，缺失的值以"-"表示
      *
-     * @param strings 命令
+     * @param keys   列名
+     * @param values 值
      * @return 集合
-     * @throws IOException 异常
      */
-    private static List<Map<String, String>> jstat(String[] strings) throws IOException {
-        List<Map<String, String>> list = new ArrayList<>();
-        String s = ExecCmd.execute(strings);
-        assert null != s;
-        BufferedReader reader = new BufferedReader(new StringReader(s));
-        String[] keys = ArrayKit.toStringArray(reader.readLine().split("\\s+|\t"));
-        String[] values = ArrayKit.toStringArray(reader.readLine().split("\\s+|\t"));
-        // 特殊情况
-        if (strings[1].equals("-compiler")) {
-            for (int i = 0; i < 4; i++) {
-                Map<String, String> map = new HashMap();
-                map.put(keys[i], values[i]);
-                list.add(map);
-            }
-            return list;
-        }
-        // 正常流程
+    private static List<Map<String, String>> jstat(String[] keys, String... values) {
+        List<Map<String, String>> list = new ArrayList<>(keys.length);
         for (int i = 0; i < keys.length; i++) {
-            Map<String, String> map = new HashMap();
-            map.put(keys[i], values[i]);
+            Map<String, String> map = new HashMap<>();
+            map.put(keys[i], null == values[i] ? Symbol.MINUS : values[i]);
             list.add(map);
         }
         return list;
     }
 
+    /**
+     * 计算已用百分比
+     *
+     * @param used     已用(KB)
+     * @param capacity 容量(KB)
+     * @return 百分比
+     */
+    private static String percent(String used, String capacity) {
+        double total = Double.parseDouble(capacity);
+        if (total <= 0) {
+            return Symbol.MINUS;
+        }
+        return String.format(Locale.ROOT, "%.2f", Double.parseDouble(used) * 100 / total);
+    }
+
 }
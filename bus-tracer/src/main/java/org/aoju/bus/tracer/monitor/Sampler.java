@@ -0,0 +1,390 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.tracer.monitor;
+
+import org.aoju.bus.core.date.formatter.FormatBuilder;
+import org.aoju.bus.logger.Logger;
+
+import java.io.Closeable;
+import java.lang.management.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内JVM采样器
+ * 按固定间隔从{@link java.lang.management}的MXBean读取内存池、GC、类加载与线程状态，
+ * 可选通过JFR事件流读取JIT编译统计，无需再启动jstat/jstack子进程.
+ * 每次采样只更新数值字段，不构造实体与字符串，实体在读取时按jstat的单位填充
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public class Sampler implements Closeable {
+
+    private static final FormatBuilder DATE_FORMAT = FormatBuilder.getInstance("MM/dd HH:mm");
+
+    private static final int EDEN = 1;
+    private static final int SURVIVOR = 2;
+    private static final int OLD = 3;
+    private static final int METASPACE = 4;
+    private static final int COMPRESSED_CLASS = 5;
+
+    private final Integer id;
+    private final String name;
+    private final long interval;
+    private final boolean jfr;
+
+    private final MemoryPoolMXBean[] pools;
+    private final int[] roles;
+    private final GarbageCollectorMXBean[] collectors;
+    private final boolean[] major;
+    private final ClassLoadingMXBean classLoading;
+    private final CompilationMXBean compilation;
+    private final ThreadGroup root;
+
+    private Thread[] threads = new Thread[64];
+    private ScheduledExecutorService scheduler;
+    private CompilerRecorder recorder;
+
+    private long time;
+    private long s0c, s0u, ec, eu, oc, ou, mc, mu, ccsc, ccsu;
+    private long ygc, ygct, fgc, fgct;
+    private long loaded, unloaded, compileTime;
+    private int total, runnable, timedWaiting, waiting;
+
+    /**
+     * 每秒采样一次，启用JFR
+     */
+    public Sampler() {
+        this(1, TimeUnit.SECONDS, true);
+    }
+
+    /**
+     * @param interval 采样间隔
+     * @param unit     间隔单位
+     * @param jfr      是否通过JFR采集编译统计
+     */
+    public Sampler(final long interval, final TimeUnit unit, final boolean jfr) {
+        this(ManagementFactory.getRuntimeMXBean().getName(), interval, unit, jfr);
+    }
+
+    /**
+     * @param name     应用名称
+     * @param interval 采样间隔
+     * @param unit     间隔单位
+     * @param jfr      是否通过JFR采集编译统计
+     */
+    public Sampler(final String name, final long interval, final TimeUnit unit, final boolean jfr) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.id = (int) ProcessHandle.current().pid();
+        this.name = name;
+        this.interval = unit.toMillis(interval);
+        this.jfr = jfr;
+
+        final List<MemoryPoolMXBean> poolList = ManagementFactory.getMemoryPoolMXBeans();
+        this.pools = poolList.toArray(new MemoryPoolMXBean[0]);
+        this.roles = new int[this.pools.length];
+        for (int i = 0; i < this.pools.length; i++) {
+            this.roles[i] = role(this.pools[i].getName());
+        }
+        final List<GarbageCollectorMXBean> collectorList = ManagementFactory.getGarbageCollectorMXBeans();
+        this.collectors = collectorList.toArray(new GarbageCollectorMXBean[0]);
+        this.major = new boolean[this.collectors.length];
+        for (int i = 0; i < this.collectors.length; i++) {
+            this.major[i] = isMajor(this.collectors[i].getName());
+        }
+        this.classLoading = ManagementFactory.getClassLoadingMXBean();
+        this.compilation = ManagementFactory.getCompilationMXBean();
+
+        ThreadGroup group = Thread.currentThread().getThreadGroup();
+        while (null != group.getParent()) {
+            group = group.getParent();
+        }
+        this.root = group;
+        sample();
+    }
+
+    /**
+     * 按名称判断内存池类型，兼容Serial、Parallel、G1等收集器的命名
+     */
+    private static int role(final String name) {
+        if (name.contains("Eden")) {
+            return EDEN;
+        }
+        if (name.contains("Survivor")) {
+            return SURVIVOR;
+        }
+        if (name.contains("Old") || name.contains("Tenured")) {
+            return OLD;
+        }
+        if (name.equals("Metaspace")) {
+            return METASPACE;
+        }
+        if (name.equals("Compressed Class Space")) {
+            return COMPRESSED_CLASS;
+        }
+        return 0;
+    }
+
+    /**
+     * 按名称判断是否为老年代(Full)收集器，对应jstat的FGC
+     */
+    private static boolean isMajor(final String name) {
+        return name.contains("Old") || name.contains("MarkSweep") || name.contains("Major");
+    }
+
+    private static String kb(final long bytes) {
+        return String.format(Locale.ROOT, "%.1f", bytes / 1024.0);
+    }
+
+    private static String seconds(final long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    private static String number(final long value) {
+        return value < 0 ? null : String.valueOf(value);
+    }
+
+    /**
+     * 启动后台定时采样，重复调用无效
+     */
+    public synchronized void start() {
+        if (null != this.scheduler) {
+            return;
+        }
+        if (this.jfr) {
+            try {
+                this.recorder = new CompilerRecorder(Duration.ofMillis(this.interval));
+            } catch (LinkageError | RuntimeException e) {
+                Logger.debug("JFR is unavailable, falling back to CompilationMXBean: {}", e.getMessage());
+            }
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "bus-tracer-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::sample, this.interval, this.interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止后台采样
+     */
+    @Override
+    public synchronized void close() {
+        if (null != this.scheduler) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+        if (null != this.recorder) {
+            this.recorder.close();
+            this.recorder = null;
+        }
+    }
+
+    /**
+     * 立即采样一次，后台采样线程按间隔调用
+     */
+    public synchronized void sample() {
+        this.time = System.currentTimeMillis();
+
+        this.s0c = this.s0u = this.ec = this.eu = this.oc = this.ou = this.mc = this.mu = this.ccsc = this.ccsu = 0;
+        for (int i = 0; i < this.pools.length; i++) {
+            if (0 == this.roles[i]) {
+                continue;
+            }
+            final MemoryUsage usage = this.pools[i].getUsage();
+            if (null == usage) {
+                continue;
+            }
+            switch (this.roles[i]) {
+                case EDEN -> {
+                    this.ec += usage.getCommitted();
+                    this.eu += usage.getUsed();
+                }
+                case SURVIVOR -> {
+                    this.s0c += usage.getCommitted();
+                    this.s0u += usage.getUsed();
+                }
+                case OLD -> {
+                    this.oc += usage.getCommitted();
+                    this.ou += usage.getUsed();
+                }
+                case METASPACE -> {
+                    this.mc += usage.getCommitted();
+                    this.mu += usage.getUsed();
+                }
+                default -> {
+                    this.ccsc += usage.getCommitted();
+                    this.ccsu += usage.getUsed();
+                }
+            }
+        }
+
+        this.ygc = this.ygct = this.fgc = this.fgct = 0;
+        for (int i = 0; i < this.collectors.length; i++) {
+            final long count = Math.max(0, this.collectors[i].getCollectionCount());
+            final long elapsed = Math.max(0, this.collectors[i].getCollectionTime());
+            if (this.major[i]) {
+                this.fgc += count;
+                this.fgct += elapsed;
+            } else {
+                this.ygc += count;
+                this.ygct += elapsed;
+            }
+        }
+
+        this.loaded = this.classLoading.getLoadedClassCount();
+        this.unloaded = this.classLoading.getUnloadedClassCount();
+        this.compileTime = null != this.compilation && this.compilation.isCompilationTimeMonitoringSupported()
+                ? this.compilation.getTotalCompilationTime() : -1;
+
+        int count;
+        while ((count = this.root.enumerate(this.threads, true)) == this.threads.length) {
+            this.threads = new Thread[this.threads.length * 2];
+        }
+        this.total = count;
+        this.runnable = this.timedWaiting = this.waiting = 0;
+        for (int i = 0; i < count; i++) {
+            switch (this.threads[i].getState()) {
+                case RUNNABLE -> this.runnable++;
+                case TIMED_WAITING -> this.timedWaiting++;
+                case WAITING -> this.waiting++;
+                default -> {
+                }
+            }
+            this.threads[i] = null;
+        }
+    }
+
+    /**
+     * @return 最近一次采样的堆内存与GC信息
+     */
+    public GcEntity getGc() {
+        return gc(new GcEntity());
+    }
+
+    /**
+     * 将最近一次采样的堆内存与GC信息填充到已有实体，单位同jstat -gc
+     * JVM只暴露一个Survivor内存池，其值记入S0，S1为0
+     *
+     * @param entity 实体
+     * @return 实体
+     */
+    public synchronized GcEntity gc(final GcEntity entity) {
+        entity.setId(this.id);
+        entity.setName(this.name);
+        entity.setDate(DATE_FORMAT.format(this.time));
+        entity.setS0c(kb(this.s0c));
+        entity.setS1c(kb(0));
+        entity.setS0u(kb(this.s0u));
+        entity.setS1u(kb(0));
+        entity.setEc(kb(this.ec));
+        entity.setEu(kb(this.eu));
+        entity.setOc(kb(this.oc));
+        entity.setOU(kb(this.ou));
+        entity.setMc(kb(this.mc));
+        entity.setMu(kb(this.mu));
+        entity.setCcsc(kb(this.ccsc));
+        entity.setCcsu(kb(this.ccsu));
+        entity.setYgc(String.valueOf(this.ygc));
+        entity.setYgct(seconds(this.ygct));
+        entity.setFgc(String.valueOf(this.fgc));
+        entity.setFgct(seconds(this.fgct));
+        entity.setGct(seconds(this.ygct + this.fgct));
+        return entity;
+    }
+
+    /**
+     * @return 最近一次采样的类加载与编译信息
+     */
+    public ClazzEntity getClazz() {
+        return clazz(new ClazzEntity());
+    }
+
+    /**
+     * 将最近一次采样的类加载与编译信息填充到已有实体
+     * MXBean不提供类的字节数与加载耗时，这些字段为null；编译次数仅在JFR可用时填充
+     *
+     * @param entity 实体
+     * @return 实体
+     */
+    public synchronized ClazzEntity clazz(final ClazzEntity entity) {
+        entity.setId(this.id);
+        entity.setName(this.name);
+        entity.setDate(DATE_FORMAT.format(this.time));
+        entity.setLoaded(String.valueOf(this.loaded));
+        entity.setUnloaded(String.valueOf(this.unloaded));
+        final CompilerRecorder current = this.recorder;
+        if (null != current && current.compiled >= 0) {
+            entity.setCompiled(number(current.compiled));
+            entity.setFailed(number(current.failed));
+            entity.setInvalid(number(current.invalid));
+            entity.setTime2(seconds(current.time));
+        } else if (this.compileTime >= 0) {
+            entity.setTime2(seconds(this.compileTime));
+        }
+        return entity;
+    }
+
+    /**
+     * @return 最近一次采样的线程状态
+     */
+    public ThreadEntity getThread() {
+        return thread(new ThreadEntity());
+    }
+
+    /**
+     * 将最近一次采样的线程状态填充到已有实体
+     *
+     * @param entity 实体
+     * @return 实体
+     */
+    public synchronized ThreadEntity thread(final ThreadEntity entity) {
+        entity.setId(this.id);
+        entity.setName(this.name);
+        entity.setDate(DATE_FORMAT.format(this.time));
+        entity.setTotal(this.total);
+        entity.setRunnable(this.runnable);
+        entity.setTimed_waiting(this.timedWaiting);
+        entity.setWaiting(this.waiting);
+        return entity;
+    }
+
+    /**
+     * @return 最近一次采样的线程状态
+     */
+    public synchronized StackEntity getStack() {
+        return new StackEntity(String.valueOf(this.id), this.total, this.runnable, this.timedWaiting, this.waiting);
+    }
+
+}
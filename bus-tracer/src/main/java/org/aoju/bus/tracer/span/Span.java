@@ -0,0 +1,169 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.tracer.span;
+
+/**
+ * 调用跨度，记录一次服务端处理或客户端调用的起止时间
+ * 通过{@link Spans#start}创建，{@link Spans#end}结束后进入当前线程的缓冲区等待上报
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public final class Span {
+
+    /**
+     * 未被采样的根跨度，仅用于在结束时清理传播的追踪ID
+     */
+    static final Span NOT_SAMPLED = new Span(null, Spans.NOT_SAMPLED, null, null, null, null);
+
+    /**
+     * 同一线程内的父跨度，结束后恢复为当前跨度
+     */
+    final Span parent;
+    private final String traceId;
+    private final String id;
+    private final String parentId;
+    private final String name;
+    private final Kind kind;
+    private final long startTime;
+    private final long startNanos;
+    private long duration;
+    private boolean error;
+
+    Span(final Span parent, final String traceId, final String id, final String parentId, final String name, final Kind kind) {
+        this.parent = parent;
+        this.traceId = traceId;
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 结束跨度
+     *
+     * @param error 是否失败
+     */
+    void end(final boolean error) {
+        this.duration = System.nanoTime() - this.startNanos;
+        this.error = error;
+    }
+
+    /**
+     * @return 追踪ID，同一调用链上的跨度相同
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return 跨度ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return 父跨度ID，根跨度为null
+     */
+    public String getParentId() {
+        return parentId;
+    }
+
+    /**
+     * @return 名称，如请求路径或方法名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 类型
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return 开始时间(毫秒时间戳)
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return 结束时间(毫秒时间戳)
+     */
+    public long getEndTime() {
+        return startTime + duration / 1_000_000L;
+    }
+
+    /**
+     * @return 耗时(纳秒)
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return 是否失败
+     */
+    public boolean isError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{traceId=" + traceId + ", id=" + id + ", parentId=" + parentId + ", name=" + name
+                + ", kind=" + kind + ", startTime=" + startTime + ", duration=" + duration / 1000L + "us"
+                + ", error=" + error + "}";
+    }
+
+    /**
+     * 跨度类型
+     */
+    public enum Kind {
+        /**
+         * 服务端处理请求
+         */
+        SERVER,
+        /**
+         * 客户端发起调用
+         */
+        CLIENT,
+        /**
+         * 发送消息
+         */
+        PRODUCER,
+        /**
+         * 消费消息
+         */
+        CONSUMER
+    }
+
+}
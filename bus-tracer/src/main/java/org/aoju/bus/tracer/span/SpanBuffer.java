@@ -0,0 +1,113 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.tracer.span;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程独占的跨度环形缓冲
+ * 仅所属线程写入、上报线程读取(单生产者单消费者)，双方各自推进游标，无需加锁
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+final class SpanBuffer {
+
+    private final Span[] ring;
+    private final int mask;
+    /**
+     * 所属线程，线程结束且缓冲取空后移除
+     */
+    private final WeakReference<Thread> owner;
+    /**
+     * 写入位置，仅所属线程推进
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * 读取位置，仅上报线程推进
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    SpanBuffer(final int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new Span[size];
+        this.mask = size - 1;
+        this.owner = new WeakReference<>(Thread.currentThread());
+    }
+
+    /**
+     * 写入跨度，仅所属线程调用
+     *
+     * @param span 跨度
+     * @return 缓冲已满时返回false
+     */
+    boolean offer(final Span span) {
+        final long t = tail.get();
+        if (t - head.get() >= ring.length) {
+            return false;
+        }
+        ring[(int) t & mask] = span;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * 取出跨度，仅上报线程调用
+     *
+     * @param target 目标列表
+     * @param limit  最多取出数量
+     * @return 取出数量
+     */
+    int drainTo(final List<Span> target, final int limit) {
+        final long h = head.get();
+        final long t = Math.min(tail.get(), h + limit);
+        for (long i = h; i < t; i++) {
+            final int index = (int) i & mask;
+            target.add(ring[index]);
+            ring[index] = null;
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * @return 所属线程是否已结束
+     */
+    boolean isOrphan() {
+        final Thread thread = owner.get();
+        return null == thread || false == thread.isAlive();
+    }
+
+}
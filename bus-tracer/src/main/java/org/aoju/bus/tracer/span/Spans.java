@@ -0,0 +1,320 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2023 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.tracer.span;
+
+import org.aoju.bus.logger.Logger;
+import org.aoju.bus.tracer.Backend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 跨度的创建、采样与批量上报
+ * <p>
+ * 线程内以当前跨度作为父跨度，追踪ID与当前跨度ID同时写入{@link Backend}，随已有的TPIC上下文在进程间传播；
+ * 根跨度按采样率决定是否采样，下游沿用上游的决定，未采样的链路以{@link #NOT_SAMPLED}作为追踪ID.
+ * 结束的跨度写入当前线程的环形缓冲，由后台线程按批取出交给{@link Reporter}，
+ * 未设置上报实现时不做任何处理
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+public final class Spans {
+
+    /**
+     * 追踪ID
+     */
+    public static final String TRACE_ID_KEY = "TPIC.traceId";
+    /**
+     * 当前跨度ID，作为下游跨度的父ID
+     */
+    public static final String SPAN_ID_KEY = "TPIC.spanId";
+    /**
+     * 未采样链路的追踪ID
+     */
+    public static final String NOT_SAMPLED = "0";
+
+    /**
+     * 当前线程正在进行的跨度
+     */
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final List<SpanBuffer> BUFFERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<SpanBuffer> BUFFER = ThreadLocal.withInitial(() -> {
+        final SpanBuffer buffer = new SpanBuffer(Spans.bufferSize);
+        BUFFERS.add(buffer);
+        return buffer;
+    });
+    private static final ReentrantLock DRAIN_LOCK = new ReentrantLock();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder REPORTED = new LongAdder();
+
+    private static volatile Reporter reporter;
+    private static volatile double sampleRate = 0.1D;
+    private static volatile int bufferSize = 1024;
+    private static volatile int batchSize = 512;
+    private static volatile long flushInterval = TimeUnit.SECONDS.toNanos(1);
+    private static Thread flusher;
+
+    private Spans() {
+    }
+
+    /**
+     * 开始跨度，并将其设为当前跨度
+     * 未设置上报实现或链路未被采样时返回null
+     *
+     * @param backend 上下文
+     * @param kind    类型
+     * @param name    名称
+     * @return 跨度，可能为null
+     */
+    public static Span start(final Backend backend, final Span.Kind kind, final String name) {
+        if (null == reporter) {
+            return null;
+        }
+        final Span current = CURRENT.get();
+        final String traceId;
+        final String parentId;
+        if (null != current) {
+            if (Span.NOT_SAMPLED == current) {
+                return null;
+            }
+            traceId = current.getTraceId();
+            parentId = current.getId();
+        } else {
+            final String upstream = backend.get(TRACE_ID_KEY);
+            if (null == upstream) {
+                if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                    backend.put(TRACE_ID_KEY, NOT_SAMPLED);
+                    CURRENT.set(Span.NOT_SAMPLED);
+                    return Span.NOT_SAMPLED;
+                }
+                traceId = nextId();
+                parentId = null;
+            } else if (NOT_SAMPLED.equals(upstream)) {
+                return null;
+            } else {
+                traceId = upstream;
+                parentId = backend.get(SPAN_ID_KEY);
+            }
+        }
+        final Span span = new Span(current, traceId, nextId(), parentId, name, kind);
+        if (false == traceId.equals(backend.get(TRACE_ID_KEY))) {
+            backend.put(TRACE_ID_KEY, traceId);
+        }
+        backend.put(SPAN_ID_KEY, span.getId());
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * 结束跨度并恢复上下文
+     *
+     * @param backend 上下文
+     * @param span    跨度，可为null
+     * @param error   是否失败
+     */
+    public static void finish(final Backend backend, final Span span, final boolean error) {
+        end(span, error);
+        exit(backend, span);
+    }
+
+    /**
+     * 结束跨度，可在与开始不同的线程调用
+     *
+     * @param span  跨度，可为null
+     * @param error 是否失败
+     */
+    public static void end(final Span span, final boolean error) {
+        if (null == span || Span.NOT_SAMPLED == span) {
+            return;
+        }
+        span.end(error);
+        if (false == BUFFER.get().offer(span)) {
+            DROPPED.increment();
+        }
+    }
+
+    /**
+     * 将当前跨度恢复为开始前的父跨度，须与{@link #start}在同一线程调用
+     * 客户端在写出上下文后即应调用，之后的调用不再以该跨度为父
+     *
+     * @param backend 上下文
+     * @param span    跨度，可为null
+     */
+    public static void exit(final Backend backend, final Span span) {
+        if (null == span) {
+            return;
+        }
+        if (null != span.parent) {
+            CURRENT.set(span.parent);
+            backend.put(SPAN_ID_KEY, span.parent.getId());
+            return;
+        }
+        CURRENT.remove();
+        if (null == span.getParentId()) {
+            backend.remove(SPAN_ID_KEY);
+            backend.remove(TRACE_ID_KEY);
+        } else {
+            backend.put(SPAN_ID_KEY, span.getParentId());
+        }
+    }
+
+    /**
+     * 设置上报实现并启动后台上报线程，为null时停止采集
+     *
+     * @param reporter 上报实现
+     */
+    public static synchronized void setReporter(final Reporter reporter) {
+        Spans.reporter = reporter;
+        if (null != reporter && null == flusher) {
+            flusher = new Thread(Spans::run, "bus-tracer-span-reporter");
+            flusher.setDaemon(true);
+            flusher.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(Spans::flush));
+        }
+    }
+
+    /**
+     * 设置根跨度的采样率，默认0.1
+     *
+     * @param sampleRate 采样率，0到1之间
+     */
+    public static void setSampleRate(final double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        Spans.sampleRate = sampleRate;
+    }
+
+    /**
+     * 设置每个线程的缓冲容量，默认1024，仅对之后首次写入的线程生效
+     *
+     * @param bufferSize 缓冲容量
+     */
+    public static void setBufferSize(final int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        Spans.bufferSize = bufferSize;
+    }
+
+    /**
+     * 设置单次上报的最大跨度数，默认512
+     *
+     * @param batchSize 批量大小
+     */
+    public static void setBatchSize(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        Spans.batchSize = batchSize;
+    }
+
+    /**
+     * 设置上报间隔，默认1秒
+     *
+     * @param interval 间隔
+     * @param unit     单位
+     */
+    public static void setFlushInterval(final long interval, final TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        Spans.flushInterval = unit.toNanos(interval);
+    }
+
+    /**
+     * @return 因缓冲已满而丢弃的跨度数
+     */
+    public static long getDroppedCount() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * @return 已上报的跨度数
+     */
+    public static long getReportedCount() {
+        return REPORTED.sum();
+    }
+
+    /**
+     * 立即取出所有缓冲中的跨度并上报
+     */
+    public static void flush() {
+        DRAIN_LOCK.lock();
+        try {
+            final int limit = batchSize;
+            List<Span> batch = new ArrayList<>(limit);
+            for (SpanBuffer buffer : BUFFERS) {
+                while (buffer.drainTo(batch, limit - batch.size()) > 0) {
+                    if (batch.size() >= limit) {
+                        report(batch);
+                        batch = new ArrayList<>(limit);
+                    }
+                }
+                if (buffer.isOrphan() && buffer.isEmpty()) {
+                    BUFFERS.remove(buffer);
+                }
+            }
+            if (false == batch.isEmpty()) {
+                report(batch);
+            }
+        } finally {
+            DRAIN_LOCK.unlock();
+        }
+    }
+
+    private static void report(final List<Span> batch) {
+        final Reporter current = reporter;
+        if (null == current) {
+            return;
+        }
+        try {
+            current.report(batch);
+            REPORTED.add(batch.size());
+        } catch (RuntimeException e) {
+            Logger.warn(e, "Failed to report {} spans", batch.size());
+        }
+    }
+
+    private static void run() {
+        while (true) {
+            LockSupport.parkNanos(flushInterval);
+            flush();
+        }
+    }
+
+    private static String nextId() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    }
+
+}
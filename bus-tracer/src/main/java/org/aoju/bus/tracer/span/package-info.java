@@ -0,0 +1,7 @@
+/**
+ * 调用跨度(Span)的采集与上报
+ *
+ * @author Kimi Liu
+ * @since Java 17+
+ */
+package org.aoju.bus.tracer.span;